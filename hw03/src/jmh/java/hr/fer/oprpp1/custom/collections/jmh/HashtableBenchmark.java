@@ -0,0 +1,242 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.oprpp1.custom.collections.Dictionary;
+import hr.fer.oprpp1.custom.collections.Hashtable;
+import hr.fer.oprpp1.custom.collections.Hashtables;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+
+/**
+ * Compares the hashtables and Dictionary with HashMap. Keys are either
+ * sequential integers, random integers or strings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashtableBenchmark {
+    /**
+     * Number of keys looked up by a single get invocation.
+     */
+    private static final int LOOKUPS = 1024;
+
+    /**
+     * Distributions of the generated keys.
+     */
+    public enum Distribution {
+        SEQUENTIAL, RANDOM, STRING
+    }
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    @Param
+    public Distribution distribution;
+
+    private Object[] keys;
+    private Object[] lookups;
+    private int cursor;
+
+    private Hashtable<Object, Integer> chaining;
+    private Hashtable<Object, Integer> openAddressing;
+    private Dictionary<Object, Integer> dictionary;
+    private HashMap<Object, Integer> hashMap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        keys = new Object[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = switch (distribution) {
+                case SEQUENTIAL -> i;
+                case RANDOM -> random.nextInt();
+                case STRING -> "key" + random.nextInt();
+            };
+        }
+        lookups = new Object[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = keys[random.nextInt(size)];
+        }
+
+        chaining = fill(Hashtables.create(Hashtables.Strategy.CHAINING));
+        openAddressing = fill(Hashtables.create(Hashtables.Strategy.OPEN_ADDRESSING));
+        dictionary = new Dictionary<>();
+        hashMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            dictionary.put(keys[i], i);
+            hashMap.put(keys[i], i);
+        }
+    }
+
+    private Hashtable<Object, Integer> fill(Hashtable<Object, Integer> table) {
+        for (int i = 0; i < size; i++) {
+            table.put(keys[i], i);
+        }
+        return table;
+    }
+
+    private Object nextKey() {
+        return keys[cursor++ % size];
+    }
+
+    // put: builds a whole table, including every resize on the way
+
+    @Benchmark
+    public Object putChaining() {
+        return fill(Hashtables.create(Hashtables.Strategy.CHAINING));
+    }
+
+    @Benchmark
+    public Object putIncrementalChaining() {
+        return fill(Hashtables.create(Hashtables.Strategy.INCREMENTAL_CHAINING));
+    }
+
+    @Benchmark
+    public Object putOpenAddressing() {
+        return fill(Hashtables.create(Hashtables.Strategy.OPEN_ADDRESSING));
+    }
+
+    @Benchmark
+    public Object putDictionary() {
+        Dictionary<Object, Integer> dict = new Dictionary<>();
+        for (int i = 0; i < size; i++) {
+            dict.put(keys[i], i);
+        }
+        return dict;
+    }
+
+    @Benchmark
+    public Object putHashMap() {
+        Map<Object, Integer> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    // get: lookups of random present keys
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getChaining() {
+        int sum = 0;
+        for (Object key : lookups) {
+            sum += chaining.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getOpenAddressing() {
+        int sum = 0;
+        for (Object key : lookups) {
+            sum += openAddressing.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getDictionary() {
+        int sum = 0;
+        for (Object key : lookups) {
+            sum += dictionary.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getHashMap() {
+        int sum = 0;
+        for (Object key : lookups) {
+            sum += hashMap.get(key);
+        }
+        return sum;
+    }
+
+    // remove: removes a key and puts it back, so the size stays the same
+
+    @Benchmark
+    public Object removeChaining() {
+        Object key = nextKey();
+        return chaining.put(key, chaining.remove(key));
+    }
+
+    @Benchmark
+    public Object removeOpenAddressing() {
+        Object key = nextKey();
+        return openAddressing.put(key, openAddressing.remove(key));
+    }
+
+    @Benchmark
+    public Object removeDictionary() {
+        Object key = nextKey();
+        return dictionary.put(key, dictionary.remove(key));
+    }
+
+    @Benchmark
+    public Object removeHashMap() {
+        Object key = nextKey();
+        return hashMap.put(key, hashMap.remove(key));
+    }
+
+    // iterate: visits every entry once
+
+    @Benchmark
+    public int iterateChaining() {
+        int sum = 0;
+        for (SimpleHashtable.TableEntry<Object, Integer> entry : chaining) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterateOpenAddressing() {
+        int sum = 0;
+        for (SimpleHashtable.TableEntry<Object, Integer> entry : openAddressing) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterateDictionary() {
+        int sum = 0;
+        for (Dictionary.Entry<Object, Integer> entry : dictionary) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterateHashMap() {
+        int sum = 0;
+        for (Map.Entry<Object, Integer> entry : hashMap.entrySet()) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+}
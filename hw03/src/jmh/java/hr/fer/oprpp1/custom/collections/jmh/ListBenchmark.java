@@ -0,0 +1,250 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.ElementsGetter;
+import hr.fer.oprpp1.custom.collections.LinkedListIndexedCollection;
+import hr.fer.oprpp1.custom.collections.List;
+import hr.fer.oprpp1.custom.collections.UnrolledLinkedListIndexedCollection;
+
+/**
+ * Compares the indexed list collections with ArrayList and LinkedList. Every
+ * benchmark method is named after the operation followed by the
+ * implementation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+    /**
+     * Number of random positions accessed by a single get invocation.
+     */
+    private static final int ACCESSES = 1024;
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private Integer[] values;
+    private int[] positions;
+
+    private ArrayIndexedCollection<Integer> array;
+    private LinkedListIndexedCollection<Integer> linked;
+    private UnrolledLinkedListIndexedCollection<Integer> unrolled;
+    private ArrayList<Integer> arrayList;
+    private LinkedList<Integer> linkedList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt();
+        }
+        positions = new int[ACCESSES];
+        for (int i = 0; i < ACCESSES; i++) {
+            positions[i] = random.nextInt(size);
+        }
+
+        array = fill(new ArrayIndexedCollection<>());
+        linked = fill(new LinkedListIndexedCollection<>());
+        unrolled = fill(new UnrolledLinkedListIndexedCollection<>());
+        arrayList = new ArrayList<>();
+        linkedList = new LinkedList<>();
+        for (Integer value : values) {
+            arrayList.add(value);
+            linkedList.add(value);
+        }
+    }
+
+    private <C extends List<Integer>> C fill(C col) {
+        for (Integer value : values) {
+            col.add(value);
+        }
+        return col;
+    }
+
+    // add: builds a whole list, including every resize on the way
+
+    @Benchmark
+    public Object addArrayIndexed() {
+        return fill(new ArrayIndexedCollection<>());
+    }
+
+    @Benchmark
+    public Object addLinkedListIndexed() {
+        return fill(new LinkedListIndexedCollection<>());
+    }
+
+    @Benchmark
+    public Object addUnrolled() {
+        return fill(new UnrolledLinkedListIndexedCollection<>());
+    }
+
+    @Benchmark
+    public Object addArrayList() {
+        ArrayList<Integer> list = new ArrayList<>();
+        for (Integer value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public Object addLinkedList() {
+        LinkedList<Integer> list = new LinkedList<>();
+        for (Integer value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    // get: random positional access
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int getArrayIndexed() {
+        int sum = 0;
+        for (int position : positions) {
+            sum += array.get(position);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int getLinkedListIndexed() {
+        int sum = 0;
+        for (int position : positions) {
+            sum += linked.get(position);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int getUnrolled() {
+        int sum = 0;
+        for (int position : positions) {
+            sum += unrolled.get(position);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int getArrayList() {
+        int sum = 0;
+        for (int position : positions) {
+            sum += arrayList.get(position);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int getLinkedList() {
+        int sum = 0;
+        for (int position : positions) {
+            sum += linkedList.get(position);
+        }
+        return sum;
+    }
+
+    // insert and remove: one insert followed by one remove in the middle, so the
+    // size stays the same between invocations
+
+    @Benchmark
+    public void insertRemoveArrayIndexed() {
+        array.insert(values[0], size / 2);
+        array.remove(size / 2);
+    }
+
+    @Benchmark
+    public void insertRemoveLinkedListIndexed() {
+        linked.insert(values[0], size / 2);
+        linked.remove(size / 2);
+    }
+
+    @Benchmark
+    public void insertRemoveUnrolled() {
+        unrolled.insert(values[0], size / 2);
+        unrolled.remove(size / 2);
+    }
+
+    @Benchmark
+    public void insertRemoveArrayList() {
+        arrayList.add(size / 2, values[0]);
+        arrayList.remove(size / 2);
+    }
+
+    @Benchmark
+    public void insertRemoveLinkedList() {
+        linkedList.add(size / 2, values[0]);
+        linkedList.remove(size / 2);
+    }
+
+    // iterate: visits every element once
+
+    @Benchmark
+    public int iterateArrayIndexed() {
+        return sum(array);
+    }
+
+    @Benchmark
+    public int iterateLinkedListIndexed() {
+        return sum(linked);
+    }
+
+    @Benchmark
+    public int iterateUnrolled() {
+        return sum(unrolled);
+    }
+
+    @Benchmark
+    public int iterateArrayList() {
+        int sum = 0;
+        for (Integer value : arrayList) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterateLinkedList() {
+        int sum = 0;
+        for (Integer value : linkedList) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static int sum(List<Integer> col) {
+        int sum = 0;
+        ElementsGetter<Integer> getter = col.createElementsGetter();
+        while (getter.hasNextElement()) {
+            sum += getter.getNextElement();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,72 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.oprpp1.custom.collections.IntObjectStack;
+import hr.fer.oprpp1.custom.collections.ObjectStack;
+
+/**
+ * Compares the stacks with ArrayDeque. Every invocation pushes size elements
+ * onto a new stack and pops them all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectStackBenchmark {
+    @Param({ "1000", "100000" })
+    public int size;
+
+    @Benchmark
+    public int pushPopObjectStack() {
+        ObjectStack<Integer> stack = new ObjectStack<>();
+        for (int i = 0; i < size; i++) {
+            stack.push(i);
+        }
+        int sum = 0;
+        while (!stack.isEmpty()) {
+            sum += (Integer) stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int pushPopIntObjectStack() {
+        IntObjectStack stack = new IntObjectStack();
+        for (int i = 0; i < size; i++) {
+            stack.push(i);
+        }
+        int sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int pushPopArrayDeque() {
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            stack.push(i);
+        }
+        int sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+}
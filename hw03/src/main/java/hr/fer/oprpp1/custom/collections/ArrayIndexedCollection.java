@@ -110,25 +110,52 @@ public class ArrayIndexedCollection<T> implements List<T> {
      * @param value - object to be added to the collection.
      * @throws NullPointerException if the given object is null.
      */
-    @SuppressWarnings("unchecked")
     @Override
     public void add(T value) {
         if (value == null) {
             throw new NullPointerException();
         }
 
-        int i = 0;
         if (size == elements.length) {
-            T[] newElements = (T[]) new Object[2 * elements.length];
-            for (T v : elements) {
-                newElements[i++] = v;
-            }
-            elements = newElements;
+            ensureCapacity(size + 1);
         }
         modificationCount++;
         elements[size++] = value;
     }
 
+    /**
+     * Makes sure the collection can hold at least the given number of elements
+     * without growing again. If the array has to grow, its capacity is at least
+     * doubled, and all the elements are copied in a single step.
+     * 
+     * @param minCapacity - the number of elements the collection should be able to
+     *                    hold.
+     */
+    @SuppressWarnings("unchecked")
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= elements.length) {
+            return;
+        }
+        T[] newElements = (T[]) new Object[Math.max(2 * elements.length, minCapacity)];
+        System.arraycopy(elements, 0, newElements, 0, size);
+        elements = newElements;
+    }
+
+    /**
+     * Shrinks the capacity of the collection to its current size, releasing the
+     * unused part of the array. The capacity never drops below one.
+     */
+    @SuppressWarnings("unchecked")
+    public void trimToSize() {
+        int capacity = Math.max(size, 1);
+        if (capacity == elements.length) {
+            return;
+        }
+        T[] newElements = (T[]) new Object[capacity];
+        System.arraycopy(elements, 0, newElements, 0, size);
+        elements = newElements;
+    }
+
     /**
      * Returns true if the collection contains the given object.
      * 
@@ -256,13 +283,36 @@ public class ArrayIndexedCollection<T> implements List<T> {
      *              replaced by it's right neighbor.
      */
     private void shiftLeft(int index) {
-        index++;
-        for (; index < size; index++) {
-            elements[index - 1] = elements[index];
-        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
         elements[size - 1] = null;
     }
 
+    /**
+     * Removes all elements with indexes from fromIndex, inclusive, to toIndex,
+     * exclusive. The following elements are moved left in a single step.
+     * 
+     * @param fromIndex - index of the first element to be removed.
+     * @param toIndex   - index after the last element to be removed.
+     * @throws IndexOutOfBoundsException if fromIndex is negative, toIndex is
+     *                                   greater than size or fromIndex is greater
+     *                                   than toIndex.
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        for (int i = newSize; i < size; i++) {
+            elements[i] = null;
+        }
+        size = newSize;
+        modificationCount++;
+    }
+
     /**
      * Inserts the given object at the given position in the collection.
      * 
@@ -271,7 +321,6 @@ public class ArrayIndexedCollection<T> implements List<T> {
      * @throws NullPointerException      if the given object is null.
      * @throws IndexOutOfBoundsException if the given position is out of bounds.
      */
-    @SuppressWarnings("unchecked")
     public void insert(T value, int position) {
         if (position < 0 || position > size) {
             throw new IndexOutOfBoundsException();
@@ -281,18 +330,10 @@ public class ArrayIndexedCollection<T> implements List<T> {
             throw new NullPointerException();
         }
 
-        if (elements[elements.length - 1] != null) {
-            T[] newElements = (T[]) new Object[2 * elements.length];
-            int i = 0;
-            for (T v : elements) {
-                newElements[i++] = v;
-            }
-            elements = newElements;
-        }
-
-        for (int i = size; i > position; i--) {
-            elements[i] = elements[i - 1];
+        if (size == elements.length) {
+            ensureCapacity(size + 1);
         }
+        System.arraycopy(elements, position, elements, position + 1, size - position);
 
         elements[position] = value;
         size++;
@@ -300,28 +341,79 @@ public class ArrayIndexedCollection<T> implements List<T> {
     }
 
     /**
-     * Adds all elements of the given collection to this collection.
+     * Adds all elements of the given collection to this collection. The array
+     * grows at most once and the elements are copied in bulk instead of being
+     * added one by one.
      * 
      * @param other - collection whose elements will be added to this collection.
      *              Collection other is not modified.
+     * @throws NullPointerException if the given collection is null or contains
+     *                              null.
      */
     @Override
     public void addAll(Collection<? extends T> other) {
-        class LocalProcessor implements Processor<T> {
-            public void process(T value) {
-                add(value);
+        insertAll(other, size);
+    }
+
+    /**
+     * Inserts all elements of the given collection at the given position, keeping
+     * their order. Elements that were at that position and after it are moved right
+     * in a single step, and the array grows at most once. If the other collection
+     * is also an ArrayIndexedCollection, its elements are copied straight out of
+     * its array.
+     * 
+     * @param other    - collection whose elements will be inserted. Collection
+     *                 other is not modified.
+     * @param position - position at which the first element will be inserted.
+     * @throws NullPointerException      if the given collection is null or
+     *                                   contains null.
+     * @throws IndexOutOfBoundsException if the given position is not between 0 and
+     *                                   size.
+     */
+    public void insertAll(Collection<? extends T> other, int position) {
+        if (other == null) {
+            throw new NullPointerException();
+        }
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        Object[] source;
+        int count;
+        if (other instanceof ArrayIndexedCollection<? extends T> array && array != this) {
+            source = array.elements;
+            count = array.size;
+        } else {
+            source = other.toArray();
+            count = source.length;
+            for (int i = 0; i < count; i++) {
+                if (source[i] == null) {
+                    throw new NullPointerException();
+                }
             }
         }
-        other.forEach(new LocalProcessor());
+        if (count == 0) {
+            return;
+        }
+
+        ensureCapacity(size + count);
+        System.arraycopy(elements, position, elements, position + count, size - position);
+        System.arraycopy(source, 0, elements, position, count);
+        size += count;
+        modificationCount++;
     }
 
     private static class ArrayIndexedCollectionElementsGetter<T> implements ElementsGetter<T> {
         /**
-         * Initially equal to the number of elements in the collection. It is decreased
-         * by 1 whenever the getNextElement() method is called. When it reaches 0 we
-         * have iterated through all elements.
+         * Index of the next element to be returned.
          */
-        private int indexReverse;
+        private int index;
+
+        /**
+         * Index after the last element this getter returns. Equal to the size of the
+         * collection, unless the getter was split.
+         */
+        private final int fence;
 
         /**
          * Reference to the collection whose elements we are iterating through.
@@ -338,21 +430,17 @@ public class ArrayIndexedCollection<T> implements List<T> {
         /**
          * Constructor for the ArrayIndexedCollectionElementsGetter class.
          * 
-         * @param indexReverse           - initially equal to the number of elements in
-         *                               the
-         *                               collection, counting down to 0. When it reaches
-         *                               zero we
-         *                               have iterated through all elements.
-         * @param col                    - reference to collection whose elements we are
-         *                               iterating
-         *                               through.
-         *
-         * @param savedModificationCount - modification count of the collection instance
-         *
+         * @param col               - reference to collection whose elements we are
+         *                          iterating through.
+         * @param index             - index of the first element to be returned.
+         * @param fence             - index after the last element to be returned.
+         * @param modificationCount - modification count of the collection instance
          */
-        private ArrayIndexedCollectionElementsGetter(ArrayIndexedCollection<T> col, int size, int modificationCount) {
-            indexReverse = size;
+        private ArrayIndexedCollectionElementsGetter(ArrayIndexedCollection<T> col, int index, int fence,
+                int modificationCount) {
             this.col = col;
+            this.index = index;
+            this.fence = fence;
             savedModificationCount = modificationCount;
         }
 
@@ -370,7 +458,7 @@ public class ArrayIndexedCollection<T> implements List<T> {
             if (savedModificationCount != col.modificationCount) {
                 throw new ConcurrentModificationException();
             }
-            return indexReverse > 0;
+            return index < fence;
         }
 
         /**
@@ -387,24 +475,45 @@ public class ArrayIndexedCollection<T> implements List<T> {
          */
         @Override
         public T getNextElement() {
-            if (savedModificationCount != col.modificationCount) {
-                throw new ConcurrentModificationException();
-            }
             if (!hasNextElement()) {
                 throw new NoSuchElementException();
             }
-            return col.elements[col.size - (indexReverse--)];
+            return col.elements[index++];
         }
 
+        /**
+         * Splits off the first half of the remaining elements, which is just a range
+         * of the same array.
+         * 
+         * @return a getter over the first half of the remaining elements, or null if
+         *         fewer than two elements remain.
+         */
+        @Override
+        public ElementsGetter<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid == index) {
+                return null;
+            }
+            ElementsGetter<T> prefix = new ArrayIndexedCollectionElementsGetter<>(col, index, mid,
+                    savedModificationCount);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
     }
 
     /**
-     * Creates a new ElementsGetter for this collection.
+     * Creates a new ElementsGetter for this collection. The getter can be split
+     * with {@link ElementsGetter#trySplit()}.
      * 
      * @return new ElementsGetter for this collection.
      */
     @Override
     public ElementsGetter<T> createElementsGetter() {
-        return new ArrayIndexedCollectionElementsGetter<>(this, size, modificationCount);
+        return new ArrayIndexedCollectionElementsGetter<>(this, 0, size, modificationCount);
     }
 }
@@ -1,5 +1,8 @@
 package hr.fer.oprpp1.custom.collections;
 
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * An interface that defines a set of methods every collection should implement.
  */
@@ -63,6 +66,32 @@ public interface Collection<T> {
         }
     }
 
+    /**
+     * Calls the processor's process method for each element of this collection,
+     * using multiple threads of the common fork-join pool. The elements are split
+     * between the threads with {@link ElementsGetter#trySplit()}, so collections
+     * whose getters can't be split are processed by a single thread. The order in
+     * which the elements are processed is not defined, and the processor must be
+     * safe to call from multiple threads at once.
+     * 
+     * @param processor - processor that will process each element of the
+     *                  collection, defined by the user.
+     */
+    default void parallelForEach(Processor<? super T> processor) {
+        StreamSupport.stream(new ElementsGetterSpliterator<>(createElementsGetter()), true)
+                .forEach(processor::process);
+    }
+
+    /**
+     * Returns a sequential stream of the elements of this collection. Call
+     * parallel() on it to have it split with {@link ElementsGetter#trySplit()}.
+     * 
+     * @return a stream of the elements of this collection.
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(new ElementsGetterSpliterator<>(createElementsGetter()), false);
+    }
+
     /**
      * Adds all elements from the given collection into this collection. The given
      * collection is not modified.
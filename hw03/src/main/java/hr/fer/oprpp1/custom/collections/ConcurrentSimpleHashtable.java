@@ -0,0 +1,605 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * A hashtable that can be shared between threads. The table is split into
+ * segments, each guarded by its own lock, so writers only block writers that
+ * hit the same segment. Readers never take a lock: nodes publish their value
+ * and their successor through volatile fields and a segment publishes a resized
+ * table only after it is fully built, so get and containsKey always see a
+ * consistent chain.
+ * <p>
+ * Iteration is weakly consistent: the iterator never throws
+ * {@link java.util.ConcurrentModificationException}, it reflects the state of
+ * each slot at the moment the slot is reached and may or may not reflect
+ * modifications made after its creation. Null values are not allowed, so null
+ * returned from {@link #get(Object)} always means that the key is absent.
+ */
+public class ConcurrentSimpleHashtable<K, V> implements Hashtable<K, V> {
+    /**
+     * The segments of the hashtable, the segment of a key is determined by the
+     * highest bits of its hash.
+     */
+    private final Segment<K, V>[] segments;
+
+    /**
+     * Number of bits the hash is shifted by to get the index of its segment.
+     */
+    private final int segmentShift;
+
+    /**
+     * The default capacity of the hashtable.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The default number of segments.
+     */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * The default load factor of each segment.
+     */
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    /**
+     * Constructs a new hashtable with the default capacity and number of segments.
+     */
+    public ConcurrentSimpleHashtable() {
+        this(DEFAULT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs a new hashtable with the given capacity and the default number of
+     * segments.
+     *
+     * @param capacity the capacity of the hashtable
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public ConcurrentSimpleHashtable(int capacity) {
+        this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs a new hashtable with the given capacity and the given number of
+     * segments. The number of segments is the number of writers that can modify
+     * the hashtable at the same time without blocking each other, it is rounded up
+     * to the nearest power of two.
+     *
+     * @param capacity         the capacity of the hashtable
+     * @param concurrencyLevel the number of segments
+     * @throws IllegalArgumentException if the capacity or the concurrency level is
+     *                                  less than 1
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentSimpleHashtable(int capacity, int concurrencyLevel) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0.");
+        }
+        if (concurrencyLevel < 1) {
+            throw new IllegalArgumentException("Concurrency level must be greater than 0.");
+        }
+        int segmentCount = powerOfTwo(Math.min(concurrencyLevel, 1 << 16));
+        segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        int segmentCapacity = powerOfTwo(Math.max(2, (capacity + segmentCount - 1) / segmentCount));
+
+        segments = (Segment<K, V>[]) new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Returns the smallest power of two that is not less than the given number.
+     *
+     * @param n - a positive number, at most 2^30
+     * @return - the smallest power of two not less than n
+     */
+    private static int powerOfTwo(int n) {
+        return n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * Mixes the hash code of the key so that both its highest bits, used to choose
+     * the segment, and its lowest bits, used to choose the slot, depend on the
+     * whole hash code.
+     *
+     * @param key - the key to be hashed
+     * @return - the mixed hash code of the key
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the segment the given hash belongs to.
+     *
+     * @param hash - the mixed hash code of a key
+     * @return - the segment of the key
+     */
+    private Segment<K, V> segmentFor(int hash) {
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    /**
+     * Adds the given key-value pair to the hashtable. If the given key already
+     * exists the value is replaced. Returns the old value if it existed, otherwise
+     * null.
+     *
+     * @param key   - the key of the entry
+     * @param value - the value of the entry
+     * @return - the old value if it existed, otherwise null
+     * @throws NullPointerException if the key or the value is null
+     */
+    @Override
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        if (value == null) {
+            throw new NullPointerException("The value can't be null!");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).put(hash, key, value, false);
+    }
+
+    /**
+     * Adds the given key-value pair to the hashtable only if the key doesn't exist
+     * yet. The check and the insertion happen atomically.
+     *
+     * @param key   - the key of the entry
+     * @param value - the value of the entry
+     * @return - the current value if the key exists, otherwise null
+     * @throws NullPointerException if the key or the value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        if (value == null) {
+            throw new NullPointerException("The value can't be null!");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).put(hash, key, value, true);
+    }
+
+    /**
+     * Computes a new value for the given key from its current value, null if the
+     * key doesn't exist. If the computed value is null the entry is removed,
+     * otherwise it is stored. The whole computation happens atomically, so the
+     * function should be short and must not modify this hashtable.
+     *
+     * @param key      - the key of the entry
+     * @param function - the function computing the new value
+     * @return - the new value, null if the entry was removed or not added
+     * @throws NullPointerException if the key or the function is null
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        if (function == null) {
+            throw new NullPointerException("The function can't be null!");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).compute(hash, key, function);
+    }
+
+    /**
+     * Returns the value of the entry with the given key, or null if the key doesn't
+     * exist.
+     *
+     * @param key - the key of the entry
+     * @return - the value of the entry with the given key, otherwise null
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    public V get(Object key) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        int hash = hash(key);
+        Node<K, V> node = segmentFor(hash).find(hash, key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the number of entries in the hashtable. If the hashtable is being
+     * modified at the same time, the result is only an estimate.
+     *
+     * @return - the number of entries in the hashtable
+     */
+    @Override
+    public int size() {
+        long sum = 0;
+        for (Segment<K, V> segment : segments) {
+            sum += segment.count;
+        }
+        return (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if the hashtable contains the given key, false otherwise.
+     *
+     * @param key - the key whose presence in the hashtable is to be determined
+     * @return - true if the key is in the hashtable, false otherwise
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).find(hash, key) != null;
+    }
+
+    /**
+     * Returns true if the hashtable contains the given value, false otherwise. As
+     * null values are not allowed, false is returned for null.
+     *
+     * @param value - the value whose presence in the hashtable is to be determined
+     * @return - true if the value is in the hashtable, false otherwise
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        for (Segment<K, V> segment : segments) {
+            AtomicReferenceArray<Node<K, V>> table = segment.table;
+            for (int i = 0; i < table.length(); i++) {
+                for (Node<K, V> node = table.get(i); node != null; node = node.next) {
+                    if (value.equals(node.value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entry with the given key and returns its value, or null if the
+     * key doesn't exist.
+     *
+     * @param key - the key of the entry to be removed
+     * @return - the value of the removed entry, null if the key doesn't exist
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    public V remove(Object key) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).remove(hash, key);
+    }
+
+    /**
+     * Removes all entries from the hashtable. Segments are cleared one by one, so
+     * entries added concurrently may survive the call.
+     */
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (SimpleHashtable.TableEntry<K, V> entry : this) {
+            sb.append(entry.getKey()).append("=").append(entry.getValue()).append(", ");
+        }
+        if (sb.length() > 1) {
+            sb.delete(sb.length() - 2, sb.length());
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Returns an array of entries in the hashtable at the time of the call. If the
+     * hashtable is being modified at the same time, the array may or may not
+     * contain the concurrently added or removed entries.
+     *
+     * @return - an array of entries in the hashtable
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public SimpleHashtable.TableEntry<K, V>[] toArray() {
+        ArrayIndexedCollection<SimpleHashtable.TableEntry<K, V>> entries = new ArrayIndexedCollection<>();
+        for (SimpleHashtable.TableEntry<K, V> entry : this) {
+            entries.add(entry);
+        }
+        SimpleHashtable.TableEntry<K, V>[] array = (SimpleHashtable.TableEntry<K, V>[]) new SimpleHashtable.TableEntry[entries.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = entries.get(i);
+        }
+        return array;
+    }
+
+    @Override
+    public Iterator<SimpleHashtable.TableEntry<K, V>> iterator() {
+        return new IteratorImpl();
+    }
+
+    /**
+     * A single node of a chain. The key and the hash never change, while the value
+     * and the successor are volatile, so a reader that reaches the node always
+     * sees their latest values.
+     */
+    private static class Node<K, V> {
+        private final int hash;
+        private final K key;
+        private volatile V value;
+        private volatile Node<K, V> next;
+
+        private Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * A part of the hashtable with its own table and lock. All modifications hold
+     * the lock, lookups don't.
+     */
+    private static class Segment<K, V> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Slots of the segment. Replaced, never modified, when the segment grows.
+         */
+        private volatile AtomicReferenceArray<Node<K, V>> table;
+
+        /**
+         * Number of entries in the segment.
+         */
+        private volatile int count;
+
+        private Segment(int capacity) {
+            table = new AtomicReferenceArray<>(capacity);
+        }
+
+        /**
+         * Returns the node with the given key, null if it doesn't exist.
+         */
+        private Node<K, V> find(int hash, Object key) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            for (Node<K, V> node = tab.get(hash & (tab.length() - 1)); node != null; node = node.next) {
+                if (node.hash == hash && (node.key == key || node.key.equals(key))) {
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Stores the value under the given key, or only returns the current value
+         * if onlyIfAbsent is true and the key exists.
+         */
+        private V put(int hash, K key, V value, boolean onlyIfAbsent) {
+            lock();
+            try {
+                Node<K, V> node = find(hash, key);
+                if (node != null) {
+                    V oldValue = node.value;
+                    if (!onlyIfAbsent) {
+                        node.value = value;
+                    }
+                    return oldValue;
+                }
+                insert(hash, key, value);
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Replaces the value of the given key with the one computed by the function.
+         */
+        private V compute(int hash, K key, BiFunction<? super K, ? super V, ? extends V> function) {
+            lock();
+            try {
+                Node<K, V> node = find(hash, key);
+                V newValue = function.apply(key, node == null ? null : node.value);
+                if (newValue == null) {
+                    if (node != null) {
+                        remove(hash, key);
+                    }
+                } else if (node != null) {
+                    node.value = newValue;
+                } else {
+                    insert(hash, key, newValue);
+                }
+                return newValue;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Adds a new node at the head of its slot, growing the segment if needed.
+         * Must be called while holding the lock.
+         */
+        private void insert(int hash, K key, V value) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            if (count + 1 > tab.length() * DEFAULT_LOAD_FACTOR) {
+                tab = resize(tab);
+            }
+            int index = hash & (tab.length() - 1);
+            tab.set(index, new Node<>(hash, key, value, tab.get(index)));
+            count++;
+        }
+
+        /**
+         * Removes the node with the given key and returns its value, null if it
+         * doesn't exist. Readers standing on the removed node can still follow its
+         * successor.
+         */
+        private V remove(int hash, Object key) {
+            lock();
+            try {
+                AtomicReferenceArray<Node<K, V>> tab = table;
+                int index = hash & (tab.length() - 1);
+                Node<K, V> prev = null;
+                for (Node<K, V> node = tab.get(index); node != null; prev = node, node = node.next) {
+                    if (node.hash == hash && (node.key == key || node.key.equals(key))) {
+                        if (prev == null) {
+                            tab.set(index, node.next);
+                        } else {
+                            prev.next = node.next;
+                        }
+                        count--;
+                        return node.value;
+                    }
+                }
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Removes all nodes from the segment.
+         */
+        private void clear() {
+            lock();
+            try {
+                table = new AtomicReferenceArray<>(table.length());
+                count = 0;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Builds a twice as big table out of copies of the current nodes and
+         * publishes it. Readers still walking the old table see the old, unchanged
+         * chains. Must be called while holding the lock.
+         */
+        private AtomicReferenceArray<Node<K, V>> resize(AtomicReferenceArray<Node<K, V>> oldTable) {
+            AtomicReferenceArray<Node<K, V>> newTable = new AtomicReferenceArray<>(2 * oldTable.length());
+            int mask = newTable.length() - 1;
+            for (int i = 0; i < oldTable.length(); i++) {
+                for (Node<K, V> node = oldTable.get(i); node != null; node = node.next) {
+                    int index = node.hash & mask;
+                    newTable.set(index, new Node<>(node.hash, node.key, node.value, newTable.get(index)));
+                }
+            }
+            table = newTable;
+            return newTable;
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over the entries of the hashtable.
+     */
+    private class IteratorImpl implements Iterator<SimpleHashtable.TableEntry<K, V>> {
+        /**
+         * Index of the segment being iterated over.
+         */
+        private int segmentIndex = -1;
+
+        /**
+         * Table of the current segment, as it was when the segment was reached.
+         */
+        private AtomicReferenceArray<Node<K, V>> table;
+
+        /**
+         * Index of the next slot of the current table to be examined.
+         */
+        private int slot;
+
+        /**
+         * Node that will be returned next, null if there are no more nodes.
+         */
+        private Node<K, V> nextNode;
+
+        /**
+         * Key of the last returned entry, null if remove() can't be called.
+         */
+        private K lastKey;
+
+        private IteratorImpl() {
+            advance();
+        }
+
+        /**
+         * Moves nextNode to the next node, going through the following slots and
+         * segments as needed.
+         */
+        private void advance() {
+            if (nextNode != null) {
+                nextNode = nextNode.next;
+            }
+            while (nextNode == null) {
+                if (table != null && slot < table.length()) {
+                    nextNode = table.get(slot++);
+                } else if (segmentIndex + 1 < segments.length) {
+                    table = segments[++segmentIndex].table;
+                    slot = 0;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public SimpleHashtable.TableEntry<K, V> next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = nextNode;
+            advance();
+            lastKey = node.key;
+            return new Entry(node.key, node.value);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException("next() hasn't been called yet, nothing to remove");
+            }
+            ConcurrentSimpleHashtable.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    /**
+     * Entry returned by the iterator, setting its value stores the value in the
+     * hashtable as well.
+     */
+    private class Entry extends SimpleHashtable.TableEntry<K, V> {
+        private Entry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public void setValue(V value) {
+            if (value == null) {
+                throw new NullPointerException("The value can't be null!");
+            }
+            super.setValue(value);
+            put(getKey(), value);
+        }
+    }
+}
@@ -1,21 +1,61 @@
 package hr.fer.oprpp1.custom.collections;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * A dictionary is a data structure that stores pairs of objects, key-and-value
  * pairs. The dictionary is indexed by the keys, which are unique. Each key can
  * map to at most one value.
+ * Entries are found through a hash index, so put, get and remove take constant
+ * time on average. An insertion-ordered dictionary additionally links its
+ * entries in the order their keys were first added and iterates in that order;
+ * otherwise the iteration order is the order of the hash index.
  */
-public class Dictionary<K, V> {
+public class Dictionary<K, V> implements Iterable<Dictionary.Entry<K, V>> {
+    /**
+     * The hash index mapping each key to its entry.
+     */
+    final SimpleHashtable<K, Entry<K, V>> index;
+
+    /**
+     * Whether the entries are iterated in insertion order.
+     */
+    private final boolean insertionOrdered;
+
+    /**
+     * The first inserted entry, used only in insertion-ordered mode.
+     */
+    private Entry<K, V> head;
+
     /**
-     * The underlying collection that stores the key-value pairs.
+     * The last inserted entry, used only in insertion-ordered mode.
      */
-    final ArrayIndexedCollection<Entry<K, V>> col;
+    private Entry<K, V> tail;
+
+    /**
+     * Counts structural modifications, so iterators can fail fast.
+     */
+    private int modificationCount;
 
     /**
      * Creates a new dictionary.
      */
     public Dictionary() {
-        col = new ArrayIndexedCollection<>();
+        this(false);
+    }
+
+    /**
+     * Creates a new dictionary, optionally iterating over its entries in insertion
+     * order.
+     * 
+     * @param insertionOrdered true if the entries should be iterated in the order
+     *                         their keys were first added
+     */
+    public Dictionary(boolean insertionOrdered) {
+        index = new SimpleHashtable<>();
+        this.insertionOrdered = insertionOrdered;
     }
 
     /**
@@ -24,7 +64,7 @@ public class Dictionary<K, V> {
      * @return true if the dictionary contains no entries, false otherwise
      */
     public boolean isEmpty() {
-        return col.isEmpty();
+        return index.isEmpty();
     }
 
     /**
@@ -33,14 +73,16 @@ public class Dictionary<K, V> {
      * @return the number of entries in the dictionary
      */
     public int size() {
-        return col.size();
+        return index.size();
     }
 
     /**
      * Removes all entries from the dictionary.
      */
     public void clear() {
-        col.clear();
+        index.clear();
+        head = tail = null;
+        modificationCount++;
     }
 
     /**
@@ -54,14 +96,24 @@ public class Dictionary<K, V> {
     public V put(K key, V value) {
         if (key == null)
             throw new NullPointerException("Key cannot be null");
-        for (int i = 0; i < col.size(); i++) {
-            if (col.get(i).getKey().equals(key)) {
-                V oldValue = col.get(i).getValue();
-                col.get(i).setValue(value);
-                return oldValue;
+        Entry<K, V> entry = index.get(key);
+        if (entry != null) {
+            V oldValue = entry.getValue();
+            entry.setValue(value);
+            return oldValue;
+        }
+        entry = new Entry<>(key, value);
+        index.put(key, entry);
+        if (insertionOrdered) {
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.after = entry;
+                entry.before = tail;
             }
+            tail = entry;
         }
-        col.add(new Entry<>(key, value));
+        modificationCount++;
         return value;
     }
 
@@ -74,11 +126,10 @@ public class Dictionary<K, V> {
      * @return the value of the entry with the given key
      */
     public V get(K key) {
-        for (int i = 0; i < col.size(); i++) {
-            if (col.get(i).getKey().equals(key))
-                return col.get(i).getValue();
-        }
-        return null;
+        if (key == null)
+            return null;
+        Entry<K, V> entry = index.get(key);
+        return entry == null ? null : entry.getValue();
     }
 
     /**
@@ -89,20 +140,150 @@ public class Dictionary<K, V> {
      * @return the value of the entry with the given key before removing it
      */
     public V remove(K key) {
-        for (int i = 0; i < col.size(); i++) {
-            if (col.get(i).getKey().equals(key)) {
-                V value = col.get(i).getValue();
-                col.remove(i);
-                return value;
-            }
+        if (key == null)
+            return null;
+        Entry<K, V> entry = index.remove(key);
+        if (entry == null)
+            return null;
+        unlink(entry);
+        modificationCount++;
+        return entry.getValue();
+    }
+
+    /**
+     * Returns an iterator over the entries of the dictionary, in insertion order if
+     * the dictionary is insertion-ordered. Setting the value of a returned entry
+     * changes the value stored in the dictionary. The iterator supports removal and
+     * throws a ConcurrentModificationException if the dictionary is otherwise
+     * structurally modified during iteration.
+     * 
+     * @return an iterator over the entries of the dictionary
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return insertionOrdered ? new OrderedIterator() : new IndexIterator();
+    }
+
+    /**
+     * Unlinks the given entry from the insertion order list, if the dictionary is
+     * insertion-ordered.
+     * 
+     * @param entry the entry to unlink
+     */
+    private void unlink(Entry<K, V> entry) {
+        if (!insertionOrdered)
+            return;
+        if (entry.before == null) {
+            head = entry.after;
+        } else {
+            entry.before.after = entry.after;
+        }
+        if (entry.after == null) {
+            tail = entry.before;
+        } else {
+            entry.after.before = entry.before;
+        }
+        entry.before = entry.after = null;
+    }
+
+    /**
+     * Iterator that follows the insertion order links of the entries.
+     */
+    private class OrderedIterator implements Iterator<Entry<K, V>> {
+        /**
+         * The entry to be returned next.
+         */
+        private Entry<K, V> next = head;
+
+        /**
+         * The entry returned last, null if it was removed or nothing was returned yet.
+         */
+        private Entry<K, V> current;
+
+        /**
+         * Modification count of the dictionary the iterator expects.
+         */
+        private int savedModificationCount = modificationCount;
+
+        @Override
+        public boolean hasNext() {
+            if (savedModificationCount != modificationCount)
+                throw new ConcurrentModificationException();
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            current = next;
+            next = next.after;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null)
+                throw new IllegalStateException();
+            if (savedModificationCount != modificationCount)
+                throw new ConcurrentModificationException();
+            Dictionary.this.remove(current.getKey());
+            savedModificationCount = modificationCount;
+            current = null;
+        }
+    }
+
+    /**
+     * Iterator that walks the hash index.
+     */
+    private class IndexIterator implements Iterator<Entry<K, V>> {
+        /**
+         * The iterator of the hash index.
+         */
+        private final Iterator<SimpleHashtable.TableEntry<K, Entry<K, V>>> iterator = index.iterator();
+
+        /**
+         * The entry returned last, null if it was removed or nothing was returned yet.
+         */
+        private Entry<K, V> current;
+
+        /**
+         * Modification count of the dictionary the iterator expects.
+         */
+        private int savedModificationCount = modificationCount;
+
+        @Override
+        public boolean hasNext() {
+            if (savedModificationCount != modificationCount)
+                throw new ConcurrentModificationException();
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            current = iterator.next().getValue();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null)
+                throw new IllegalStateException();
+            if (savedModificationCount != modificationCount)
+                throw new ConcurrentModificationException();
+            // the index has to be changed through its own iterator to keep walking it
+            iterator.remove();
+            savedModificationCount = ++modificationCount;
+            current = null;
         }
-        return null;
     }
 
     /**
      * An entry in the dictionary. It stores a key and a value.
      */
-    private static class Entry<K, V> {
+    public static class Entry<K, V> {
         /**
          * The key of the entry.
          */
@@ -111,6 +292,14 @@ public class Dictionary<K, V> {
          * The value of the entry.
          */
         V value;
+        /**
+         * The entry inserted before this one, used only in insertion-ordered mode.
+         */
+        Entry<K, V> before;
+        /**
+         * The entry inserted after this one, used only in insertion-ordered mode.
+         */
+        Entry<K, V> after;
 
         /**
          * Creates a new entry with the given key and value.
@@ -118,7 +307,7 @@ public class Dictionary<K, V> {
          * @param key   the key of the entry
          * @param value the value of the entry
          */
-        public Entry(K key, V value) {
+        Entry(K key, V value) {
             this.key = key;
             this.value = value;
         }
@@ -0,0 +1,323 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Class that represents a resizable array-backed collection of double values. It
+ * is the primitive counterpart of {@link ArrayIndexedCollection}, the values
+ * are kept in a double array, so no value is boxed when stored or read.
+ * Duplicate values are allowed. The order of values is determined by the order
+ * in which the values were added.
+ */
+public class DoubleArrayIndexedCollection implements DoubleList {
+    /**
+     * Number of values currently stored in the collection.
+     */
+    private int size;
+    /**
+     * Array in which the values of the collection are stored.
+     */
+    private double[] elements;
+
+    /**
+     * Keeping track of every modification of the collection, so that the elements
+     * getter can throw an exception if the collection is modified while it is in
+     * use.
+     */
+    private int modificationCount = 0;
+
+    /**
+     * Default constructor. Sets the initial capacity to 16.
+     */
+    public DoubleArrayIndexedCollection() {
+        this(16);
+    }
+
+    /**
+     * Constructor that sets the initial capacity to the given value.
+     * 
+     * @param initialCapacity - initial capacity of the collection. Must be at least
+     *                        one.
+     * @throws IllegalArgumentException if the given initial capacity is less than
+     *                                  one.
+     */
+    public DoubleArrayIndexedCollection(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Array size should be at least 1!");
+        }
+
+        size = 0;
+        elements = new double[initialCapacity];
+    }
+
+    /**
+     * Constructor that makes a new collection from a given one.
+     * 
+     * @param other - collection to be copied.
+     * @throws NullPointerException if the given collection is null.
+     */
+    public DoubleArrayIndexedCollection(DoubleCollection other) {
+        this(other, 16);
+    }
+
+    /**
+     * Constructor that makes a new collection from a given one with a given initial
+     * capacity. If the given capacity is less than the size of the given
+     * collection, the capacity is set to the size of the given collection.
+     * 
+     * @param other           - collection to be copied.
+     * @param initialCapacity - initial capacity of the collection. Must be at least
+     *                        one.
+     * @throws NullPointerException     if the given collection is null.
+     * @throws IllegalArgumentException if the given initial capacity is less than
+     *                                  one.
+     */
+    public DoubleArrayIndexedCollection(DoubleCollection other, int initialCapacity) {
+        if (other == null) {
+            throw new NullPointerException();
+        }
+
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Array size should be at least 1!");
+        }
+
+        elements = new double[Math.max(initialCapacity, other.size())];
+        addAll(other);
+    }
+
+    /**
+     * Returns the number of values in the collection.
+     * 
+     * @return number of values in the collection.
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds the given value to the end of the collection.
+     * 
+     * @param value - value to be added to the collection.
+     */
+    @Override
+    public void add(double value) {
+        if (size == elements.length) {
+            grow();
+        }
+        modificationCount++;
+        elements[size++] = value;
+    }
+
+    /**
+     * Doubles the capacity of the collection.
+     */
+    private void grow() {
+        double[] newElements = new double[2 * elements.length];
+        System.arraycopy(elements, 0, newElements, 0, size);
+        elements = newElements;
+    }
+
+    /**
+     * Returns true if the collection contains the given value.
+     * 
+     * @param value - value to be checked if it is in the collection.
+     * @return true if the collection contains the given value, false otherwise.
+     */
+    @Override
+    public boolean contains(double value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given value in the
+     * collection, or -1 if the value is not in the collection. Values are
+     * compared like {@link Double#equals(Object)} does, so NaN can be found, while
+     * 0.0 and -0.0 are different values.
+     * 
+     * @param value - value to be checked for its index.
+     * @return index of the given value in the collection, -1 if it is not found.
+     */
+    @Override
+    public int indexOf(double value) {
+        for (int i = 0; i < size; i++) {
+            if (Double.compare(elements[i], value) == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns an array of values in the collection.
+     * 
+     * @return array of values in the collection.
+     */
+    @Override
+    public double[] toArray() {
+        double[] arr = new double[size];
+        System.arraycopy(elements, 0, arr, 0, size);
+        return arr;
+    }
+
+    /**
+     * Empties the collection. The capacity is kept, as there are no references to
+     * be released.
+     */
+    @Override
+    public void clear() {
+        modificationCount++;
+        size = 0;
+    }
+
+    /**
+     * Returns the value at the given index in the collection.
+     * 
+     * @param index - index of the value to be returned.
+     * @return value at the given index in the collection.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    @Override
+    public double get(int index) {
+        if (index < 0 || index > size - 1) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return elements[index];
+    }
+
+    /**
+     * Removes the first occurrence of the given value from the collection.
+     * 
+     * @param value - value to be removed.
+     * @return true if the value was removed, false otherwise, in case it was not in
+     *         the collection.
+     */
+    @Override
+    public boolean removeValue(double value) {
+        int index = indexOf(value);
+
+        if (index == -1) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Removes the value at the given index from the collection.
+     * 
+     * @param index - index of the value to be removed.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    @Override
+    public void remove(int index) {
+        if (index < 0 || index > size - 1) {
+            throw new IndexOutOfBoundsException();
+        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        modificationCount++;
+        size--;
+    }
+
+    /**
+     * Inserts the given value at the given position in the collection.
+     * 
+     * @param value    - value to be inserted.
+     * @param position - position at which the value will be inserted.
+     * @throws IndexOutOfBoundsException if the given position is out of bounds.
+     */
+    @Override
+    public void insert(double value, int position) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (size == elements.length) {
+            grow();
+        }
+        System.arraycopy(elements, position, elements, position + 1, size - position);
+        elements[position] = value;
+        size++;
+        modificationCount++;
+    }
+
+    /**
+     * Local class that implements DoubleElementsGetter, returning the values of the
+     * collection one by one.
+     */
+    private static class DoubleArrayIndexedCollectionElementsGetter implements DoubleElementsGetter {
+        /**
+         * Index of the next value to be returned.
+         */
+        private int index;
+
+        /**
+         * Reference to the collection whose values we are iterating through.
+         */
+        private final DoubleArrayIndexedCollection col;
+
+        /**
+         * Modification count of the collection instance at the time of
+         * DoubleElementsGetter creation. Used to check for concurrent modification.
+         */
+        private final int savedModificationCount;
+
+        /**
+         * Constructor for the DoubleArrayIndexedCollectionElementsGetter class.
+         * 
+         * @param col               - reference to collection whose values we are
+         *                          iterating through.
+         * @param modificationCount - modification count of the collection instance
+         */
+        private DoubleArrayIndexedCollectionElementsGetter(DoubleArrayIndexedCollection col, int modificationCount) {
+            this.col = col;
+            savedModificationCount = modificationCount;
+        }
+
+        /**
+         * Returns true if the collection contains at least one more value, false
+         * otherwise.
+         * 
+         * @return true if the collection contains at least one more value, false
+         *         otherwise.
+         * @throws ConcurrentModificationException if the collection has been modified
+         *                                         since creation of the getter.
+         */
+        @Override
+        public boolean hasNextElement() {
+            if (savedModificationCount != col.modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+            return index < col.size;
+        }
+
+        /**
+         * Returns the next value in the collection.
+         * 
+         * @return the next value in the collection.
+         * @throws NoSuchElementException          if the collection contains no more
+         *                                         values.
+         * @throws ConcurrentModificationException if the collection has been modified
+         *                                         since creation of the getter.
+         */
+        @Override
+        public double getNextElement() {
+            if (!hasNextElement()) {
+                throw new NoSuchElementException();
+            }
+            return col.elements[index++];
+        }
+    }
+
+    /**
+     * Creates a new DoubleElementsGetter for this collection.
+     * 
+     * @return new DoubleElementsGetter for this collection.
+     */
+    @Override
+    public DoubleElementsGetter createElementsGetter() {
+        return new DoubleArrayIndexedCollectionElementsGetter(this, modificationCount);
+    }
+}
@@ -0,0 +1,110 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * A {@link Collection} of double values. The values are stored and passed around
+ * as primitives, so no value is ever boxed.
+ */
+public interface DoubleCollection {
+    /**
+     * Returns true if the collection has no values stored, false otherwise.
+     *
+     * @return true if the collection has no values stored, false otherwise.
+     */
+    default boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Returns the number of currently stored values.
+     * 
+     * @return the number of currently stored values.
+     */
+    int size();
+
+    /**
+     * Adds the given value into this collection.
+     * 
+     * @param value - value to be added to the collection.
+     */
+    void add(double value);
+
+    /**
+     * Checks whether the collection contains the given value.
+     * 
+     * @param value - value to be checked if it is in the collection.
+     * @return true if the collection contains the given value, false otherwise.
+     */
+    boolean contains(double value);
+
+    /**
+     * Removes the first occurrence of the given value from the collection. Named
+     * differently than {@link Collection#remove(Object)} so it can't be confused
+     * with {@link DoubleList#remove(int)}, which removes by index.
+     * 
+     * @param value - value to be removed from the collection.
+     * @return true if the collection contained the given value, false otherwise.
+     */
+    boolean removeValue(double value);
+
+    /**
+     * Converts the collection into a double array.
+     * 
+     * @return an array of values that are currently in the collection.
+     */
+    double[] toArray();
+
+    /**
+     * Calls the processor's process method for each value of this collection.
+     * 
+     * @param processor - processor that will process each value of the
+     *                  collection, defined by the user.
+     */
+    default void forEach(DoubleProcessor processor) {
+        DoubleElementsGetter eg = this.createElementsGetter();
+        while (eg.hasNextElement()) {
+            processor.process(eg.getNextElement());
+        }
+    }
+
+    /**
+     * Adds all values from the given collection into this collection. The given
+     * collection is not modified.
+     * 
+     * @param other - collection from which all values will be added to the
+     *              current collection. Collection other is not changed.
+     */
+    default void addAll(DoubleCollection other) {
+        other.forEach(this::add);
+    }
+
+    /**
+     * Empties the collection.
+     */
+    void clear();
+
+    /**
+     * Creates and returns an DoubleElementsGetter object for this collection.
+     * 
+     * @return an DoubleElementsGetter object for this collection.
+     */
+    DoubleElementsGetter createElementsGetter();
+
+    /**
+     * Adds all values from another collection that satisfy tester's test to the
+     * collection calling this method.
+     * 
+     * @param col    - collection whose values are added provided they pass the
+     *               tester.
+     * @param tester - tester whose test method determines whether a value from col
+     *               is added to this collection.
+     */
+    default void addAllSatisfying(DoubleCollection col, DoubleTester tester) {
+        DoubleElementsGetter eg = col.createElementsGetter();
+        while (eg.hasNextElement()) {
+            double value = eg.getNextElement();
+            if (tester.test(value)) {
+                this.add(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * A {@link List} of double values. Extends DoubleCollection.
+ */
+public interface DoubleList extends DoubleCollection {
+
+    /**
+     * Returns the value at the given index in the collection.
+     * 
+     * @param index - index of the value to be returned
+     * @return value at the requested index
+     * @throws IndexOutOfBoundsException if index is not between 0 and size - 1
+     */
+    double get(int index);
+
+    /**
+     * Inserts value at the given position in the collection. Value that was
+     * previously at that index and every next one are moved right one place.
+     * Position must be between 0 and size.
+     * 
+     * @param value    - value to be inserted in the collection
+     * @param position - index to which to insert that value
+     * @throws IndexOutOfBoundsException if position is not between 0 and size
+     */
+    void insert(double value, int position);
+
+    /**
+     * Searches the collection and returns the index of the first occurrence of the
+     * given value or -1 if the value is not found.
+     * 
+     * @param value - value to be searched for
+     * @return index of the first occurrence of the value or -1 if the value is not
+     *         found
+     */
+    int indexOf(double value);
+
+    /**
+     * Removes the value at the specified index from the collection. Every next
+     * value is moved left one place. Index must be between 0 and size - 1.
+     * 
+     * @param index - index of the value to be removed
+     * @throws IndexOutOfBoundsException if index is not between 0 and size - 1
+     */
+    void remove(int index);
+}
@@ -0,0 +1,15 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * A {@link Processor} specialized for double values, so that the values don't
+ * have to be boxed.
+ */
+@FunctionalInterface
+public interface DoubleProcessor {
+    /**
+     * Processes the given value.
+     * 
+     * @param value - value to be processed.
+     */
+    void process(double value);
+}
@@ -0,0 +1,16 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * A {@link Tester} specialized for double values, so that the values don't have
+ * to be boxed.
+ */
+@FunctionalInterface
+public interface DoubleTester {
+    /**
+     * Tests the given value.
+     * 
+     * @param value - value to be tested.
+     * @return true if the value passes the test, false otherwise.
+     */
+    boolean test(double value);
+}
@@ -39,4 +39,28 @@ public interface ElementsGetter<T> {
             p.process(getNextElement());
         }
     }
+
+    /**
+     * Splits off a part of the remaining elements. If the getter can be split, a
+     * new getter over the first half of the remaining elements is returned and
+     * this getter continues with the second half, so the two parts can be
+     * processed in parallel. The returned getter checks for concurrent
+     * modification just like this one.
+     * 
+     * @return a getter over the first half of the remaining elements, or null if
+     *         the getter can't be split.
+     */
+    default ElementsGetter<T> trySplit() {
+        return null;
+    }
+
+    /**
+     * Returns the number of elements that would be returned by this getter, or
+     * Long.MAX_VALUE if the number is not known.
+     * 
+     * @return the number of remaining elements, Long.MAX_VALUE if unknown.
+     */
+    default long estimateSize() {
+        return Long.MAX_VALUE;
+    }
 }
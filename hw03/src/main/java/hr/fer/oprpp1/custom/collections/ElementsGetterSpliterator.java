@@ -0,0 +1,64 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Adapter that lets an {@link ElementsGetter} be used as a
+ * {@link Spliterator}, bridging the custom collections to java.util.stream.
+ * Splitting is delegated to {@link ElementsGetter#trySplit()}.
+ */
+class ElementsGetterSpliterator<T> implements Spliterator<T> {
+    /**
+     * The getter whose elements are returned.
+     */
+    private final ElementsGetter<T> getter;
+
+    /**
+     * Creates a new spliterator over the remaining elements of the given getter.
+     * 
+     * @param getter - the getter to be adapted
+     */
+    ElementsGetterSpliterator(ElementsGetter<T> getter) {
+        this.getter = getter;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!getter.hasNextElement()) {
+            return false;
+        }
+        action.accept(getter.getNextElement());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        getter.processRemaining(action::accept);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        ElementsGetter<T> prefix = getter.trySplit();
+        return prefix == null ? null : new ElementsGetterSpliterator<>(prefix);
+    }
+
+    @Override
+    public long estimateSize() {
+        return getter.estimateSize();
+    }
+
+    /**
+     * Custom collections keep their elements in order and never store null. The
+     * size is known exactly, for this spliterator and every part split off of it,
+     * whenever the getter knows it.
+     */
+    @Override
+    public int characteristics() {
+        int characteristics = ORDERED | NONNULL;
+        if (getter.estimateSize() != Long.MAX_VALUE) {
+            characteristics |= SIZED | SUBSIZED;
+        }
+        return characteristics;
+    }
+}
@@ -0,0 +1,87 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * An interface that defines the set of methods every hashtable implementation
+ * should implement. Keys are unique and can't be null, while values can be.
+ * Iterating over a hashtable returns its entries as
+ * {@link SimpleHashtable.TableEntry} objects.
+ */
+public interface Hashtable<K, V> extends Iterable<SimpleHashtable.TableEntry<K, V>> {
+    /**
+     * Adds the given key-value pair to the hashtable. If the given key already
+     * exists the value is replaced. Returns the old value if it existed, otherwise
+     * null.
+     *
+     * @param key   - the key of the entry
+     * @param value - the value of the entry
+     * @return - the old value if it existed, otherwise null
+     * @throws NullPointerException if the key is null
+     */
+    V put(K key, V value);
+
+    /**
+     * Returns the value of the entry with the given key, or null if the key doesn't
+     * exist.
+     *
+     * @param key - the key of the entry
+     * @return - the value of the entry with the given key, otherwise null
+     * @throws NullPointerException if the key is null
+     */
+    V get(Object key);
+
+    /**
+     * Returns the number of entries in the hashtable.
+     *
+     * @return - the number of entries in the hashtable
+     */
+    int size();
+
+    /**
+     * Returns true if the hashtable contains the given key, false otherwise.
+     *
+     * @param key - the key whose presence in the hashtable is to be determined
+     * @return - true if the key is in the hashtable, false otherwise
+     * @throws NullPointerException if the key is null
+     */
+    boolean containsKey(Object key);
+
+    /**
+     * Returns true if the hashtable contains the given value, false otherwise.
+     *
+     * @param value - the value whose presence in the hashtable is to be determined
+     * @return - true if the value is in the hashtable, false otherwise
+     */
+    boolean containsValue(Object value);
+
+    /**
+     * Removes the entry with the given key and returns its value, or null if the
+     * key doesn't exist.
+     *
+     * @param key - the key of the entry to be removed
+     * @return - the value of the removed entry, null if the key doesn't exist
+     * @throws NullPointerException if the key is null
+     */
+    V remove(Object key);
+
+    /**
+     * Returns true if the hashtable is empty, false otherwise.
+     *
+     * @return - true if the hashtable is empty, false otherwise
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all entries from the hashtable.
+     */
+    void clear();
+
+    /**
+     * Returns an array of the entries in the hashtable, its length being equal to
+     * the number of entries.
+     *
+     * @return - an array of entries in the hashtable
+     */
+    SimpleHashtable.TableEntry<K, V>[] toArray();
+}
@@ -0,0 +1,64 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * Factory for hashtables, letting the user choose which implementation backs
+ * the returned {@link Hashtable}.
+ */
+public class Hashtables {
+    /**
+     * Strategies a hashtable can use to resolve collisions.
+     */
+    public enum Strategy {
+        /**
+         * Each slot holds a linked list of entries, see {@link SimpleHashtable}.
+         */
+        CHAINING,
+        /**
+         * Like {@link #CHAINING}, but resizing is spread over the operations following
+         * it instead of rehashing all the entries at once.
+         */
+        INCREMENTAL_CHAINING,
+        /**
+         * Entries are stored directly in parallel key and value arrays and collisions
+         * are resolved by linear probing, see {@link OpenAddressingHashtable}.
+         */
+        OPEN_ADDRESSING
+    }
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private Hashtables() {
+    }
+
+    /**
+     * Creates a new hashtable with the given strategy and the default capacity.
+     *
+     * @param strategy - the strategy of the hashtable
+     * @return - a new, empty hashtable
+     * @throws NullPointerException if the strategy is null
+     */
+    public static <K, V> Hashtable<K, V> create(Strategy strategy) {
+        return create(strategy, 16);
+    }
+
+    /**
+     * Creates a new hashtable with the given strategy and capacity.
+     *
+     * @param strategy - the strategy of the hashtable
+     * @param capacity - the initial capacity of the hashtable
+     * @return - a new, empty hashtable
+     * @throws NullPointerException     if the strategy is null
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public static <K, V> Hashtable<K, V> create(Strategy strategy, int capacity) {
+        if (strategy == null) {
+            throw new NullPointerException("Strategy can't be null!");
+        }
+        return switch (strategy) {
+            case CHAINING -> new SimpleHashtable<>(capacity);
+            case INCREMENTAL_CHAINING -> new SimpleHashtable<>(capacity, true);
+            case OPEN_ADDRESSING -> new OpenAddressingHashtable<>(capacity);
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * A {@link Collection} of int values. The values are stored and passed around
+ * as primitives, so no value is ever boxed.
+ */
+public interface IntCollection {
+    /**
+     * Returns true if the collection has no values stored, false otherwise.
+     *
+     * @return true if the collection has no values stored, false otherwise.
+     */
+    default boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Returns the number of currently stored values.
+     * 
+     * @return the number of currently stored values.
+     */
+    int size();
+
+    /**
+     * Adds the given value into this collection.
+     * 
+     * @param value - value to be added to the collection.
+     */
+    void add(int value);
+
+    /**
+     * Checks whether the collection contains the given value.
+     * 
+     * @param value - value to be checked if it is in the collection.
+     * @return true if the collection contains the given value, false otherwise.
+     */
+    boolean contains(int value);
+
+    /**
+     * Removes the first occurrence of the given value from the collection. Named
+     * differently than {@link Collection#remove(Object)} so it can't be confused
+     * with {@link IntList#remove(int)}, which removes by index.
+     * 
+     * @param value - value to be removed from the collection.
+     * @return true if the collection contained the given value, false otherwise.
+     */
+    boolean removeValue(int value);
+
+    /**
+     * Converts the collection into an int array.
+     * 
+     * @return an array of values that are currently in the collection.
+     */
+    int[] toArray();
+
+    /**
+     * Calls the processor's process method for each value of this collection.
+     * 
+     * @param processor - processor that will process each value of the
+     *                  collection, defined by the user.
+     */
+    default void forEach(IntProcessor processor) {
+        IntElementsGetter eg = this.createElementsGetter();
+        while (eg.hasNextElement()) {
+            processor.process(eg.getNextElement());
+        }
+    }
+
+    /**
+     * Adds all values from the given collection into this collection. The given
+     * collection is not modified.
+     * 
+     * @param other - collection from which all values will be added to the
+     *              current collection. Collection other is not changed.
+     */
+    default void addAll(IntCollection other) {
+        other.forEach(this::add);
+    }
+
+    /**
+     * Empties the collection.
+     */
+    void clear();
+
+    /**
+     * Creates and returns an IntElementsGetter object for this collection.
+     * 
+     * @return an IntElementsGetter object for this collection.
+     */
+    IntElementsGetter createElementsGetter();
+
+    /**
+     * Adds all values from another collection that satisfy tester's test to the
+     * collection calling this method.
+     * 
+     * @param col    - collection whose values are added provided they pass the
+     *               tester.
+     * @param tester - tester whose test method determines whether a value from col
+     *               is added to this collection.
+     */
+    default void addAllSatisfying(IntCollection col, IntTester tester) {
+        IntElementsGetter eg = col.createElementsGetter();
+        while (eg.hasNextElement()) {
+            int value = eg.getNextElement();
+            if (tester.test(value)) {
+                this.add(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link ElementsGetter} specialized for int values, returning the elements
+ * of an {@link IntCollection} without boxing them.
+ */
+public interface IntElementsGetter {
+    /**
+     * Returns true if the collection contains at least one more element, false
+     * otherwise.
+     * 
+     * @return true if the collection contains at least one more element, false
+     *         otherwise.
+     */
+    boolean hasNextElement();
+
+    /**
+     * Returns the next element in the collection.
+     * 
+     * @return the next element in the collection.
+     * @throws NoSuchElementException if the collection contains no more elements,
+     *                                but the next one was requested by calling this
+     *                                method.
+     */
+    int getNextElement();
+
+    /**
+     * Processes all remaining elements in the collection by calling the process
+     * method of the given processor.
+     * 
+     * @param p - processor that will process each element of the collection,
+     *          defined by the user.
+     */
+    default void processRemaining(IntProcessor p) {
+        while (hasNextElement()) {
+            p.process(getNextElement());
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * A hashtable mapping int keys to int values. It is the primitive counterpart
+ * of {@link SimpleHashtable}: keys and values are kept in two parallel int
+ * arrays using open addressing with linear probing, so neither an entry object
+ * nor a boxed number is allocated per mapping.
+ * <p>
+ * The key 0 marks an empty slot in the key array, so the mapping for the key 0
+ * is kept in separate fields. Methods that can't find a key return 0, use
+ * {@link #containsKey(int)} to tell an absent key from a key mapped to 0.
+ */
+public class IntIntHashtable {
+    /**
+     * Keys of the entries, 0 marks an empty slot.
+     */
+    private int[] keys;
+
+    /**
+     * Values of the entries, values[i] belongs to keys[i].
+     */
+    private int[] values;
+
+    /**
+     * Whether the key 0 is in the hashtable.
+     */
+    private boolean hasZeroKey;
+
+    /**
+     * The value mapped to the key 0, if hasZeroKey is true.
+     */
+    private int zeroValue;
+
+    /**
+     * Number of entries in the hashtable, including the one for the key 0.
+     */
+    private int size;
+
+    /**
+     * The default capacity of the hashtable.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The default load factor of the hashtable.
+     */
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    /**
+     * Processes a single entry of the hashtable.
+     */
+    @FunctionalInterface
+    public interface EntryProcessor {
+        /**
+         * Processes the given entry.
+         * 
+         * @param key   - the key of the entry
+         * @param value - the value of the entry
+         */
+        void process(int key, int value);
+    }
+
+    /**
+     * Constructs a new hashtable with the default capacity.
+     */
+    public IntIntHashtable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new hashtable with the given capacity, rounded up to the nearest
+     * power of two.
+     * 
+     * @param capacity the capacity of the hashtable
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public IntIntHashtable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0.");
+        }
+        int length = Math.max(2, Integer.highestOneBit(Math.min(capacity, 1 << 29) - 1) << 1);
+        keys = new int[length];
+        values = new int[length];
+    }
+
+    /**
+     * Mixes the bits of the key, so that consecutive keys don't end up in
+     * consecutive slots.
+     * 
+     * @param key - the key to be hashed
+     * @return - the mixed hash of the key
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot of the given non-zero key, or -1 if it is not in the
+     * hashtable.
+     * 
+     * @param key - the key to be searched for, not 0
+     * @return - the slot of the key, -1 if it doesn't exist
+     */
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Maps the given key to the given value. Returns the old value, or 0 if the key
+     * didn't exist.
+     * 
+     * @param key   - the key of the entry
+     * @param value - the value of the entry
+     * @return - the old value, 0 if the key didn't exist
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int oldValue = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return oldValue;
+        }
+
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        int k;
+        while ((k = keys[i]) != 0) {
+            if (k == key) {
+                int oldValue = values[i];
+                values[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if (size >= keys.length * DEFAULT_LOAD_FACTOR) {
+            resize();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the value mapped to the given key, or 0 if the key doesn't exist.
+     * 
+     * @param key - the key of the entry
+     * @return - the value of the entry, 0 if the key doesn't exist
+     */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the value mapped to the given key, or the given default value if the
+     * key doesn't exist.
+     * 
+     * @param key          - the key of the entry
+     * @param defaultValue - the value returned if the key doesn't exist
+     * @return - the value of the entry, defaultValue if the key doesn't exist
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return i == -1 ? defaultValue : values[i];
+    }
+
+    /**
+     * Returns true if the hashtable contains the given key, false otherwise.
+     * 
+     * @param key - the key whose presence is to be determined
+     * @return - true if the key is in the hashtable, false otherwise
+     */
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : indexOf(key) != -1;
+    }
+
+    /**
+     * Returns true if the hashtable contains the given value, false otherwise.
+     * 
+     * @param value - the value whose presence is to be determined
+     * @return - true if the value is in the hashtable, false otherwise
+     */
+    public boolean containsValue(int value) {
+        if (hasZeroKey && zeroValue == value) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entry with the given key and returns its value, or 0 if the key
+     * doesn't exist.
+     * 
+     * @param key - the key of the entry to be removed
+     * @return - the value of the removed entry, 0 if the key doesn't exist
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return 0;
+            }
+            hasZeroKey = false;
+            size--;
+            int oldValue = zeroValue;
+            zeroValue = 0;
+            return oldValue;
+        }
+
+        int gap = indexOf(key);
+        if (gap == -1) {
+            return 0;
+        }
+        int oldValue = values[gap];
+
+        // shifts the following entries of the cluster back, so no lookup is broken
+        int mask = keys.length - 1;
+        int i = (gap + 1) & mask;
+        int k;
+        while ((k = keys[i]) != 0) {
+            int home = hash(k) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = k;
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of entries in the hashtable.
+     * 
+     * @return - the number of entries in the hashtable
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the hashtable is empty, false otherwise.
+     * 
+     * @return - true if the hashtable is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries from the hashtable.
+     */
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 0;
+            values[i] = 0;
+        }
+        hasZeroKey = false;
+        zeroValue = 0;
+        size = 0;
+    }
+
+    /**
+     * Calls the processor for every entry of the hashtable. The hashtable must not
+     * be modified by the processor.
+     * 
+     * @param processor - processor that will process each entry
+     */
+    public void forEach(EntryProcessor processor) {
+        if (hasZeroKey) {
+            processor.process(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                processor.process(keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        forEach((key, value) -> sb.append(key).append("=").append(value).append(", "));
+        if (sb.length() > 1) {
+            sb.delete(sb.length() - 2, sb.length());
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Doubles the size of the hashtable and reinserts all the entries.
+     */
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[2 * oldKeys.length];
+        values = new int[2 * oldValues.length];
+        int mask = keys.length - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k == 0) {
+                continue;
+            }
+            int i = hash(k) & mask;
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * Class that represents a stack of int values, last-in-first-out (LIFO)
+ * principle. It is the primitive counterpart of {@link ObjectStack},
+ * implemented using an IntArrayIndexedCollection, so pushing and popping
+ * values doesn't box them.
+ */
+public class IntObjectStack {
+    /**
+     * IntArrayIndexedCollection used to store the values of the stack.
+     */
+    final IntArrayIndexedCollection array;
+
+    /**
+     * Default constructor. Creates an empty stack.
+     */
+    public IntObjectStack() {
+        array = new IntArrayIndexedCollection();
+    }
+
+    /**
+     * Checks if the stack is empty.
+     * 
+     * @return true if the stack is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return array.isEmpty();
+    }
+
+    /**
+     * Returns the number of values currently stored in the stack.
+     * 
+     * @return the number of values currently stored in the stack.
+     */
+    public int size() {
+        return array.size();
+    }
+
+    /**
+     * Pushes the given value onto the stack.
+     * 
+     * @param value - value to be pushed onto the stack.
+     */
+    public void push(int value) {
+        array.add(value);
+    }
+
+    /**
+     * Removes the last value pushed onto the stack and returns it.
+     * 
+     * @return the last value pushed onto the stack.
+     * @throws EmptyStackException if the stack is empty
+     */
+    public int pop() {
+        if (array.size() == 0) {
+            throw new EmptyStackException();
+        }
+
+        int value = array.get(array.size() - 1);
+        array.remove(array.size() - 1);
+        return value;
+    }
+
+    /**
+     * Returns the last value pushed onto the stack without removing it.
+     * 
+     * @return the last value pushed onto the stack.
+     * @throws EmptyStackException if the stack is empty
+     */
+    public int peek() {
+        if (array.size() == 0) {
+            throw new EmptyStackException();
+        }
+
+        return array.get(array.size() - 1);
+    }
+
+    /**
+     * Removes all values from the stack.
+     */
+    public void clear() {
+        array.clear();
+    }
+}
@@ -202,12 +202,7 @@ public class LinkedListIndexedCollection<T> implements List<T> {
         ListNode<T> node = first;
         while (node != null) {
             if (node.value == value) {
-                if (node.prev != null) {
-                    (node.prev).next = node.next;
-                }
-                if (node.next != null) {
-                    (node.next).prev = node.prev;
-                }
+                unlink(node);
                 size--;
                 modificationCount++;
                 return true;
@@ -236,14 +231,27 @@ public class LinkedListIndexedCollection<T> implements List<T> {
             node = node.next;
         }
 
+        unlink(node);
+        modificationCount++;
+        size--;
+    }
+
+    /**
+     * Unlinks the given node from the list, updating the endnodes if needed.
+     * 
+     * @param node - node to be unlinked.
+     */
+    private void unlink(ListNode<T> node) {
         if (node.prev != null) {
             (node.prev).next = node.next;
+        } else {
+            first = node.next;
         }
         if (node.next != null) {
             (node.next).prev = node.prev;
+        } else {
+            last = node.prev;
         }
-        modificationCount++;
-        size--;
     }
 
     /**
@@ -359,10 +367,16 @@ public class LinkedListIndexedCollection<T> implements List<T> {
      */
     private static class LinkedListElementsGetter<T> implements ElementsGetter<T> {
         /**
-         * Node that is the current position of the iterator.
+         * Node that is the current position of the iterator, its successor is the
+         * next node to be returned.
          */
         private ListNode<T> node;
 
+        /**
+         * Number of elements this getter still has to return.
+         */
+        private int remaining;
+
         /**
          * Modification count of the collection instance at the time of ElementsGetter
          * creation.
@@ -375,13 +389,18 @@ public class LinkedListIndexedCollection<T> implements List<T> {
         private final LinkedListIndexedCollection<T> col;
 
         /**
-         * Constructor that sets the current position of the iterator to the first
-         * node in the list storing it's reference.
+         * Constructor that sets the current position of the iterator just before the
+         * given node, storing it's reference.
          * 
-         * @param first - first node in the list.
+         * @param col               - the collection we're iterating through.
+         * @param first             - first node to be returned.
+         * @param remaining         - number of elements to be returned.
+         * @param modificationCount - modification count of the collection instance.
          */
-        private LinkedListElementsGetter(LinkedListIndexedCollection<T> col, ListNode<T> first, int modificationCount) {
+        private LinkedListElementsGetter(LinkedListIndexedCollection<T> col, ListNode<T> first, int remaining,
+                int modificationCount) {
             node = new ListNode<>(null, first, null);
+            this.remaining = remaining;
             savedModificationCount = modificationCount;
             this.col = col;
         }
@@ -399,7 +418,7 @@ public class LinkedListIndexedCollection<T> implements List<T> {
             if (savedModificationCount != col.modificationCount) {
                 throw new ConcurrentModificationException();
             }
-            return node.next != null;
+            return remaining > 0 && node.next != null;
         }
 
         /**
@@ -413,25 +432,55 @@ public class LinkedListIndexedCollection<T> implements List<T> {
          */
         @Override
         public T getNextElement() {
-            if (savedModificationCount != col.modificationCount) {
-                throw new ConcurrentModificationException();
-            }
             if (!hasNextElement()) {
                 throw new NoSuchElementException();
             }
             node = node.next;
+            remaining--;
             return node.value;
         }
 
+        /**
+         * Splits off the first half of the remaining elements. The list has to be
+         * walked to its middle to find where this getter continues, which costs as
+         * much as processing a quarter of the elements sequentially, so splitting
+         * pays off only when processing an element is more expensive than following
+         * a link.
+         * 
+         * @return a getter over the first half of the remaining elements, or null if
+         *         fewer than two elements remain.
+         */
+        @Override
+        public ElementsGetter<T> trySplit() {
+            if (savedModificationCount != col.modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+            int half = remaining / 2;
+            if (half == 0) {
+                return null;
+            }
+            ElementsGetter<T> prefix = new LinkedListElementsGetter<>(col, node.next, half, savedModificationCount);
+            for (int i = 0; i < half; i++) {
+                node = node.next;
+            }
+            remaining -= half;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
     }
 
     /**
-     * Creates a new ElementsGetter for this collection.
+     * Creates a new ElementsGetter for this collection. The getter can be split
+     * with {@link ElementsGetter#trySplit()}.
      * 
      * @return ElementsGetter for this collection.
      */
     @Override
     public ElementsGetter<T> createElementsGetter() {
-        return new LinkedListElementsGetter<>(this, first, modificationCount);
+        return new LinkedListElementsGetter<>(this, first, size, modificationCount);
     }
-}
\ No newline at end of file
+}
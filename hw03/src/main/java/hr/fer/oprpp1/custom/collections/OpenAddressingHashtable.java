@@ -0,0 +1,464 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A hashtable implementation that uses open addressing with linear probing
+ * instead of chaining. Keys and values are stored in two parallel arrays whose
+ * length is always a power of two, so no node is allocated per entry and a
+ * lookup touches only neighbouring slots. Removal uses backward shifting, so
+ * the table never contains tombstones.
+ */
+public class OpenAddressingHashtable<K, V> implements Hashtable<K, V> {
+    /**
+     * Keys of the entries, null marks an empty slot.
+     */
+    private Object[] keys;
+
+    /**
+     * Values of the entries, values[i] belongs to keys[i].
+     */
+    private Object[] values;
+
+    /**
+     * Number of elements in the hashtable.
+     */
+    private int size;
+
+    /**
+     * Number of modifications made to the hashtable.
+     */
+    private int modificationCount = 0;
+
+    /**
+     * The default capacity of the hashtable.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The default load factor of the hashtable.
+     */
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    /**
+     * The largest capacity the hashtable can grow to.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Constructs a new hashtable with the default capacity.
+     */
+    public OpenAddressingHashtable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new hashtable with the given capacity, rounded up to the nearest
+     * power of two.
+     *
+     * @param capacity the capacity of the hashtable
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public OpenAddressingHashtable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0.");
+        }
+        int length = capacity >= MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY
+                : Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        keys = new Object[length];
+        values = new Object[length];
+    }
+
+    /**
+     * Spreads the higher bits of the hash code into the lower ones, as only the
+     * lower bits are used when masking with the table length.
+     *
+     * @param key - the key to be hashed
+     * @return - the spread hash code of the key
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot the given key occupies, or -1 if the key is not in the
+     * hashtable.
+     *
+     * @param key - the key to be searched for
+     * @return - the slot of the key, or -1 if it doesn't exist
+     */
+    private int indexOf(Object key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        Object k;
+        while ((k = keys[i]) != null) {
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the given key-value pair to the hashtable. If the given key already
+     * exists the value is replaced. Returns the old value if it existed, otherwise
+     * null. The key can't be null, otherwise NullPointerException will be thrown.
+     *
+     * @param key   - the key of the new entry
+     * @param value - the value of the new entry
+     * @return - the old value if exists, otherwise null
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        Object k;
+        while ((k = keys[i]) != null) {
+            if (k == key || k.equals(key)) {
+                V oldValue = (V) values[i];
+                values[i] = value;
+                modificationCount++;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        modificationCount++;
+        if (size >= keys.length * DEFAULT_LOAD_FACTOR) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of the entry with the given key. If the key doesn't exist
+     * returns null. The given key can't be null, otherwise NullPointerException
+     * will be thrown.
+     *
+     * @param key - the key of the entry
+     * @return - the value of the entry with the given key, otherwise null
+     * @throws NullPointerException if the key is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        int i = indexOf(key);
+        return i == -1 ? null : (V) values[i];
+    }
+
+    /**
+     * Returns the number of elements in the hashtable.
+     *
+     * @return - the number of elements in the hashtable
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the hashtable contains the given key, false otherwise.
+     * Throws NullPointerException if the given key is null.
+     *
+     * @param key - the key whose presence in the hashtable is to be determined.
+     * @return - true if the key is in the hashtable, false otherwise
+     * @throws NullPointerException if the given key is null
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        return indexOf(key) != -1;
+    }
+
+    /**
+     * Returns true if the hashtable contains the given value, false otherwise.
+     *
+     * @param value - the value whose presence in the hashtable is to be determined.
+     * @return - true if the value is in the hashtable, false otherwise
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            if (value == null ? values[i] == null : value.equals(values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entry with the given key from the hashtable, returns the value
+     * just before removing the entry. If the key doesn't exist null is returned.
+     * Throws NullPointerException if the given key is null.
+     *
+     * @param key - the key of the entry to be removed
+     * @return - the value of the removed entry, null if the key doesn't exist
+     * @throws NullPointerException if the given key is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null) {
+            throw new NullPointerException("The key can't be null!");
+        }
+        int i = indexOf(key);
+        if (i == -1) {
+            return null;
+        }
+        V oldValue = (V) values[i];
+        removeAt(i);
+        return oldValue;
+    }
+
+    /**
+     * Removes the entry in the given slot, shifting the following entries of the
+     * same cluster back so that no lookup is broken by the new gap.
+     *
+     * @param gap - the slot of the entry to be removed
+     */
+    private void removeAt(int gap) {
+        int mask = keys.length - 1;
+        int i = (gap + 1) & mask;
+        Object k;
+        while ((k = keys[i]) != null) {
+            int home = hash(k) & mask;
+            // the entry can fill the gap only if its home slot is not between the gap
+            // and its current slot (cyclically)
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = k;
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[gap] = null;
+        values[gap] = null;
+        size--;
+        modificationCount++;
+    }
+
+    /**
+     * Removes all entries from the hashtable.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = null;
+            values[i] = null;
+        }
+        size = 0;
+        modificationCount++;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                sb.append(keys[i]).append("=").append(values[i]).append(", ");
+            }
+        }
+        if (sb.length() > 1) {
+            sb.delete(sb.length() - 2, sb.length());
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Returns an array of entries in the hashtable, ordered by slots. The entries
+     * are copies, so changing their values doesn't affect the hashtable.
+     *
+     * @return - an array of entries in the hashtable
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public SimpleHashtable.TableEntry<K, V>[] toArray() {
+        SimpleHashtable.TableEntry<K, V>[] array = (SimpleHashtable.TableEntry<K, V>[]) new SimpleHashtable.TableEntry[size];
+        int index = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                array[index++] = new SimpleHashtable.TableEntry<>((K) keys[i], (V) values[i]);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Doubles the size of the hashtable and reinserts all the entries.
+     */
+    private void resize() {
+        if (keys.length == MAXIMUM_CAPACITY) {
+            return;
+        }
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new Object[2 * oldKeys.length];
+        values = new Object[2 * oldValues.length];
+        int mask = keys.length - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k == null) {
+                continue;
+            }
+            int i = hash(k) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    @Override
+    public Iterator<SimpleHashtable.TableEntry<K, V>> iterator() {
+        return new IteratorImpl();
+    }
+
+    /**
+     * Iterator implementation for the OpenAddressingHashtable class. It walks the
+     * slots backwards, starting just before an empty slot. Removing an entry only
+     * ever shifts entries that were already visited into the freed slot, so the
+     * iteration can continue from the previous slot without skipping or repeating
+     * any entry.
+     */
+    private class IteratorImpl implements Iterator<SimpleHashtable.TableEntry<K, V>> {
+        /**
+         * Slot at which the iteration started, always an empty one.
+         */
+        private final int start;
+
+        /**
+         * The slot that will be examined next.
+         */
+        private int slot;
+
+        /**
+         * Number of entries that still have to be returned.
+         */
+        private int remaining;
+
+        /**
+         * The last returned entry, null if next() hasn't been called or remove()
+         * was already called for it.
+         */
+        private Entry lastReturned;
+
+        /**
+         * Keeps track of the modification count of the table at the time of the
+         * iterator creation.
+         */
+        private int savedModificationCount;
+
+        private IteratorImpl() {
+            savedModificationCount = modificationCount;
+            remaining = size;
+            int i = 0;
+            while (keys[i] != null) {
+                i++;
+            }
+            start = i;
+            slot = (start - 1) & (keys.length - 1);
+        }
+
+        /**
+         * Returns true if the iteration has more elements, false otherwise.
+         */
+        @Override
+        public boolean hasNext() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException("The hashtable was modified!");
+            }
+            return remaining > 0;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return - the next element in the iteration
+         * @throws NoSuchElementException - if the iteration has no more elements
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public SimpleHashtable.TableEntry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int mask = keys.length - 1;
+            while (keys[slot] == null) {
+                slot = (slot - 1) & mask;
+            }
+            lastReturned = new Entry((K) keys[slot], (V) values[slot], slot);
+            slot = (slot - 1) & mask;
+            remaining--;
+            return lastReturned;
+        }
+
+        /**
+         * Removes the last element returned by this iterator from the hashtable. The
+         * method can be called only once per call to next().
+         *
+         * @throws IllegalStateException - if the next method has not yet been called,
+         *                               or the remove method has already been called
+         */
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() hasn't been called yet, nothing to remove");
+            }
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException("The hashtable was modified!");
+            }
+            removeAt(lastReturned.slot);
+            savedModificationCount = modificationCount;
+            lastReturned = null;
+        }
+    }
+
+    /**
+     * Entry returned by the iterator. Setting its value writes the value back to
+     * the slot it was read from.
+     */
+    private class Entry extends SimpleHashtable.TableEntry<K, V> {
+        /**
+         * Slot the entry was read from.
+         */
+        private final int slot;
+
+        private Entry(K key, V value, int slot) {
+            super(key, value);
+            this.slot = slot;
+        }
+
+        @Override
+        public void setValue(V value) {
+            super.setValue(value);
+            if (keys[slot] == getKey()) {
+                values[slot] = value;
+            }
+        }
+    }
+}
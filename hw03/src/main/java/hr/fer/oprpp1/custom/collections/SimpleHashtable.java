@@ -1,14 +1,17 @@
 package hr.fer.oprpp1.custom.collections;
 
 import java.lang.Math;
+import java.lang.reflect.Array;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 
 /**
- * A simple hashtable implementation.
+ * A simple hashtable implementation. Collisions are resolved by chaining, each
+ * slot holding a linked list of entries.
  */
-public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntry<K, V>> {
+public class SimpleHashtable<K, V> implements Hashtable<K, V> {
     /**
      * Slots in the hashtable.
      */
@@ -18,11 +21,34 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
      */
     int size;
 
+    /**
+     * Slots of the table that is being migrated into {@link #table} when resizing
+     * incrementally, null if no migration is in progress.
+     */
+    private TableEntry<K, V>[] oldTable;
+
+    /**
+     * Index of the next slot of {@link #oldTable} to be migrated.
+     */
+    private int migrationIndex;
+
+    /**
+     * Whether the hashtable resizes incrementally, spreading the migration of the
+     * entries over the operations that follow the resize.
+     */
+    private final boolean incrementalResize;
+
     /**
      * Number of modifications made to the hashtable.
      */
     private int modificationCount = 0;
 
+    /**
+     * Number of walks over the entries in progress. Lookups made while walking
+     * don't migrate any slots, so the chains being walked aren't relinked.
+     */
+    private int walks;
+
     /**
      * The default capacity of the hashtable.
      */
@@ -33,6 +59,13 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
      */
     private static final double DEFAULT_LOAD_FACTOR = 0.75;
 
+    /**
+     * Number of old slots migrated by each operation while an incremental resize is
+     * in progress. Must be at least 2, so the migration always finishes before the
+     * new table fills up.
+     */
+    private static final int MIGRATION_STEP = 4;
+
     /**
      * Constructs a new hashtable with the default capacity.
      */
@@ -46,12 +79,27 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
      * @param capacity the capacity of the hashtable
      * @throws IllegalArgumentException if the capacity is less than 1
      */
-    @SuppressWarnings("unchecked")
     public SimpleHashtable(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * Constructs a new hashtable with the given capacity. If incrementalResize is
+     * true, resizing doesn't rehash all the entries at once. Instead, the old and
+     * the new table coexist and each following put, get or remove migrates a few
+     * slots of the old table, so no single put has to pay for the whole resize.
+     * 
+     * @param capacity          the capacity of the hashtable
+     * @param incrementalResize whether the hashtable should resize incrementally
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    @SuppressWarnings("unchecked")
+    public SimpleHashtable(int capacity, boolean incrementalResize) {
         size = 0;
         if (capacity < 1) {
             throw new IllegalArgumentException("Capacity must be greater than 0.");
         }
+        this.incrementalResize = incrementalResize;
 
         table = new TableEntry[((int) Math.pow(2, Math.ceil(Math.log(capacity) / Math.log(2))))];
     }
@@ -72,9 +120,14 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
             throw new NullPointerException("The key can't be null!");
         }
 
-        if (size / table.length >= DEFAULT_LOAD_FACTOR) {
-            resize();
+        if (size >= table.length * DEFAULT_LOAD_FACTOR) {
+            if (incrementalResize) {
+                startMigration();
+            } else {
+                resize();
+            }
         }
+        migrate(key);
 
         int pos = Math.abs(key.hashCode()) % table.length;
 
@@ -97,13 +150,13 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 
         // goes down the linked list in the slot
         while (entry.next != null) {
+            entry = entry.next;
             if (entry.key.equals(key)) {
                 V oldValue = entry.value;
                 entry.value = value;
                 modificationCount++;
                 return oldValue;
             }
-            entry = entry.next;
         }
         entry.next = new TableEntry<>(key, value);
         modificationCount++;
@@ -125,21 +178,11 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
         if (key == null) {
             throw new NullPointerException("The key can't be null!");
         }
-
-        int pos = Math.abs(key.hashCode()) % table.length;
-
-        if (table[pos] == null) {
-            return null;
-        }
-
-        TableEntry<K, V> entry = table[pos];
-        while (entry != null) {
-            if (entry.key.equals(key)) {
-                return entry.value;
-            }
-            entry = entry.next;
+        if (walks == 0) {
+            migrate(key);
         }
-        return null;
+        TableEntry<K, V> entry = find(key);
+        return entry == null ? null : entry.value;
     }
 
     /**
@@ -162,16 +205,34 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
     public boolean containsKey(Object key) {
         if (key == null)
             throw new NullPointerException("The key can't be null!");
-        for (int i = 0; i < table.length; i++) {
-            var entry = table[i];
-            while (entry != null) {
+        if (walks == 0) {
+            migrate(key);
+        }
+        return find(key) != null;
+    }
+
+    /**
+     * Returns the entry with the given key, looking into its slot of the old table
+     * too if that slot hasn't been migrated yet.
+     * 
+     * @param key - the key of the entry
+     * @return - the entry with the given key, null if there is none
+     */
+    private TableEntry<K, V> find(Object key) {
+        int hash = Math.abs(key.hashCode());
+        if (oldTable != null) {
+            for (TableEntry<K, V> entry = oldTable[hash % oldTable.length]; entry != null; entry = entry.next) {
                 if (entry.key.equals(key)) {
-                    return true;
+                    return entry;
                 }
-                entry = entry.next;
             }
         }
-        return false;
+        for (TableEntry<K, V> entry = table[hash % table.length]; entry != null; entry = entry.next) {
+            if (entry.key.equals(key)) {
+                return entry;
+            }
+        }
+        return null;
     }
 
     /**
@@ -181,6 +242,7 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
      * @return - true if the value is in the hashtable, false otherwise
      */
     public boolean containsValue(Object value) {
+        finishMigration();
         boolean searchNull = (value == null);
         TableEntry<K, V> entry;
         if (searchNull) {
@@ -219,6 +281,7 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
         if (key == null) {
             throw new NullPointerException("The key can't be null!");
         }
+        migrate(key);
 
         int pos = Math.abs(key.hashCode()) % table.length;
 
@@ -259,12 +322,14 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
         for (int i = 0; i < table.length; i++) {
             table[i] = null;
         }
+        oldTable = null;
         size = 0;
         modificationCount++;
     }
 
     @Override
     public String toString() {
+        finishMigration();
         StringBuilder sb = new StringBuilder();
         sb.append("[");
         for (TableEntry<K, V> kvTableEntry : table) {
@@ -291,6 +356,7 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
      */
     @SuppressWarnings("unchecked")
     public TableEntry<K, V>[] toArray() {
+        finishMigration();
         TableEntry<K, V>[] array = (TableEntry<K, V>[]) new TableEntry[size];
         int index = 0;
         for (TableEntry<K, V> kvTableEntry : table) {
@@ -304,31 +370,275 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
     }
 
     /**
-     * Doubles the size of the hashtable and rehashes all the entries.
+     * Calls the given action for every entry in the hashtable, without allocating
+     * an iterator or entry copies. The entries are visited slot by slot, in the same
+     * order as the iterator unless an incremental resize is in progress, in which
+     * case the slots of the old table not yet migrated are visited first. The walk
+     * doesn't finish the migration.
+     * 
+     * @param action - the action to be called with the key and the value of every
+     *               entry
+     * @throws NullPointerException            if the action is null
+     * @throws ConcurrentModificationException if the action modifies the hashtable
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) {
+            throw new NullPointerException("The action can't be null!");
+        }
+        int savedModificationCount = modificationCount;
+        walks++;
+        try {
+            // the slots of the old table not yet migrated, then the new table
+            for (TableEntry<K, V>[] slots = oldTable == null ? table : oldTable; slots != null;
+                    slots = slots == table ? null : table) {
+                for (TableEntry<K, V> kvTableEntry : slots) {
+                    for (TableEntry<K, V> entry = kvTableEntry; entry != null; entry = entry.next) {
+                        action.accept(entry.key, entry.value);
+                        if (savedModificationCount != modificationCount) {
+                            throw new ConcurrentModificationException();
+                        }
+                    }
+                }
+            }
+        } finally {
+            walks--;
+        }
+    }
+
+    /**
+     * Calls the given processor for every key in the hashtable, in the same order
+     * as {@link #forEach(BiConsumer)}.
+     * 
+     * @param processor - the processor to be called with every key
+     * @throws NullPointerException            if the processor is null
+     * @throws ConcurrentModificationException if the processor modifies the
+     *                                         hashtable
+     */
+    public void forEachKey(Processor<? super K> processor) {
+        if (processor == null) {
+            throw new NullPointerException("The processor can't be null!");
+        }
+        forEach((key, value) -> processor.process(key));
+    }
+
+    /**
+     * Calls the given processor for every value in the hashtable, in the same order
+     * as {@link #forEach(BiConsumer)}.
+     * 
+     * @param processor - the processor to be called with every value
+     * @throws NullPointerException            if the processor is null
+     * @throws ConcurrentModificationException if the processor modifies the
+     *                                         hashtable
+     */
+    public void forEachValue(Processor<? super V> processor) {
+        if (processor == null) {
+            throw new NullPointerException("The processor can't be null!");
+        }
+        forEach((key, value) -> processor.process(value));
+    }
+
+    /**
+     * Copies the keys of the hashtable into the given buffer, in the same order as
+     * {@link #forEach(BiConsumer)}. If the buffer is too small, a new array of the same type and
+     * exactly the size of the hashtable is allocated instead. If the buffer is
+     * larger than needed, the element right after the last key is set to null.
+     * Reusing a big enough buffer makes periodic snapshots allocation-free.
+     * 
+     * @param buffer - the array the keys are copied into, if it is big enough
+     * @return - the array holding the keys, the buffer itself if it was big enough
+     * @throws NullPointerException if the buffer is null
+     */
+    public K[] keys(K[] buffer) {
+        K[] array = snapshotArray(buffer);
+        int index = 0;
+        for (TableEntry<K, V>[] slots = oldTable == null ? table : oldTable; slots != null;
+                slots = slots == table ? null : table) {
+            for (TableEntry<K, V> kvTableEntry : slots) {
+                for (TableEntry<K, V> entry = kvTableEntry; entry != null; entry = entry.next) {
+                    array[index++] = entry.key;
+                }
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Copies the values of the hashtable into the given buffer, in the same order
+     * as {@link #forEach(BiConsumer)}. If the buffer is too small, a new array of the same type and
+     * exactly the size of the hashtable is allocated instead. If the buffer is
+     * larger than needed, the element right after the last value is set to null.
+     * 
+     * @param buffer - the array the values are copied into, if it is big enough
+     * @return - the array holding the values, the buffer itself if it was big
+     *         enough
+     * @throws NullPointerException if the buffer is null
+     */
+    public V[] values(V[] buffer) {
+        V[] array = snapshotArray(buffer);
+        int index = 0;
+        for (TableEntry<K, V>[] slots = oldTable == null ? table : oldTable; slots != null;
+                slots = slots == table ? null : table) {
+            for (TableEntry<K, V> kvTableEntry : slots) {
+                for (TableEntry<K, V> entry = kvTableEntry; entry != null; entry = entry.next) {
+                    array[index++] = entry.value;
+                }
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Returns the given buffer if it can hold all the entries, terminating it with
+     * null if it is longer, otherwise a new array of the same type.
+     * 
+     * @param buffer - the buffer supplied by the caller
+     * @return - an array that can hold all the entries
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T[] snapshotArray(T[] buffer) {
+        if (buffer == null) {
+            throw new NullPointerException("The buffer can't be null!");
+        }
+        if (buffer.length < size) {
+            return (T[]) Array.newInstance(buffer.getClass().getComponentType(), size);
+        }
+        if (buffer.length > size) {
+            buffer[size] = null;
+        }
+        return buffer;
+    }
+
+    /**
+     * Doubles the size of the hashtable and rehashes all the entries. The last
+     * entry of every new slot is remembered, so each entry is appended in constant
+     * time and the order of the entries within a slot is kept.
      */
     @SuppressWarnings("unchecked")
     private void resize() {
         TableEntry<K, V>[] newTable = (TableEntry<K, V>[]) new TableEntry[2 * table.length];
-        TableEntry<K, V>[] entries = toArray();
+        TableEntry<K, V>[] tails = (TableEntry<K, V>[]) new TableEntry[newTable.length];
 
-        for (var entry : entries) {
-            int index = Math.abs(entry.key.hashCode() % newTable.length);
-            TableEntry<K, V> entryWalker = newTable[index];
-            if (entryWalker == null) {
-                newTable[index] = entry;
-            } else {
-                while (entryWalker.next != null) {
-                    entryWalker = entryWalker.next;
+        for (TableEntry<K, V> kvTableEntry : table) {
+            TableEntry<K, V> entry = kvTableEntry;
+            while (entry != null) {
+                TableEntry<K, V> next = entry.next;
+                int index = Math.abs(entry.key.hashCode() % newTable.length);
+                if (tails[index] == null) {
+                    newTable[index] = entry;
+                } else {
+                    tails[index].next = entry;
                 }
-                entryWalker.next = entry;
+                tails[index] = entry;
+                entry.next = null;
+                entry = next;
             }
-            entry.next = null;
         }
         table = newTable;
     }
 
+    /**
+     * Starts an incremental resize, the current table becomes the old table and a
+     * new, twice as big, table is allocated. If the previous migration is still in
+     * progress, it is finished first.
+     */
+    @SuppressWarnings("unchecked")
+    private void startMigration() {
+        finishMigration();
+        oldTable = table;
+        migrationIndex = 0;
+        table = (TableEntry<K, V>[]) new TableEntry[2 * oldTable.length];
+    }
+
+    /**
+     * If an incremental resize is in progress, migrates the next few slots of the
+     * old table, as well as the slot in which the given key would be in the old
+     * table. After this call the key can be looked up in the new table only.
+     * 
+     * @param key - the key that is about to be looked up
+     */
+    private void migrate(Object key) {
+        if (oldTable == null) {
+            return;
+        }
+        migrateSlot(Math.abs(key.hashCode()) % oldTable.length);
+        for (int i = 0; i < MIGRATION_STEP && migrationIndex < oldTable.length; i++) {
+            migrateSlot(migrationIndex++);
+        }
+        if (migrationIndex == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Migrates all the remaining slots of the old table, if an incremental resize
+     * is in progress.
+     */
+    private void finishMigration() {
+        if (oldTable == null) {
+            return;
+        }
+        while (migrationIndex < oldTable.length) {
+            migrateSlot(migrationIndex++);
+        }
+        oldTable = null;
+    }
+
+    /**
+     * Moves the entries of the given slot of the old table to the new table. As the
+     * new table is twice as big, the entries can only end up in two of its slots.
+     * The order of the entries is kept.
+     * 
+     * @param slot - the slot of the old table to be migrated
+     */
+    private void migrateSlot(int slot) {
+        TableEntry<K, V> entry = oldTable[slot];
+        oldTable[slot] = null;
+        TableEntry<K, V> lowTail = tail(slot);
+        TableEntry<K, V> highTail = tail(slot + oldTable.length);
+        while (entry != null) {
+            TableEntry<K, V> next = entry.next;
+            entry.next = null;
+            int index = Math.abs(entry.key.hashCode()) % table.length;
+            if (index == slot) {
+                if (lowTail == null) {
+                    table[index] = entry;
+                } else {
+                    lowTail.next = entry;
+                }
+                lowTail = entry;
+            } else {
+                if (highTail == null) {
+                    table[index] = entry;
+                } else {
+                    highTail.next = entry;
+                }
+                highTail = entry;
+            }
+            entry = next;
+        }
+    }
+
+    /**
+     * Returns the last entry in the given slot of the table, null if the slot is
+     * empty.
+     * 
+     * @param slot - the slot of the table
+     * @return - the last entry in the slot, null if there is none
+     */
+    private TableEntry<K, V> tail(int slot) {
+        TableEntry<K, V> entry = table[slot];
+        if (entry == null) {
+            return null;
+        }
+        while (entry.next != null) {
+            entry = entry.next;
+        }
+        return entry;
+    }
+
     @Override
     public Iterator<TableEntry<K, V>> iterator() {
+        finishMigration();
         return new IteratorImpl(modificationCount);
     }
 
@@ -337,44 +647,45 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
      */
     private class IteratorImpl implements Iterator<SimpleHashtable.TableEntry<K, V>> {
         /**
-         * Keeps track of how many objects have been iterated over. Used to determine if
-         * all elements
-         * have been iterated over.
-         */
-        int no_iterated = 0;
-
-        /**
-         * Keeps track of the current slot in the table during the iteration.
+         * Slot in the table holding the next entry of the iteration.
          */
         int current_slot;
 
         /**
-         * Keeps track of the current entry in the table during the iteration.
-         */
-        TableEntry<K, V> current_entry;
-
-        /**
-         * Reference to the previously iterated-over entry. Used when removing entries
-         * to re-link the list in a particular slot.
+         * The entry returned by the next call to next(), null once all entries have
+         * been iterated over. It is found before the last returned entry can be
+         * removed, so removing doesn't affect the rest of the iteration.
          */
-        TableEntry<K, V> prev_entry;
+        TableEntry<K, V> next_entry;
 
         /**
-         * Keeps track whether the table has been modified since the last next() call,
-         * as
-         * only one remove call is allowed per one next() call.
+         * The entry returned by the last call to next(), null if next() hasn't been
+         * called yet or the entry has already been removed.
          */
-        boolean removedThisIteration = false;
+        TableEntry<K, V> last_returned;
 
         /**
          * Keeps track of the modification count of the table at the time of the
-         * iterator
-         * creation.
+         * iterator creation, or of its last remove.
          */
         private int savedModificationCount;
 
         private IteratorImpl(int modificationCount) {
             savedModificationCount = modificationCount;
+            advance(table[0]);
+        }
+
+        /**
+         * Sets the next entry of the iteration to the given entry or, if it is null,
+         * to the first entry of the following non-empty slots.
+         *
+         * @param entry - the entry following the last returned one in its slot
+         */
+        private void advance(TableEntry<K, V> entry) {
+            while (entry == null && ++current_slot < table.length) {
+                entry = table[current_slot];
+            }
+            next_entry = entry;
         }
 
         /**
@@ -384,7 +695,7 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
             if (savedModificationCount != modificationCount) {
                 throw new ConcurrentModificationException("The hashtable was modified!");
             }
-            return no_iterated < size; // size == SimpleHashtable.this.size
+            return next_entry != null;
         }
 
         /**
@@ -396,40 +707,18 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
          */
         @SuppressWarnings({"rawtypes", "unchecked"})
         public SimpleHashtable.TableEntry next() {
-            if (savedModificationCount != modificationCount) {
-                throw new ConcurrentModificationException("The hashtable was modified!");
-            }
-            removedThisIteration = false;
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            if (current_entry == null) {
-                while (current_slot < table.length && table[current_slot] == null) {
-                    current_slot++;
-                }
-                prev_entry = current_entry;
-                current_entry = table[current_slot];
-            } else {
-                prev_entry = current_entry;
-                current_entry = current_entry.next;
-                if (current_entry == null) {
-                    current_slot++;
-                    while (current_slot < table.length && table[current_slot] == null) {
-                        current_slot++;
-                    }
-                    current_entry = table[current_slot];
-                    prev_entry = current_entry;
-                }
-            }
-            no_iterated++;
-            return current_entry;
+            last_returned = next_entry;
+            advance(next_entry.next);
+            return last_returned;
         }
 
         /**
-         * Removes the last element returned by this iterator from the hashtable, making
-         * sure that the iterator is not left in an invalid state, essentially making
-         * sure the iterator doesn't break, by doing a controlled remove. The method can
-         * be called only once per call to next(). The method throws
+         * Removes the last element returned by this iterator from the hashtable. The
+         * next element has already been found, so the iteration continues with it.
+         * The method can be called only once per call to next(). The method throws
          * IllegalStateException if the next method has not yet been called, or the
          * remove method has already been called after the last call to the next method.
          * 
@@ -437,17 +726,15 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
          *                               or the remove method has already been called
          */
         public void remove() {
-            if (current_entry == null) {
-                throw new IllegalStateException("next() hasn't been called yet, nothing to remove");
+            if (last_returned == null) {
+                throw new IllegalStateException("next() hasn't been called yet or remove() has already been called");
             }
-            if (removedThisIteration) {
-                throw new IllegalStateException("remove() has already been called this iteration");
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException("The hashtable was modified!");
             }
-            SimpleHashtable.this.remove(current_entry.key);
-            savedModificationCount++;
-            current_entry = prev_entry;
-            removedThisIteration = true;
-            no_iterated--;
+            SimpleHashtable.this.remove(last_returned.key);
+            savedModificationCount = modificationCount;
+            last_returned = null;
         }
     }
 
@@ -0,0 +1,507 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Class that represents a linked list collection whose nodes are chunks of up
+ * to chunkCapacity elements, an unrolled linked list. Positional access skips
+ * whole chunks, walking from whichever end of the list is closer, so get,
+ * insert and remove by index follow about size / chunkCapacity links instead of
+ * size / 2 like {@link LinkedListIndexedCollection} does. With a chunk capacity
+ * close to the square root of the expected size, positional access is
+ * O(sqrt n). Adding to either end of the list stays constant time.
+ * Duplicate elements are allowed. Storage of null references, however, is not
+ * allowed.
+ */
+public class UnrolledLinkedListIndexedCollection<T> implements List<T> {
+    /**
+     * Number of elements currently stored in the collection.
+     */
+    private int size;
+
+    /**
+     * Reference to the first chunk in the collection.
+     */
+    private Chunk first;
+
+    /**
+     * Reference to the last chunk in the collection.
+     */
+    private Chunk last;
+
+    /**
+     * Maximum number of elements in a single chunk.
+     */
+    private final int chunkCapacity;
+
+    /**
+     * Keeping track of every modification of the collection, so that the iterator
+     * can throw an exception if the collection is modified while the iterator is in
+     * use.
+     */
+    private int modificationCount = 0;
+
+    /**
+     * The default capacity of a chunk.
+     */
+    private static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+    /**
+     * Default constructor. Creates an empty collection with the default chunk
+     * capacity of 64.
+     */
+    public UnrolledLinkedListIndexedCollection() {
+        this(DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Creates an empty collection with the given chunk capacity.
+     *
+     * @param chunkCapacity - maximum number of elements in a single chunk. Must be
+     *                      at least two.
+     * @throws IllegalArgumentException if the chunk capacity is less than two.
+     */
+    public UnrolledLinkedListIndexedCollection(int chunkCapacity) {
+        if (chunkCapacity < 2) {
+            throw new IllegalArgumentException("Chunk capacity should be at least 2!");
+        }
+        this.chunkCapacity = chunkCapacity;
+    }
+
+    /**
+     * Constructor that makes a new collection from a given one.
+     *
+     * @param other - collection to be copied. The given collection will not be
+     *              modified.
+     * @throws NullPointerException if the given collection is null.
+     */
+    public UnrolledLinkedListIndexedCollection(Collection<? extends T> other) {
+        this(DEFAULT_CHUNK_CAPACITY);
+        if (other == null) {
+            throw new NullPointerException();
+        }
+        addAll(other);
+    }
+
+    /**
+     * Returns the number of elements currently stored in the collection.
+     *
+     * @return the number of elements currently stored in the collection.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds the given object to the collection, appending it at the end.
+     *
+     * @param value - object to be added to the collection.
+     * @throws NullPointerException if the given object is null.
+     */
+    @Override
+    public void add(T value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        if (last == null || last.count == chunkCapacity) {
+            linkAfter(last, new Chunk());
+        }
+        last.items[last.count++] = value;
+        size++;
+        modificationCount++;
+    }
+
+    /**
+     * Inserts the given value at the given position in the collection. A full
+     * chunk is split in two before inserting into it, except at the very beginning
+     * of the list, where a new chunk is put in front instead.
+     *
+     * @param value    - value to be inserted.
+     * @param position - position at which the value is to be inserted. Must be
+     *                 between 0 and size.
+     * @throws NullPointerException      if the given value is null.
+     * @throws IndexOutOfBoundsException if the given position is not between 0 and
+     *                                   size.
+     */
+    @Override
+    public void insert(T value, int position) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        if (position == size) {
+            add(value);
+            return;
+        }
+
+        Chunk chunk;
+        int offset;
+        if (position == 0 && first.count == chunkCapacity) {
+            chunk = new Chunk();
+            linkAfter(null, chunk);
+            offset = 0;
+        } else {
+            int[] offsetHolder = new int[1];
+            chunk = chunkFor(position, offsetHolder);
+            offset = offsetHolder[0];
+            if (chunk.count == chunkCapacity) {
+                Chunk upper = split(chunk);
+                if (offset > chunk.count) {
+                    offset -= chunk.count;
+                    chunk = upper;
+                }
+            }
+        }
+
+        System.arraycopy(chunk.items, offset, chunk.items, offset + 1, chunk.count - offset);
+        chunk.items[offset] = value;
+        chunk.count++;
+        size++;
+        modificationCount++;
+    }
+
+    /**
+     * Returns the object that is stored in the collection at the given position.
+     *
+     * @param index - position of the object to be returned. Must be between 0 and
+     *              size-1.
+     * @return the object that is stored in the collection at the given position.
+     * @throws IndexOutOfBoundsException if the given position is not between 0 and
+     *                                   size-1.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index > size - 1) {
+            throw new IndexOutOfBoundsException();
+        }
+        int[] offset = new int[1];
+        Chunk chunk = chunkFor(index, offset);
+        return (T) chunk.items[offset[0]];
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given value.
+     * Returns -1 if the value is not found.
+     *
+     * @param value - value to be searched for.
+     * @return the index of the first occurrence of the given value or -1 if the
+     *         value is not found.
+     */
+    @Override
+    public int indexOf(T value) {
+        if (value == null) {
+            return -1;
+        }
+        int base = 0;
+        for (Chunk chunk = first; chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.count; i++) {
+                if (chunk.items[i].equals(value)) {
+                    return base + i;
+                }
+            }
+            base += chunk.count;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the collection contains the given object.
+     *
+     * @param value - object to be searched for.
+     * @return true if the collection contains the given object, false otherwise.
+     */
+    @Override
+    public boolean contains(T value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Removes the first occurrence of the given object from the collection.
+     *
+     * @param value - object to be removed.
+     * @return true if the object was found and removed, false otherwise.
+     */
+    @Override
+    public boolean remove(T value) {
+        int index = indexOf(value);
+        if (index == -1) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Removes the object at the given position from the collection. A chunk that
+     * becomes empty is unlinked, and a chunk that fits together with its successor
+     * into a single chunk is merged with it, so chunks stay at least half full on
+     * average.
+     *
+     * @param index - position of the object to be removed. Must be between 0 and
+     *              size - 1.
+     * @throws IndexOutOfBoundsException if the given position is not between 0 and
+     *                                   size - 1.
+     */
+    @Override
+    public void remove(int index) {
+        if (index < 0 || index > size - 1) {
+            throw new IndexOutOfBoundsException();
+        }
+        int[] offsetHolder = new int[1];
+        Chunk chunk = chunkFor(index, offsetHolder);
+        int offset = offsetHolder[0];
+
+        System.arraycopy(chunk.items, offset + 1, chunk.items, offset, chunk.count - offset - 1);
+        chunk.items[--chunk.count] = null;
+
+        if (chunk.count == 0) {
+            unlink(chunk);
+        } else if (chunk.next != null && chunk.count + chunk.next.count <= chunkCapacity) {
+            Chunk next = chunk.next;
+            System.arraycopy(next.items, 0, chunk.items, chunk.count, next.count);
+            chunk.count += next.count;
+            unlink(next);
+        }
+        size--;
+        modificationCount++;
+    }
+
+    /**
+     * Allocates new array with size set to the size of the collection, fills it
+     * with collection content and returns the newly created array.
+     *
+     * @return array of objects from this collection.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T[] toArray() {
+        T[] arr = (T[]) new Object[size];
+        int i = 0;
+        for (Chunk chunk = first; chunk != null; chunk = chunk.next) {
+            System.arraycopy(chunk.items, 0, arr, i, chunk.count);
+            i += chunk.count;
+        }
+        return arr;
+    }
+
+    /**
+     * Removes all elements from this collection.
+     */
+    @Override
+    public void clear() {
+        first = last = null;
+        size = 0;
+        modificationCount++;
+    }
+
+    /**
+     * Finds the chunk holding the element at the given index, walking from the
+     * closer end of the list.
+     *
+     * @param index  - index of the element, between 0 and size - 1, or size if the
+     *               list is not empty.
+     * @param offset - array whose first element is set to the offset of the
+     *               element within the returned chunk.
+     * @return the chunk holding the element.
+     */
+    private Chunk chunkFor(int index, int[] offset) {
+        if (index < size / 2) {
+            Chunk chunk = first;
+            while (index >= chunk.count) {
+                index -= chunk.count;
+                chunk = chunk.next;
+            }
+            offset[0] = index;
+            return chunk;
+        }
+        Chunk chunk = last;
+        int start = size - chunk.count;
+        while (index < start) {
+            chunk = chunk.prev;
+            start -= chunk.count;
+        }
+        offset[0] = index - start;
+        return chunk;
+    }
+
+    /**
+     * Moves the upper half of the given full chunk into a new chunk linked right
+     * after it.
+     *
+     * @param chunk - the chunk to be split.
+     * @return the new chunk holding the upper half.
+     */
+    private Chunk split(Chunk chunk) {
+        Chunk upper = new Chunk();
+        int half = chunk.count / 2;
+        upper.count = chunk.count - half;
+        System.arraycopy(chunk.items, half, upper.items, 0, upper.count);
+        for (int i = half; i < chunk.count; i++) {
+            chunk.items[i] = null;
+        }
+        chunk.count = half;
+        linkAfter(chunk, upper);
+        return upper;
+    }
+
+    /**
+     * Links the given chunk after the given one, or at the beginning of the list if
+     * prev is null.
+     *
+     * @param prev  - the chunk after which the new one is linked, null for the
+     *              beginning of the list.
+     * @param chunk - the chunk to be linked.
+     */
+    private void linkAfter(Chunk prev, Chunk chunk) {
+        Chunk next = prev == null ? first : prev.next;
+        chunk.prev = prev;
+        chunk.next = next;
+        if (prev == null) {
+            first = chunk;
+        } else {
+            prev.next = chunk;
+        }
+        if (next == null) {
+            last = chunk;
+        } else {
+            next.prev = chunk;
+        }
+    }
+
+    /**
+     * Unlinks the given chunk from the list.
+     *
+     * @param chunk - the chunk to be unlinked.
+     */
+    private void unlink(Chunk chunk) {
+        if (chunk.prev == null) {
+            first = chunk.next;
+        } else {
+            chunk.prev.next = chunk.next;
+        }
+        if (chunk.next == null) {
+            last = chunk.prev;
+        } else {
+            chunk.next.prev = chunk.prev;
+        }
+    }
+
+    /**
+     * A node of the list, holding up to chunkCapacity elements in an array.
+     */
+    private class Chunk {
+        /**
+         * Elements of the chunk, only the first count are used.
+         */
+        private final Object[] items = new Object[chunkCapacity];
+
+        /**
+         * Number of elements in the chunk.
+         */
+        private int count;
+
+        /**
+         * Reference to the previous chunk in the list.
+         */
+        private Chunk prev;
+
+        /**
+         * Reference to the next chunk in the list.
+         */
+        private Chunk next;
+    }
+
+    /**
+     * Local class that implements ElementsGetter interface.
+     * It is used to iterate over the collection returning elements one by one.
+     */
+    private class UnrolledElementsGetter implements ElementsGetter<T> {
+        /**
+         * Chunk of the next element to be returned.
+         */
+        private Chunk chunk;
+
+        /**
+         * Offset of the next element within the chunk.
+         */
+        private int offset;
+
+        /**
+         * Number of elements this getter still has to return.
+         */
+        private int remaining;
+
+        /**
+         * Modification count of the collection instance at the time of ElementsGetter
+         * creation.
+         */
+        private final int savedModificationCount;
+
+        private UnrolledElementsGetter() {
+            chunk = first;
+            remaining = size;
+            savedModificationCount = modificationCount;
+        }
+
+        /**
+         * Returns true if the collection contains at least one more element, false
+         * otherwise.
+         *
+         * @return true if there are more elements, false otherwise.
+         * @throws ConcurrentModificationException if the collection has been modified
+         *                                         since creation of the ElementsGetter.
+         */
+        @Override
+        public boolean hasNextElement() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+            return remaining > 0;
+        }
+
+        /**
+         * Returns the next element in the collection.
+         *
+         * @return next element in the collection.
+         * @throws NoSuchElementException          if there are no more elements in the
+         *                                         collection.
+         * @throws ConcurrentModificationException if the collection has been modified
+         *                                         since creation of the ElementsGetter.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T getNextElement() {
+            if (!hasNextElement()) {
+                throw new NoSuchElementException();
+            }
+            if (offset == chunk.count) {
+                chunk = chunk.next;
+                offset = 0;
+            }
+            remaining--;
+            return (T) chunk.items[offset++];
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+    }
+
+    /**
+     * Creates a new ElementsGetter for this collection.
+     *
+     * @return ElementsGetter for this collection.
+     */
+    @Override
+    public ElementsGetter<T> createElementsGetter() {
+        return new UnrolledElementsGetter();
+    }
+}
@@ -0,0 +1,65 @@
+package hr.fer.oprpp1.custom.collections.demo;
+
+import hr.fer.oprpp1.custom.collections.Dictionary;
+
+/**
+ * Times put, get and remove on dictionaries of growing size and prints the
+ * average time per operation. With the hash index the time per operation stays
+ * roughly flat from a thousand up to a million keys.
+ * An optional argument sets the largest size, 1000000 by default.
+ */
+public class DictionaryBenchmark {
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // warm up so the first measured size is not dominated by the JIT
+        run(100_000, false);
+
+        System.out.printf("%10s %12s %12s %12s%n", "keys", "put ns/op", "get ns/op", "remove ns/op");
+        for (int size = 1000; size <= maxSize; size *= 10) {
+            run(size, true);
+        }
+    }
+
+    /**
+     * Fills a dictionary with the given number of keys, reads them all back and
+     * removes them, optionally printing the average time of each phase.
+     *
+     * @param size  - number of keys
+     * @param print - whether to print the timings
+     */
+    private static void run(int size, boolean print) {
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+        }
+        Dictionary<String, Integer> dict = new Dictionary<>();
+        long sink = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            dict.put(keys[i], i);
+        }
+        long put = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            sink += dict.get(keys[i]);
+        }
+        long get = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            sink -= dict.remove(keys[i]);
+        }
+        long remove = System.nanoTime() - start;
+
+        if (sink != 0 || !dict.isEmpty()) {
+            throw new IllegalStateException("Dictionary lost entries!");
+        }
+        if (print) {
+            System.out.printf("%10d %12.1f %12.1f %12.1f%n", size, (double) put / size, (double) get / size,
+                    (double) remove / size);
+        }
+    }
+}
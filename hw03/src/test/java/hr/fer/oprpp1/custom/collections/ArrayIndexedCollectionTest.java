@@ -328,4 +328,94 @@ public class ArrayIndexedCollectionTest {
                 () -> assertEquals("5", col.get(4)),
                 () -> assertEquals(6.0, col.get(5)));
     }
+
+    @Test
+    public void testAddAllFromArrayIndexedCollection() {
+        var col = new ArrayIndexedCollection<Integer>(1);
+        col.add(0);
+        var other = new ArrayIndexedCollection<Integer>();
+        for (int i = 1; i <= 100; i++) {
+            other.add(i);
+        }
+        col.addAll(other);
+        assertEquals(101, col.size());
+        for (int i = 0; i <= 100; i++) {
+            assertEquals(i, col.get(i));
+        }
+        assertEquals(100, other.size());
+    }
+
+    @Test
+    public void testAddAllFromItself() {
+        var col = new ArrayIndexedCollection<Integer>(1);
+        col.add(1);
+        col.add(2);
+        col.addAll(col);
+        assertArrayEquals(new Object[] { 1, 2, 1, 2 }, col.toArray());
+    }
+
+    @Test
+    public void testInsertAll() {
+        var col = new ArrayIndexedCollection<Integer>(2);
+        col.add(1);
+        col.add(5);
+        var other = new LinkedListIndexedCollection<Integer>();
+        other.add(2);
+        other.add(3);
+        other.add(4);
+        col.insertAll(other, 1);
+        assertArrayEquals(new Object[] { 1, 2, 3, 4, 5 }, col.toArray());
+        col.insertAll(other, 0);
+        col.insertAll(other, col.size());
+        assertArrayEquals(new Object[] { 2, 3, 4, 1, 2, 3, 4, 5, 2, 3, 4 }, col.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> col.insertAll(other, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.insertAll(other, col.size() + 1));
+        assertThrows(NullPointerException.class, () -> col.insertAll(null, 0));
+    }
+
+    @Test
+    public void testInsertAllInvalidatesElementsGetter() {
+        var col = new ArrayIndexedCollection<Integer>();
+        col.add(1);
+        var other = new ArrayIndexedCollection<Integer>();
+        other.add(2);
+        var getter = col.createElementsGetter();
+        col.insertAll(other, 0);
+        assertThrows(java.util.ConcurrentModificationException.class, getter::getNextElement);
+    }
+
+    @Test
+    public void testRemoveRange() {
+        var col = new ArrayIndexedCollection<Integer>();
+        for (int i = 0; i < 10; i++) {
+            col.add(i);
+        }
+        col.removeRange(2, 5);
+        assertArrayEquals(new Object[] { 0, 1, 5, 6, 7, 8, 9 }, col.toArray());
+        col.removeRange(3, 3);
+        assertEquals(7, col.size());
+        col.removeRange(0, col.size());
+        assertEquals(0, col.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> col.removeRange(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.removeRange(0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.removeRange(1, 0));
+    }
+
+    @Test
+    public void testEnsureCapacityAndTrimToSize() {
+        var col = new ArrayIndexedCollection<Integer>(1);
+        col.ensureCapacity(1000);
+        for (int i = 0; i < 1000; i++) {
+            col.add(i);
+        }
+        col.removeRange(10, 1000);
+        col.trimToSize();
+        assertEquals(10, col.size());
+        col.add(10);
+        assertEquals(10, col.get(10));
+        col.clear();
+        col.trimToSize();
+        col.add(1);
+        assertEquals(1, col.get(0));
+    }
 }
@@ -1,5 +1,10 @@
 package hr.fer.oprpp1.custom.collections;
 
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,4 +29,44 @@ public class CollectionTest {
         assertEquals(2, col.get(5));
         assertEquals(4, col.get(6));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStream() {
+        ArrayIndexedCollection<Integer> col = new ArrayIndexedCollection<>();
+        for (int i = 1; i <= 5; i++) {
+            col.add(i);
+        }
+        assertEquals(List.of(2, 4), col.stream().filter(i -> i % 2 == 0).collect(Collectors.toList()));
+
+        LinkedListIndexedCollection<Integer> list = new LinkedListIndexedCollection<>(col);
+        assertEquals(15, list.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    public void testParallelStreamKeepsOrder() {
+        ArrayIndexedCollection<Integer> col = new ArrayIndexedCollection<>();
+        LinkedListIndexedCollection<Integer> list = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 10000; i++) {
+            col.add(i);
+            list.add(i);
+        }
+        var expected = IntStream.range(0, 10000).map(i -> 2 * i).boxed().collect(Collectors.toList());
+        assertEquals(expected, col.stream().parallel().map(i -> 2 * i).collect(Collectors.toList()));
+        assertEquals(expected, list.stream().parallel().map(i -> 2 * i).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testParallelForEach() {
+        ArrayIndexedCollection<Integer> col = new ArrayIndexedCollection<>();
+        for (int i = 1; i <= 10000; i++) {
+            col.add(i);
+        }
+        LongAdder sum = new LongAdder();
+        col.parallelForEach(sum::add);
+        assertEquals(50005000, sum.sum());
+
+        LongAdder listSum = new LongAdder();
+        new LinkedListIndexedCollection<>(col).parallelForEach(listSum::add);
+        assertEquals(50005000, listSum.sum());
+    }
+}
@@ -0,0 +1,169 @@
+package hr.fer.oprpp1.custom.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentSimpleHashtableTest {
+    @Test
+    public void testExample() {
+        ConcurrentSimpleHashtable<String, Integer> examMarks = new ConcurrentSimpleHashtable<>(2);
+        examMarks.put("Ivana", 2);
+        examMarks.put("Ante", 2);
+        examMarks.put("Jasna", 2);
+        examMarks.put("Kristina", 5);
+        assertEquals(2, examMarks.put("Ivana", 5));
+        assertEquals(5, examMarks.get("Kristina"));
+        assertEquals(5, examMarks.get("Ivana"));
+        assertEquals(4, examMarks.size());
+    }
+
+    @Test
+    public void testIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentSimpleHashtable<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentSimpleHashtable<>(16, 0));
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>();
+        assertThrows(NullPointerException.class, () -> table.put(null, 1));
+        assertThrows(NullPointerException.class, () -> table.put("Ivana", null));
+        assertThrows(NullPointerException.class, () -> table.get(null));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+        assertThrows(NullPointerException.class, () -> table.putIfAbsent("Ivana", null));
+        assertThrows(NullPointerException.class, () -> table.compute("Ivana", null));
+    }
+
+    @Test
+    public void testManyEntriesSingleSegment() {
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>(1, 1);
+        for (int i = 0; i < 10000; i++) {
+            table.put("Ivana" + i, i);
+        }
+        assertEquals(10000, table.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, table.get("Ivana" + i));
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            assertEquals(i, table.remove("Ivana" + i));
+        }
+        assertEquals(5000, table.size());
+        assertFalse(table.containsKey("Ivana0"));
+        assertTrue(table.containsKey("Ivana1"));
+        assertTrue(table.containsValue(1));
+        assertFalse(table.containsValue(0));
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>();
+        assertNull(table.putIfAbsent("Ivana", 2));
+        assertEquals(2, table.putIfAbsent("Ivana", 5));
+        assertEquals(2, table.get("Ivana"));
+    }
+
+    @Test
+    public void testCompute() {
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>();
+        assertEquals(1, table.compute("Ivana", (k, v) -> v == null ? 1 : v + 1));
+        assertEquals(2, table.compute("Ivana", (k, v) -> v == null ? 1 : v + 1));
+        assertNull(table.compute("Ivana", (k, v) -> null));
+        assertFalse(table.containsKey("Ivana"));
+        assertNull(table.compute("Ante", (k, v) -> null));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testClearAndToArray() {
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>();
+        table.put("Ivana", 2);
+        table.put("Ante", 3);
+        assertEquals(2, table.toArray().length);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertEquals(0, table.toArray().length);
+        assertEquals("[]", table.toString());
+    }
+
+    @Test
+    public void testIteratorRemoveAndSetValue() {
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>();
+        table.put("Ivana", 2);
+        table.put("Ante", 3);
+        Iterator<SimpleHashtable.TableEntry<String, Integer>> iterator = table.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        var first = iterator.next();
+        iterator.remove();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        var second = iterator.next();
+        second.setValue(10);
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertFalse(table.containsKey(first.getKey()));
+        assertEquals(10, table.get(second.getKey()));
+    }
+
+    @Test
+    public void testIterationDoesNotThrowWhenModified() {
+        ConcurrentSimpleHashtable<Integer, Integer> table = new ConcurrentSimpleHashtable<>();
+        for (int i = 0; i < 100; i++) {
+            table.put(i, i);
+        }
+        int count = 0;
+        for (var entry : table) {
+            if (entry.getKey() < 1000) {
+                table.put(1000 + entry.getKey(), entry.getValue());
+                table.remove(entry.getKey());
+            }
+            count++;
+        }
+        assertEquals(100, table.size());
+        assertTrue(count >= 100);
+    }
+
+    @Test
+    public void testConcurrentCompute() throws InterruptedException {
+        ConcurrentSimpleHashtable<Integer, Integer> table = new ConcurrentSimpleHashtable<>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    table.compute(i % 100, (k, v) -> v == null ? 1 : v + 1);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100, table.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(800, table.get(i));
+        }
+    }
+
+    @Test
+    public void testConcurrentPutIfAbsent() throws InterruptedException {
+        ConcurrentSimpleHashtable<Integer, Integer> table = new ConcurrentSimpleHashtable<>(2);
+        AtomicInteger winners = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    if (table.putIfAbsent(i, id) == null) {
+                        winners.incrementAndGet();
+                    }
+                    assertNotNull(table.get(i));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(5000, winners.get());
+        assertEquals(5000, table.size());
+    }
+}
@@ -1,5 +1,8 @@
 package hr.fer.oprpp1.custom.collections;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -81,4 +84,119 @@ public class DictionaryTest {
         assertNull(dict.get("foo"));
     }
 
+    @Test
+    public void testPutExistingKeyReturnsOldValue() {
+        Dictionary<String, Integer> dict = new Dictionary<>();
+        dict.put("a", 1);
+        assertEquals(1, dict.put("a", 2));
+        assertEquals(2, dict.get("a"));
+        assertEquals(1, dict.size());
+        assertNull(dict.get(null));
+        assertNull(dict.remove(null));
+    }
+
+    @Test
+    public void testManyKeys() {
+        Dictionary<Integer, Integer> dict = new Dictionary<>();
+        for (int i = 0; i < 100000; i++) {
+            dict.put(i, i * 2);
+        }
+        assertEquals(100000, dict.size());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i * 2, dict.get(i));
+        }
+        for (int i = 0; i < 100000; i += 2) {
+            assertEquals(i * 2, dict.remove(i));
+        }
+        assertEquals(50000, dict.size());
+        assertNull(dict.get(0));
+        assertEquals(2, dict.get(1));
+    }
+
+    @Test
+    public void testInsertionOrderedIteration() {
+        Dictionary<String, Integer> dict = new Dictionary<>(true);
+        dict.put("c", 1);
+        dict.put("a", 2);
+        dict.put("b", 3);
+        dict.put("a", 4);
+        dict.remove("c");
+        dict.put("c", 5);
+        StringBuilder sb = new StringBuilder();
+        for (Dictionary.Entry<String, Integer> entry : dict) {
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append(' ');
+        }
+        assertEquals("a=4 b=3 c=5 ", sb.toString());
+    }
+
+    @Test
+    public void testOrderedIteratorRemoveAndSetValue() {
+        Dictionary<String, Integer> dict = new Dictionary<>(true);
+        dict.put("a", 1);
+        dict.put("b", 2);
+        dict.put("c", 3);
+        Iterator<Dictionary.Entry<String, Integer>> iterator = dict.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        iterator.next().setValue(10);
+        iterator.next();
+        iterator.remove();
+        assertEquals("c", iterator.next().getKey());
+        assertFalse(iterator.hasNext());
+        assertEquals(2, dict.size());
+        assertEquals(10, dict.get("a"));
+        assertNull(dict.get("b"));
+    }
+
+    @Test
+    public void testIteratorConcurrentModification() {
+        for (boolean ordered : new boolean[] { true, false }) {
+            Dictionary<String, Integer> dict = new Dictionary<>(ordered);
+            dict.put("a", 1);
+            dict.put("b", 2);
+            Iterator<Dictionary.Entry<String, Integer>> iterator = dict.iterator();
+            iterator.next();
+            dict.put("c", 3);
+            assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        }
+    }
+
+    @Test
+    public void testUnorderedIterationVisitsAllEntries() {
+        Dictionary<Integer, Integer> dict = new Dictionary<>();
+        for (int i = 0; i < 100; i++) {
+            dict.put(i, i);
+        }
+        int sum = 0;
+        for (var entry : dict) {
+            sum += entry.getValue();
+        }
+        assertEquals(4950, sum);
+    }
+
+    @Test
+    public void testUnorderedIteratorRemove() {
+        assertUnorderedRemove(31, 3);
+        assertUnorderedRemove(1000, 2);
+    }
+
+    private static void assertUnorderedRemove(int keys, int divisor) {
+        Dictionary<String, Integer> dict = new Dictionary<>();
+        for (int i = 0; i < keys; i++) {
+            dict.put("k" + i, i);
+        }
+        int visited = 0;
+        Iterator<Dictionary.Entry<String, Integer>> iterator = dict.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() % divisor == 0) {
+                iterator.remove();
+                assertThrows(IllegalStateException.class, iterator::remove);
+            }
+            visited++;
+        }
+        assertEquals(keys, visited);
+        assertEquals(keys - (keys + divisor - 1) / divisor, dict.size());
+        for (int i = 0; i < keys; i++) {
+            assertEquals(i % divisor == 0 ? null : Integer.valueOf(i), dict.get("k" + i));
+        }
+    }
 }
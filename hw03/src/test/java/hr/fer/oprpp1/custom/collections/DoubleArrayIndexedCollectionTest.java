@@ -0,0 +1,57 @@
+package hr.fer.oprpp1.custom.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+
+import org.junit.jupiter.api.Test;
+
+public class DoubleArrayIndexedCollectionTest {
+    @Test
+    public void testAddGetAndGrow() {
+        DoubleArrayIndexedCollection col = new DoubleArrayIndexedCollection(1);
+        for (int i = 0; i < 100; i++) {
+            col.add(i / 2.0);
+        }
+        assertEquals(100, col.size());
+        assertEquals(49.5, col.get(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.get(100));
+    }
+
+    @Test
+    public void testInsertAndRemove() {
+        DoubleArrayIndexedCollection col = new DoubleArrayIndexedCollection(2);
+        col.add(1.5);
+        col.add(3.5);
+        col.insert(2.5, 1);
+        assertArrayEquals(new double[] { 1.5, 2.5, 3.5 }, col.toArray());
+        col.remove(0);
+        assertTrue(col.removeValue(3.5));
+        assertArrayEquals(new double[] { 2.5 }, col.toArray());
+    }
+
+    @Test
+    public void testIndexOfComparesLikeDoubleEquals() {
+        DoubleArrayIndexedCollection col = new DoubleArrayIndexedCollection();
+        col.add(Double.NaN);
+        col.add(0.0);
+        assertEquals(0, col.indexOf(Double.NaN));
+        assertEquals(1, col.indexOf(0.0));
+        assertEquals(-1, col.indexOf(-0.0));
+    }
+
+    @Test
+    public void testForEachAndElementsGetter() {
+        DoubleArrayIndexedCollection col = new DoubleArrayIndexedCollection();
+        col.add(0.5);
+        col.add(1.5);
+        double[] sum = new double[1];
+        col.forEach(value -> sum[0] += value);
+        assertEquals(2.0, sum[0]);
+
+        DoubleElementsGetter getter = col.createElementsGetter();
+        assertEquals(0.5, getter.getNextElement());
+        col.clear();
+        assertThrows(ConcurrentModificationException.class, getter::getNextElement);
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
 
 public class ElementsGetterTest {
@@ -44,4 +45,58 @@ public class ElementsGetterTest {
         assertThrows(NoSuchElementException.class, getter::getNextElement);
     }
 
+    @Test
+    public void testArrayIndexedCollectionElementsGetterSplit() {
+        ArrayIndexedCollection<Integer> col = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 5; i++) {
+            col.add(i);
+        }
+
+        ElementsGetter<Integer> getter = col.createElementsGetter();
+        assertEquals(5, getter.estimateSize());
+        ElementsGetter<Integer> prefix = getter.trySplit();
+        assertEquals(2, prefix.estimateSize());
+        assertEquals(3, getter.estimateSize());
+
+        assertEquals(0, prefix.getNextElement());
+        assertEquals(1, prefix.getNextElement());
+        assertFalse(prefix.hasNextElement());
+        assertNull(prefix.trySplit());
+        assertEquals(2, getter.getNextElement());
+        assertEquals(3, getter.getNextElement());
+        assertEquals(4, getter.getNextElement());
+        assertFalse(getter.hasNextElement());
+    }
+
+    @Test
+    public void testLinkedListIndexedCollectionElementsGetterSplit() {
+        LinkedListIndexedCollection<Integer> col = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 5; i++) {
+            col.add(i);
+        }
+
+        ElementsGetter<Integer> getter = col.createElementsGetter();
+        assertEquals(0, getter.getNextElement());
+        ElementsGetter<Integer> prefix = getter.trySplit();
+        assertEquals(2, prefix.estimateSize());
+        assertEquals(2, getter.estimateSize());
+
+        assertEquals(1, prefix.getNextElement());
+        assertEquals(2, prefix.getNextElement());
+        assertFalse(prefix.hasNextElement());
+        assertEquals(3, getter.getNextElement());
+        assertEquals(4, getter.getNextElement());
+        assertFalse(getter.hasNextElement());
+        assertThrows(NoSuchElementException.class, getter::getNextElement);
+    }
+
+    @Test
+    public void testSplitGetterDetectsModification() {
+        ArrayIndexedCollection<Integer> col = new ArrayIndexedCollection<>();
+        col.add(1);
+        col.add(2);
+        ElementsGetter<Integer> prefix = col.createElementsGetter().trySplit();
+        col.add(3);
+        assertThrows(ConcurrentModificationException.class, prefix::getNextElement);
+    }
 }
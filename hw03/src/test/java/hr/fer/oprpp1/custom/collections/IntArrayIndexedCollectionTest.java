@@ -0,0 +1,123 @@
+package hr.fer.oprpp1.custom.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+public class IntArrayIndexedCollectionTest {
+    @Test
+    public void testConstructors() {
+        assertEquals(0, new IntArrayIndexedCollection().size());
+        assertThrows(IllegalArgumentException.class, () -> new IntArrayIndexedCollection(0));
+        assertThrows(NullPointerException.class, () -> new IntArrayIndexedCollection(null));
+
+        IntArrayIndexedCollection other = new IntArrayIndexedCollection(1);
+        other.add(1);
+        other.add(2);
+        other.add(3);
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection(other, 1);
+        assertArrayEquals(new int[] { 1, 2, 3 }, col.toArray());
+    }
+
+    @Test
+    public void testAddGrowsCapacity() {
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection(1);
+        for (int i = 0; i < 1000; i++) {
+            col.add(i);
+        }
+        assertEquals(1000, col.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, col.get(i));
+        }
+    }
+
+    @Test
+    public void testGetOutOfBounds() {
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+        col.add(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> col.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.get(1));
+    }
+
+    @Test
+    public void testInsert() {
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection(2);
+        col.add(1);
+        col.add(3);
+        col.insert(2, 1);
+        col.insert(0, 0);
+        col.insert(4, 4);
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, col.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> col.insert(5, 6));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.insert(5, -1));
+    }
+
+    @Test
+    public void testRemoveByIndexAndByValue() {
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+        col.add(5);
+        col.add(6);
+        col.add(7);
+        col.add(6);
+        col.remove(0);
+        assertArrayEquals(new int[] { 6, 7, 6 }, col.toArray());
+        assertTrue(col.removeValue(6));
+        assertArrayEquals(new int[] { 7, 6 }, col.toArray());
+        assertFalse(col.removeValue(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.remove(2));
+    }
+
+    @Test
+    public void testContainsAndIndexOf() {
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+        col.add(5);
+        col.add(6);
+        assertTrue(col.contains(6));
+        assertFalse(col.contains(7));
+        assertEquals(1, col.indexOf(6));
+        assertEquals(-1, col.indexOf(7));
+    }
+
+    @Test
+    public void testClear() {
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+        col.add(5);
+        col.clear();
+        assertTrue(col.isEmpty());
+        assertFalse(col.contains(5));
+    }
+
+    @Test
+    public void testForEachAndAddAllSatisfying() {
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+        for (int i = 1; i <= 5; i++) {
+            col.add(i);
+        }
+        int[] sum = new int[1];
+        col.forEach(value -> sum[0] += value);
+        assertEquals(15, sum[0]);
+
+        IntArrayIndexedCollection even = new IntArrayIndexedCollection();
+        even.addAllSatisfying(col, value -> value % 2 == 0);
+        assertArrayEquals(new int[] { 2, 4 }, even.toArray());
+    }
+
+    @Test
+    public void testElementsGetter() {
+        IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+        col.add(1);
+        col.add(2);
+        IntElementsGetter getter = col.createElementsGetter();
+        assertEquals(1, getter.getNextElement());
+        assertEquals(2, getter.getNextElement());
+        assertFalse(getter.hasNextElement());
+        assertThrows(NoSuchElementException.class, getter::getNextElement);
+
+        IntElementsGetter getter2 = col.createElementsGetter();
+        col.add(3);
+        assertThrows(ConcurrentModificationException.class, getter2::hasNextElement);
+    }
+}
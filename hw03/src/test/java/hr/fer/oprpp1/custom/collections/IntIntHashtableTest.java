@@ -0,0 +1,78 @@
+package hr.fer.oprpp1.custom.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class IntIntHashtableTest {
+    @Test
+    public void testIllegalCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new IntIntHashtable(0));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        IntIntHashtable table = new IntIntHashtable(2);
+        for (int i = -5000; i < 5000; i++) {
+            assertEquals(0, table.put(i, i * 2));
+        }
+        assertEquals(10000, table.size());
+        for (int i = -5000; i < 5000; i++) {
+            assertEquals(i * 2, table.get(i));
+        }
+        assertEquals(6, table.put(3, 7));
+        assertEquals(7, table.get(3));
+        assertEquals(10000, table.size());
+    }
+
+    @Test
+    public void testZeroKey() {
+        IntIntHashtable table = new IntIntHashtable();
+        assertFalse(table.containsKey(0));
+        assertEquals(-1, table.getOrDefault(0, -1));
+        table.put(0, 0);
+        assertTrue(table.containsKey(0));
+        assertEquals(1, table.size());
+        assertEquals(0, table.getOrDefault(0, -1));
+        assertTrue(table.containsValue(0));
+        assertEquals(0, table.remove(0));
+        assertFalse(table.containsKey(0));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        IntIntHashtable table = new IntIntHashtable();
+        for (int i = 1; i <= 1000; i++) {
+            table.put(i, i);
+        }
+        for (int i = 1; i <= 1000; i += 2) {
+            assertEquals(i, table.remove(i));
+        }
+        assertEquals(0, table.remove(1));
+        assertEquals(500, table.size());
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i % 2 == 0, table.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testForEachAndClear() {
+        IntIntHashtable table = new IntIntHashtable();
+        table.put(0, 1);
+        table.put(1, 2);
+        table.put(2, 3);
+        int[] sums = new int[2];
+        table.forEach((key, value) -> {
+            sums[0] += key;
+            sums[1] += value;
+        });
+        assertEquals(3, sums[0]);
+        assertEquals(6, sums[1]);
+        assertEquals("[0=1", table.toString().substring(0, 4));
+        table.clear();
+        assertEquals(0, table.size());
+        assertFalse(table.containsKey(1));
+        assertEquals("[]", table.toString());
+    }
+}
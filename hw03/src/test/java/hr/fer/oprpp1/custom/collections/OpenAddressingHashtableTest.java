@@ -0,0 +1,222 @@
+package hr.fer.oprpp1.custom.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class OpenAddressingHashtableTest {
+    @Test
+    public void testExample() {
+        Hashtable<String, Integer> examMarks = Hashtables.create(Hashtables.Strategy.OPEN_ADDRESSING, 2);
+        examMarks.put("Ivana", 2);
+        examMarks.put("Ante", 2);
+        examMarks.put("Jasna", 2);
+        examMarks.put("Kristina", 5);
+        examMarks.put("Ivana", 5); // overwrites old grade for Ivana
+        assertEquals(5, examMarks.get("Kristina"));
+        assertEquals(5, examMarks.get("Ivana"));
+        assertEquals(4, examMarks.size());
+    }
+
+    @Test
+    public void testFactory() {
+        assertTrue(Hashtables.create(Hashtables.Strategy.CHAINING) instanceof SimpleHashtable);
+        assertTrue(Hashtables.create(Hashtables.Strategy.OPEN_ADDRESSING) instanceof OpenAddressingHashtable);
+        assertThrows(NullPointerException.class, () -> Hashtables.create(null));
+    }
+
+    @Test
+    public void testIllegalCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new OpenAddressingHashtable<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new OpenAddressingHashtable<>(-1));
+    }
+
+    @Test
+    public void testNullKey() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        assertThrows(NullPointerException.class, () -> table.put(null, 1));
+        assertThrows(NullPointerException.class, () -> table.get(null));
+        assertThrows(NullPointerException.class, () -> table.containsKey(null));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+    }
+
+    @Test
+    public void testPutReturnsOldValue() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        assertNull(table.put("Ivana", 2));
+        assertEquals(2, table.put("Ivana", 5));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testNullValue() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("Ivana", null);
+        assertEquals(1, table.size());
+        assertTrue(table.containsKey("Ivana"));
+        assertTrue(table.containsValue(null));
+        assertNull(table.get("Ivana"));
+    }
+
+    @Test
+    public void testManyEntries() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>(2);
+        for (int i = 0; i < 100000; i++) {
+            table.put("Ivana" + i, i);
+        }
+        assertEquals(100000, table.size());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i, table.get("Ivana" + i));
+        }
+        assertNull(table.get("Ivana100000"));
+    }
+
+    @Test
+    public void testRemoveKeepsCollidingKeysReachable() {
+        // keys with equal hash codes all land in the same cluster
+        OpenAddressingHashtable<CollidingKey, Integer> table = new OpenAddressingHashtable<>();
+        for (int i = 0; i < 10; i++) {
+            table.put(new CollidingKey(i), i);
+        }
+        assertEquals(3, table.remove(new CollidingKey(3)));
+        assertEquals(0, table.remove(new CollidingKey(0)));
+        assertNull(table.remove(new CollidingKey(0)));
+        assertEquals(8, table.size());
+        for (int i = 1; i < 10; i++) {
+            if (i != 3) {
+                assertEquals(i, table.get(new CollidingKey(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testSizeAfterRemovals() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>(2);
+        for (int i = 0; i < 1000; i++) {
+            table.put("Ivana" + i, i + 1);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 1, table.remove("Ivana" + i));
+            assertEquals(1000 - i - 1, table.size());
+        }
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testContainsValueAndClear() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("Ivana", 2);
+        table.put("Ante", 3);
+        assertTrue(table.containsValue(3));
+        assertFalse(table.containsValue(5));
+        assertFalse(table.containsValue(null));
+        table.clear();
+        assertEquals(0, table.size());
+        assertFalse(table.containsKey("Ivana"));
+        assertEquals("[]", table.toString());
+    }
+
+    @Test
+    public void testToArray() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("Ivana", 2);
+        table.put("Ante", 3);
+        table.put("Jasna", 4);
+        var array = table.toArray();
+        assertEquals(3, array.length);
+        int sum = 0;
+        for (var entry : array) {
+            assertEquals(entry.getValue(), table.get(entry.getKey()));
+            sum += entry.getValue();
+        }
+        assertEquals(9, sum);
+    }
+
+    @Test
+    public void testIteratorVisitsEveryEntryOnce() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>(2);
+        for (int i = 0; i < 10000; i++) {
+            table.put("Ivana" + i, i + 1);
+        }
+        Set<String> seen = new HashSet<>();
+        int sum = 0;
+        for (var entry : table) {
+            assertTrue(seen.add(entry.getKey()));
+            sum += entry.getValue();
+        }
+        assertEquals(10000, seen.size());
+        assertEquals(50005000, sum);
+    }
+
+    @Test
+    public void testIteratorSetValueWritesThrough() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("Ivana", 2);
+        table.iterator().next().setValue(5);
+        assertEquals(5, table.get("Ivana"));
+    }
+
+    @Test
+    public void testIteratorRemoveEverySecond() {
+        OpenAddressingHashtable<CollidingKey, Integer> table = new OpenAddressingHashtable<>();
+        for (int i = 0; i < 11; i++) {
+            table.put(new CollidingKey(i), i);
+        }
+        Set<Integer> seen = new HashSet<>();
+        Iterator<SimpleHashtable.TableEntry<CollidingKey, Integer>> iterator = table.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            assertTrue(seen.add(entry.getValue()));
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+                assertThrows(IllegalStateException.class, iterator::remove);
+            }
+        }
+        assertEquals(11, seen.size());
+        assertEquals(5, table.size());
+        for (int i = 1; i < 11; i += 2) {
+            assertEquals(i, table.get(new CollidingKey(i)));
+        }
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    public void testConcurrentModificationException() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("Ivana", 2);
+        table.put("Ante", 3);
+        Iterator<SimpleHashtable.TableEntry<String, Integer>> iterator = table.iterator();
+        iterator.next();
+        table.put("Kristina", 5);
+        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    /**
+     * Key whose hash code is the same for every instance.
+     */
+    private static class CollidingKey {
+        private final int id;
+
+        private CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey other && other.id == id;
+        }
+    }
+}
@@ -2,9 +2,11 @@ package hr.fer.oprpp1.custom.collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 
 import org.junit.jupiter.api.Test;
 
@@ -396,4 +398,211 @@ public class SimpleHashtableTest {
         examMarks.clear();
         assertThrows(ConcurrentModificationException.class, () -> iterator.next());
     }
+
+    @Test
+    public void testPutExistingKeyAtEndOfSlot() {
+        SimpleHashtable<Integer, String> table = new SimpleHashtable<>(4);
+        // all three keys land in slot 0
+        table.put(0, "a");
+        table.put(4, "b");
+        table.put(8, "c");
+        assertEquals("c", table.put(8, "d"));
+        assertEquals(3, table.size());
+        assertEquals("d", table.get(8));
+    }
+
+    @Test
+    public void testIncrementalResize() {
+        SimpleHashtable<String, Integer> examMarks = new SimpleHashtable<>(2, true);
+        for (int i = 0; i < 10000; i++) {
+            examMarks.put("Ivana" + i, i + 1);
+            assertEquals(i + 1, examMarks.size());
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i + 1, examMarks.get("Ivana" + i));
+        }
+        examMarks.put("Ivana0", 0);
+        assertEquals(10000, examMarks.size());
+        assertEquals(0, examMarks.get("Ivana0"));
+    }
+
+    @Test
+    public void testIncrementalResizeDuringMigration() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(64, true);
+        for (int i = 0; i < 48; i++) {
+            table.put(i, i);
+        }
+        // the table is three quarters full, so this put starts the migration and
+        // most of the old slots are still unmigrated
+        table.put(48, 48);
+        assertEquals(47, table.remove(47));
+        assertNull(table.remove(47));
+        assertEquals(46, table.put(46, -46));
+        assertTrue(table.containsKey(1));
+        assertFalse(table.containsKey(47));
+        assertEquals(48, table.size());
+        int sum = 0;
+        for (var entry : table) {
+            sum += entry.getValue();
+        }
+        assertEquals(48 * 49 / 2 - 47 - 2 * 46, sum);
+    }
+
+    @Test
+    public void testIncrementalResizeKeepsOrderWithinSlots() {
+        SimpleHashtable<String, Integer> examMarks = new SimpleHashtable<>(2, true);
+        examMarks.put("Ivana", 2);
+        examMarks.put("Ante", 2);
+        examMarks.put("Jasna", 2);
+        examMarks.put("Kristina", 5);
+        examMarks.put("Ivana", 5);
+        assertEquals("[Ante=2, Ivana=5, Jasna=2, Kristina=5]", examMarks.toString());
+    }
+
+    @Test
+    public void testIncrementalResizeClear() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(4, true);
+        for (int i = 0; i < 5; i++) {
+            table.put(i, i);
+        }
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertNull(table.get(1));
+        table.put(1, 1);
+        assertEquals(1, table.get(1));
+    }
+
+    @Test
+    public void testForEachFollowsIteratorOrder() {
+        SimpleHashtable<String, Integer> table = new SimpleHashtable<>(2);
+        table.put("Ivana", 2);
+        table.put("Ante", 2);
+        table.put("Jasna", 2);
+        table.put("Kristina", 5);
+        StringBuilder expected = new StringBuilder();
+        for (var entry : table) {
+            expected.append(entry.getKey()).append('=').append(entry.getValue()).append(' ');
+        }
+        StringBuilder actual = new StringBuilder();
+        table.forEach((key, value) -> actual.append(key).append('=').append(value).append(' '));
+        assertEquals(expected.toString(), actual.toString());
+
+        StringBuilder expectedKeys = new StringBuilder();
+        for (var entry : table.toArray()) {
+            expectedKeys.append(entry.getKey());
+        }
+        StringBuilder keys = new StringBuilder();
+        table.forEachKey(key -> keys.append(key));
+        assertEquals(expectedKeys.toString(), keys.toString());
+        int[] sum = new int[1];
+        table.forEachValue(value -> sum[0] += value);
+        assertEquals(11, sum[0]);
+    }
+
+    @Test
+    public void testForEachConcurrentModification() {
+        SimpleHashtable<String, Integer> table = new SimpleHashtable<>();
+        table.put("Ivana", 2);
+        table.put("Ante", 3);
+        assertThrows(ConcurrentModificationException.class, () -> table.forEach((key, value) -> table.remove(key)));
+        assertThrows(NullPointerException.class, () -> table.forEach((BiConsumer<String, Integer>) null));
+        assertThrows(NullPointerException.class, () -> table.forEachKey(null));
+        assertThrows(NullPointerException.class, () -> table.forEachValue(null));
+    }
+
+    @Test
+    public void testKeysAndValuesReuseBuffer() {
+        SimpleHashtable<String, Integer> table = new SimpleHashtable<>(2);
+        table.put("Ivana", 2);
+        table.put("Ante", 3);
+        table.put("Jasna", 4);
+
+        var entries = table.toArray();
+
+        String[] keyBuffer = new String[] { "x", "x", "x", "x", "x" };
+        assertSame(keyBuffer, table.keys(keyBuffer));
+        for (int i = 0; i < entries.length; i++) {
+            assertEquals(entries[i].getKey(), keyBuffer[i]);
+        }
+        assertNull(keyBuffer[3]);
+        assertEquals("x", keyBuffer[4]);
+
+        Integer[] valueBuffer = new Integer[3];
+        assertSame(valueBuffer, table.values(valueBuffer));
+        for (int i = 0; i < entries.length; i++) {
+            assertEquals(entries[i].getValue(), valueBuffer[i]);
+        }
+
+        String[] grown = table.keys(new String[1]);
+        assertEquals(3, grown.length);
+        assertEquals(entries[0].getKey(), grown[0]);
+        assertThrows(NullPointerException.class, () -> table.keys(null));
+        assertThrows(NullPointerException.class, () -> table.values(null));
+    }
+
+    @Test
+    public void testContainsKeyDuringIncrementalResize() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(2, true);
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, i);
+            assertTrue(table.containsKey(i));
+            assertTrue(table.containsKey(i / 2));
+            assertFalse(table.containsKey(-i - 1));
+        }
+    }
+
+    @Test
+    public void testIteratorRemoveManyEntries() {
+        SimpleHashtable<String, Integer> table = new SimpleHashtable<>(2);
+        for (int i = 0; i < 500; i++) {
+            table.put("k" + i, i);
+        }
+        int visited = 0;
+        Iterator<SimpleHashtable.TableEntry<String, Integer>> iterator = table.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() % 2 == 0) {
+                iterator.remove();
+            }
+            visited++;
+        }
+        assertEquals(500, visited);
+        assertEquals(250, table.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i % 2 != 0, table.containsKey("k" + i));
+        }
+    }
+
+    @Test
+    public void testWalksDuringMigration() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(64, true);
+        for (int i = 0; i <= 48; i++) {
+            table.put(i, i);
+        }
+        // putting the 49th entry started the migration, most of the old slots are
+        // still unmigrated and lookups by the action mustn't relink the walked chains
+        int[] sum = new int[1];
+        int[] visited = new int[1];
+        table.forEach((key, value) -> {
+            assertEquals(value, table.get(key));
+            assertTrue(table.containsKey(key));
+            sum[0] += value;
+            visited[0]++;
+        });
+        assertEquals(49, visited[0]);
+        assertEquals(48 * 49 / 2, sum[0]);
+
+        Integer[] keys = table.keys(new Integer[0]);
+        Integer[] values = table.values(new Integer[49]);
+        assertEquals(49, keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[i], values[i]);
+        }
+        assertEquals(48 * 49 / 2, Arrays.stream(keys).mapToInt(Integer::intValue).sum());
+
+        // the walks left the migration to the following operations
+        for (int i = 0; i <= 48; i++) {
+            assertEquals(i, table.get(i));
+        }
+        assertThrows(ConcurrentModificationException.class, () -> table.forEach((key, value) -> table.put(100, 100)));
+    }
 }
@@ -0,0 +1,158 @@
+package hr.fer.oprpp1.custom.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class UnrolledLinkedListIndexedCollectionTest {
+    @Test
+    public void testConstructor() {
+        var col = new UnrolledLinkedListIndexedCollection<Integer>();
+        assertEquals(0, col.size());
+        assertThrows(IllegalArgumentException.class, () -> new UnrolledLinkedListIndexedCollection<>(1));
+        assertThrows(NullPointerException.class,
+                () -> new UnrolledLinkedListIndexedCollection<>((Collection<Integer>) null));
+    }
+
+    @Test
+    public void testConstructorWithCollectionContainingValues() {
+        var col1 = new ArrayIndexedCollection<Integer>();
+        col1.add(2);
+        col1.add(3);
+        var col = new UnrolledLinkedListIndexedCollection<>(col1);
+        assertAll(
+                () -> assertEquals(2, col.size()),
+                () -> assertEquals(2, col.get(0)),
+                () -> assertEquals(3, col.get(1)));
+    }
+
+    @Test
+    public void testAddAndGetAcrossChunks() {
+        var col = new UnrolledLinkedListIndexedCollection<Integer>(4);
+        for (int i = 0; i < 100; i++) {
+            col.add(i);
+        }
+        assertEquals(100, col.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, col.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> col.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.get(100));
+        assertThrows(NullPointerException.class, () -> col.add(null));
+    }
+
+    @Test
+    public void testInsertAtBeginningMiddleAndEnd() {
+        var col = new UnrolledLinkedListIndexedCollection<Integer>(2);
+        col.insert(2, 0);
+        col.insert(0, 0);
+        col.insert(4, 2);
+        col.insert(1, 1);
+        col.insert(3, 3);
+        col.insert(-1, 0);
+        assertArrayEquals(new Object[] { -1, 0, 1, 2, 3, 4 }, col.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> col.insert(5, 7));
+        assertThrows(NullPointerException.class, () -> col.insert(null, 0));
+    }
+
+    @Test
+    public void testRemoveMergesChunks() {
+        var col = new UnrolledLinkedListIndexedCollection<Integer>(4);
+        for (int i = 0; i < 20; i++) {
+            col.add(i);
+        }
+        for (int i = 19; i >= 0; i -= 2) {
+            col.remove(i);
+        }
+        assertEquals(10, col.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(2 * i, col.get(i));
+        }
+        while (col.size() > 0) {
+            col.remove(0);
+        }
+        col.add(7);
+        assertEquals(7, col.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> col.remove(1));
+    }
+
+    @Test
+    public void testMatchesLinkedListUnderRandomOperations() {
+        Random random = new Random(42);
+        var expected = new LinkedListIndexedCollection<Integer>();
+        var col = new UnrolledLinkedListIndexedCollection<Integer>(8);
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(3);
+            if (op == 0 || expected.size() == 0) {
+                int position = random.nextInt(expected.size() + 1);
+                expected.insert(i, position);
+                col.insert(i, position);
+            } else if (op == 1) {
+                int position = random.nextInt(expected.size());
+                assertEquals(expected.get(position), col.get(position));
+            } else {
+                int position = random.nextInt(expected.size());
+                col.remove(position);
+                expected.remove(position);
+            }
+            assertEquals(expected.size(), col.size());
+        }
+        assertArrayEquals(expected.toArray(), col.toArray());
+    }
+
+    @Test
+    public void testContainsIndexOfAndRemoveValue() {
+        var col = new UnrolledLinkedListIndexedCollection<String>(2);
+        col.add("Ivana");
+        col.add("Ante");
+        col.add("Jasna");
+        assertTrue(col.contains(new String("Jasna")));
+        assertEquals(2, col.indexOf(new String("Jasna")));
+        assertEquals(-1, col.indexOf(null));
+        assertTrue(col.remove(new String("Ante")));
+        assertFalse(col.remove("Ante"));
+        assertArrayEquals(new Object[] { "Ivana", "Jasna" }, col.toArray());
+    }
+
+    @Test
+    public void testClear() {
+        var col = new UnrolledLinkedListIndexedCollection<Integer>(2);
+        col.add(1);
+        col.add(2);
+        col.add(3);
+        col.clear();
+        assertEquals(0, col.size());
+        Object[] array = col.toArray();
+        assertEquals(0, array.length);
+    }
+
+    @Test
+    public void testElementsGetter() {
+        var col = new UnrolledLinkedListIndexedCollection<Integer>(3);
+        for (int i = 0; i < 10; i++) {
+            col.add(i);
+        }
+        ElementsGetter<Integer> getter = col.createElementsGetter();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(10 - i, getter.estimateSize());
+            assertTrue(getter.hasNextElement());
+            assertEquals(i, getter.getNextElement());
+        }
+        assertFalse(getter.hasNextElement());
+        assertThrows(NoSuchElementException.class, getter::getNextElement);
+    }
+
+    @Test
+    public void testElementsGetterConcurrentModification() {
+        var col = new UnrolledLinkedListIndexedCollection<Integer>();
+        col.add(1);
+        ElementsGetter<Integer> getter = col.createElementsGetter();
+        col.add(2);
+        assertThrows(ConcurrentModificationException.class, getter::hasNextElement);
+        assertThrows(ConcurrentModificationException.class, getter::getNextElement);
+    }
+}
@@ -0,0 +1,77 @@
+package hr.fer.oprpp1.hw04.db.jmh;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.oprpp1.hw04.db.StudentDatabase;
+
+/**
+ * Measures loading a whole database, indexes and statistics included, from a
+ * text file read as lines, from the same file memory mapped and from a
+ * snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx8g" })
+public class LoadBenchmark {
+    @Param({ "10000", "1000000", "10000000" })
+    public int size;
+
+    private Path text;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        text = Students.write(size);
+        snapshot = Files.createTempFile("students", ".db");
+        try (StudentDatabase db = StudentDatabase.load(text)) {
+            db.writeSnapshot(snapshot);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(text);
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public StudentDatabase loadLines() throws IOException {
+        return new StudentDatabase(Files.readAllLines(text, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public StudentDatabase loadMapped() throws IOException {
+        return StudentDatabase.load(text);
+    }
+
+    @Benchmark
+    public StudentDatabase loadColumnar() throws IOException {
+        return StudentDatabase.load(text, true);
+    }
+
+    @Benchmark
+    public StudentDatabase readSnapshot() throws IOException {
+        return StudentDatabase.readSnapshot(snapshot);
+    }
+}
@@ -0,0 +1,125 @@
+package hr.fer.oprpp1.hw04.db.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.oprpp1.hw04.db.PreparedQuery;
+import hr.fer.oprpp1.hw04.db.StudentDatabase;
+import hr.fer.oprpp1.hw04.db.StudentRecord;
+
+/**
+ * Measures queries, from parsing to the selected records. The query cache is
+ * disabled, so every invocation executes its query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx8g" })
+public class QueryBenchmark {
+    /**
+     * Number of jmbags looked up by a single lookup invocation.
+     */
+    private static final int LOOKUPS = 1024;
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int size;
+
+    private StudentDatabase db;
+    private String[] jmbags;
+    private String[] directQueries;
+    private PreparedQuery prepared;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path text = Students.write(size);
+        try {
+            db = StudentDatabase.load(text);
+        } finally {
+            Files.delete(text);
+        }
+        db.getQueryCache().setCapacity(0);
+
+        Random random = new Random(42);
+        jmbags = new String[LOOKUPS];
+        directQueries = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            jmbags[i] = Students.jmbag(random.nextInt(size));
+            directQueries[i] = "jmbag = \"" + jmbags[i] + "\"";
+        }
+        prepared = db.prepare("lastName LIKE ? and firstName >= ? and finalGrade = ?");
+    }
+
+    // lookups of random present jmbags
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int forJMBAG() {
+        int sum = 0;
+        for (String jmbag : jmbags) {
+            sum += db.forJMBAG(jmbag).getFinalGrade();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void directSelect() {
+        for (String query : directQueries) {
+            db.select(query);
+        }
+    }
+
+    // LIKE scans: a prefix is answered by the lastName index, a suffix isn't
+
+    @Benchmark
+    public void likePrefix() {
+        db.select("lastName LIKE \"Ko*\"");
+    }
+
+    @Benchmark
+    public void likeSuffix() {
+        db.select("lastName LIKE \"*vić\"");
+    }
+
+    // filters over several fields
+
+    @Benchmark
+    public void multiPredicate() {
+        db.select("lastName LIKE \"B*\" and firstName >= \"M\" and finalGrade = \"5\"");
+    }
+
+    @Benchmark
+    public void disjunction() {
+        db.select("firstName = \"Ivan\" or finalGrade = \"5\" and lastName LIKE \"K*\"");
+    }
+
+    @Benchmark
+    public List<StudentRecord> preparedMultiPredicate() {
+        return prepared.execute("B*", "M", "5");
+    }
+
+    @Benchmark
+    public void count() {
+        db.select("COUNT lastName LIKE \"B*\" and finalGrade = \"5\"");
+    }
+}
@@ -0,0 +1,65 @@
+package hr.fer.oprpp1.hw04.db.jmh;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.oprpp1.hw04.db.ResultRenderers;
+import hr.fer.oprpp1.hw04.db.StudentDatabase;
+
+/**
+ * Measures rendering a selection of the given number of records, built into a
+ * string by getResult or streamed to a writer discarding the output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+    @Param({ "100", "10000", "1000000" })
+    public int size;
+
+    private StudentDatabase db;
+    private final Writer out = Writer.nullWriter();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        db = new StudentDatabase(Students.lines(size));
+        db.select("finalGrade >= \"1\"");
+    }
+
+    @Benchmark
+    public String getResult() {
+        return db.getResult();
+    }
+
+    @Benchmark
+    public void writeTable() throws IOException {
+        db.writeResult(out, ResultRenderers.TABLE);
+    }
+
+    @Benchmark
+    public void writeCsv() throws IOException {
+        db.writeResult(out, ResultRenderers.CSV);
+    }
+
+    @Benchmark
+    public void writeJson() throws IOException {
+        db.writeResult(out, ResultRenderers.JSON);
+    }
+}
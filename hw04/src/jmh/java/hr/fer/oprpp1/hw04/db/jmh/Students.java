@@ -0,0 +1,80 @@
+package hr.fer.oprpp1.hw04.db.jmh;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic student records, the same ones for the same size. Jmbags
+ * are sequential, last names are built from syllables, giving 768 distinct
+ * ones, first names are drawn from a fixed list and grades are uniform.
+ */
+final class Students {
+    private static final String[] PREFIXES = { "Ba", "Bo", "Ko", "Ma", "Pe", "Ho", "Ju", "Ka", "Ne", "Vu", "Ze",
+            "Tu", "Lo", "Gr", "Šu", "Ći" };
+    private static final String[] MIDDLES = { "ra", "ko", "ša", "vi", "li", "ma", "no", "de" };
+    private static final String[] SUFFIXES = { "vić", "ić", "ec", "njak", "ović", "ar" };
+    private static final String[] FIRST_NAMES = { "Ana", "Andrea", "Ante", "Dario", "Dora", "Filip", "Ivan",
+            "Ivana", "Josip", "Jusufadis", "Karlo", "Lana", "Lucija", "Luka", "Marin", "Marko", "Mia", "Nika",
+            "Petra", "Sara", "Stjepan", "Tena", "Tomislav", "Zvonimir" };
+
+    private Students() {
+    }
+
+    /**
+     * Generates the lines of a database of the given size.
+     *
+     * @param size - number of records
+     * @return - tab separated lines, one per record
+     */
+    static List<String> lines(int size) {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lines.add(line(i, random));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes a database of the given size into a temporary file.
+     *
+     * @param size - number of records
+     * @return - path of the file, to be deleted by the caller
+     * @throws IOException if the file can't be written
+     */
+    static Path write(int size) throws IOException {
+        Path path = Files.createTempFile("students", ".txt");
+        Random random = new Random(42);
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < size; i++) {
+                out.write(line(i, random));
+                out.newLine();
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Returns the jmbag of the record at the given position.
+     *
+     * @param i - position of the record
+     * @return - the jmbag
+     */
+    static String jmbag(int i) {
+        String digits = Integer.toString(i + 1);
+        return "0".repeat(10 - digits.length()) + digits;
+    }
+
+    private static String line(int i, Random random) {
+        String lastName = PREFIXES[random.nextInt(PREFIXES.length)] + MIDDLES[random.nextInt(MIDDLES.length)]
+                + SUFFIXES[random.nextInt(SUFFIXES.length)];
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        return jmbag(i) + "\t" + lastName + "\t" + firstName + "\t" + (1 + random.nextInt(5));
+    }
+}
@@ -0,0 +1,61 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.List;
+
+/**
+ * A conjunction of expressions, satisfied if all of its operands are.
+ */
+public class AndExpression implements IQueryExpression {
+    /**
+     * The operands, checked in order.
+     */
+    private final List<IQueryExpression> operands;
+
+    /**
+     * Creates a new conjunction.
+     * 
+     * @param operands - the operands, checked in the given order
+     */
+    public AndExpression(List<IQueryExpression> operands) {
+        this.operands = List.copyOf(operands);
+    }
+
+    /**
+     * Returns the operands.
+     * 
+     * @return - the operands, in the order they are checked
+     */
+    public List<IQueryExpression> getOperands() {
+        return operands;
+    }
+
+    @Override
+    public boolean test(StudentRecord record) {
+        for (IQueryExpression operand : operands) {
+            if (!operand.test(record)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the expression as it would be written in a query, operands that are
+     * disjunctions being parenthesized.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (IQueryExpression operand : operands) {
+            if (sb.length() > 0) {
+                sb.append(" AND ");
+            }
+            if (operand instanceof OrExpression) {
+                sb.append('(').append(operand).append(')');
+            } else {
+                sb.append(operand);
+            }
+        }
+        return sb.toString();
+    }
+}
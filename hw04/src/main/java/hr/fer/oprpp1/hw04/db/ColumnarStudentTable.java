@@ -0,0 +1,223 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Student records stored column by column instead of as objects. Names are
+ * dictionary encoded, every distinct name is stored once in a sorted
+ * dictionary and rows hold its code, the final grade is stored in a byte per
+ * row and the jmbag as a plain column.
+ * Queries are evaluated one expression at a time over a whole column, each
+ * narrowing down a selection bitmap of rows, so a scan reads densely packed
+ * arrays and evaluates an expression on a name once per distinct name.
+ */
+public class ColumnarStudentTable {
+    /**
+     * Number of rows in the table.
+     */
+    private final int rows;
+
+    /**
+     * The jmbag column.
+     */
+    private final PlainColumn jmbags;
+
+    /**
+     * The last name column.
+     */
+    private final DictionaryColumn lastNames;
+
+    /**
+     * The first name column.
+     */
+    private final DictionaryColumn firstNames;
+
+    /**
+     * The final grade column.
+     */
+    private final GradeColumn grades;
+
+    /**
+     * Creates a table holding the given records, in the given order.
+     * 
+     * @param records - the records
+     */
+    public ColumnarStudentTable(List<StudentRecord> records) {
+        rows = records.size();
+        jmbags = new PlainColumn(records, FieldValueGetters.JMBAG);
+        lastNames = new DictionaryColumn(records, FieldValueGetters.LAST_NAME);
+        firstNames = new DictionaryColumn(records, FieldValueGetters.FIRST_NAME);
+        grades = new GradeColumn(records);
+    }
+
+    /**
+     * Returns the number of rows in the table.
+     * 
+     * @return - the number of rows
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Builds the record stored in the given row.
+     * 
+     * @param row - the row id
+     * @return - the record
+     */
+    public StudentRecord record(int row) {
+        return new StudentRecord(jmbags.get(row), lastNames.get(row), firstNames.get(row), grades.grades[row]);
+    }
+
+    /**
+     * Returns the column of the field read by the given getter.
+     * 
+     * @param getter - one of the getters of {@link FieldValueGetters}
+     * @return - the column, null if the getter isn't one of FieldValueGetters
+     */
+    public IColumn column(IFieldValueGetter getter) {
+        if (getter == FieldValueGetters.JMBAG)
+            return jmbags;
+        if (getter == FieldValueGetters.LAST_NAME)
+            return lastNames;
+        if (getter == FieldValueGetters.FIRST_NAME)
+            return firstNames;
+        if (getter == FieldValueGetters.FINAL_GRADE)
+            return grades;
+        return null;
+    }
+
+    /**
+     * Clears from the given selection every row that doesn't satisfy the given
+     * expression.
+     * 
+     * @param expression - the expression
+     * @param selection  - the selected rows, modified in place
+     */
+    public void filter(ConditionalExpression expression, BitSet selection) {
+        IColumn column = column(expression.getFieldGetter());
+        if (column == null) {
+            throw new IllegalArgumentException("No column for expression " + expression);
+        }
+        column.filter(expression, selection);
+    }
+
+    /**
+     * A column holding the values as they are.
+     */
+    private static class PlainColumn implements IColumn {
+        /**
+         * Values of the rows.
+         */
+        private final String[] values;
+
+        private PlainColumn(List<StudentRecord> records, IFieldValueGetter getter) {
+            values = new String[records.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getter.get(records.get(i));
+            }
+        }
+
+        @Override
+        public String get(int row) {
+            return values[row];
+        }
+    }
+
+    /**
+     * A dictionary encoded column. The distinct values are stored sorted, so an
+     * expression is evaluated once per distinct value and rows are then checked by
+     * their code only.
+     */
+    private static class DictionaryColumn implements IColumn {
+        /**
+         * Sorted distinct values.
+         */
+        private final String[] dictionary;
+
+        /**
+         * Code of the value of every row, an index into the dictionary.
+         */
+        private final int[] codes;
+
+        private DictionaryColumn(List<StudentRecord> records, IFieldValueGetter getter) {
+            String[] values = new String[records.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getter.get(records.get(i));
+            }
+            dictionary = Arrays.stream(values).distinct().sorted().toArray(String[]::new);
+            Map<String, Integer> codeOf = new HashMap<>();
+            for (int code = 0; code < dictionary.length; code++) {
+                codeOf.put(dictionary[code], code);
+            }
+            codes = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                codes[i] = codeOf.get(values[i]);
+            }
+        }
+
+        @Override
+        public String get(int row) {
+            return dictionary[codes[row]];
+        }
+
+        @Override
+        public void filter(ConditionalExpression expression, BitSet selection) {
+            IPreparedOperator operator = expression.getPreparedOperator();
+            boolean[] matches = new boolean[dictionary.length];
+            for (int code = 0; code < dictionary.length; code++) {
+                matches[code] = operator.satisfied(dictionary[code]);
+            }
+            for (int row = selection.nextSetBit(0); row >= 0; row = selection.nextSetBit(row + 1)) {
+                if (!matches[codes[row]]) {
+                    selection.clear(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * A column of final grades, a byte per row.
+     */
+    private static class GradeColumn implements IColumn {
+        /**
+         * Textual forms of the grades, so reading a grade allocates nothing.
+         */
+        private static final String[] NAMES = { "0", "1", "2", "3", "4", "5" };
+
+        /**
+         * Grades of the rows.
+         */
+        private final byte[] grades;
+
+        private GradeColumn(List<StudentRecord> records) {
+            grades = new byte[records.size()];
+            for (int i = 0; i < grades.length; i++) {
+                grades[i] = (byte) records.get(i).getFinalGrade();
+            }
+        }
+
+        @Override
+        public String get(int row) {
+            return NAMES[grades[row]];
+        }
+
+        @Override
+        public void filter(ConditionalExpression expression, BitSet selection) {
+            IPreparedOperator operator = expression.getPreparedOperator();
+            boolean[] matches = new boolean[NAMES.length];
+            for (int grade = 0; grade < NAMES.length; grade++) {
+                matches[grade] = operator.satisfied(NAMES[grade]);
+            }
+            for (int row = selection.nextSetBit(0); row >= 0; row = selection.nextSetBit(row + 1)) {
+                if (!matches[grades[row]]) {
+                    selection.clear(row);
+                }
+            }
+        }
+    }
+}
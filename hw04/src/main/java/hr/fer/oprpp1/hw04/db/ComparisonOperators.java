@@ -33,27 +33,139 @@ public class ComparisonOperators {
 
     /**
      * Checks if the first string is like the second string, using classic wildcard
-     * rules.
-     */
-    public static final IComparisonOperator LIKE = (value1, value2) -> {
-        value1 = value1.toLowerCase();
-        value2 = value2.toLowerCase();
-        int wildcardCount = 0;
-        int wildcardIndex = -1;
-        for (char c : value2.toCharArray()) {
-            if (c == '*') {
-                wildcardCount++;
-                wildcardIndex = value2.indexOf(c);
-            }
-        }
-        if (wildcardCount > 1) {
-            throw new IllegalArgumentException("Invalid LIKE expression"); // TODO catch this and write message, !don't!
-                                                                           // terminate program
+     * rules. The comparison is case insensitive. Preparing the operator compiles
+     * the pattern into a {@link LikeMatcher} once, so matching allocates nothing.
+     */
+    public static final IComparisonOperator LIKE = new IComparisonOperator() {
+        @Override
+        public boolean satisfied(String value1, String value2) {
+            return LikeMatcher.compile(value2).satisfied(value1);
         }
-        if (wildcardCount == 0) {
-            return value1.equals(value2);
+
+        @Override
+        public IPreparedOperator prepare(String value2) {
+            return LikeMatcher.compile(value2);
         }
-        return value1.substring(0, wildcardIndex).startsWith(value2.substring(0, wildcardIndex))
-                && value1.substring(wildcardIndex).endsWith(value2.substring(wildcardIndex + 1));
     };
+
+    /**
+     * Binds the given string as the second operand of the given operator, like
+     * {@link IComparisonOperator#prepare(String)}, but comparing both operands as
+     * integers by {@link #compareNumbers(String, String)}. Used for numeric
+     * fields, so e.g. grade 2 is less than 10. LIKE still matches the text.
+     * 
+     * @param operator - one of the operators of this class
+     * @param value2   - second string
+     * @return the operator with the second string bound
+     * @throws IllegalArgumentException if the second string isn't an integer
+     */
+    public static IPreparedOperator prepareNumeric(IComparisonOperator operator, String value2) {
+        if (operator == LIKE) {
+            return operator.prepare(value2);
+        }
+        // a literal that isn't an integer fails here rather than on the first record
+        signum(value2);
+        if (operator == LESS)
+            return value1 -> compareNumbers(value1, value2) < 0;
+        if (operator == LESS_OR_EQUALS)
+            return value1 -> compareNumbers(value1, value2) <= 0;
+        if (operator == GREATER)
+            return value1 -> compareNumbers(value1, value2) > 0;
+        if (operator == GREATER_OR_EQUALS)
+            return value1 -> compareNumbers(value1, value2) >= 0;
+        if (operator == EQUALS)
+            return value1 -> compareNumbers(value1, value2) == 0;
+        if (operator == NOT_EQUALS)
+            return value1 -> compareNumbers(value1, value2) != 0;
+        return operator.prepare(value2);
+    }
+
+    /**
+     * Compares two integers written in decimal by their values. They can have any
+     * number of digits, leading zeros and a minus sign, and are compared without
+     * being parsed or allocating anything.
+     * 
+     * @param value1 - first integer
+     * @param value2 - second integer
+     * @return a negative number, zero or a positive number as the first integer is
+     *         less than, equal to or greater than the second
+     * @throws IllegalArgumentException if either string isn't an integer
+     */
+    public static int compareNumbers(String value1, String value2) {
+        int signum1 = signum(value1);
+        int signum2 = signum(value2);
+        if (signum1 != signum2) {
+            return Integer.compare(signum1, signum2);
+        }
+        int start1 = firstSignificant(value1);
+        int start2 = firstSignificant(value2);
+        int magnitude = Integer.compare(value1.length() - start1, value2.length() - start2);
+        for (int i = 0; magnitude == 0 && start1 + i < value1.length(); i++) {
+            magnitude = Integer.compare(value1.charAt(start1 + i), value2.charAt(start2 + i));
+        }
+        return signum1 < 0 ? -magnitude : magnitude;
+    }
+
+    /**
+     * Returns the sign of the given integer.
+     * 
+     * @param value - the integer
+     * @return -1, 0 or 1 as the integer is negative, zero or positive
+     * @throws IllegalArgumentException if the string isn't an integer
+     */
+    private static int signum(String value) {
+        int start = value.startsWith("-") ? 1 : 0;
+        if (start == value.length()) {
+            throw new IllegalArgumentException("Not an integer: " + value);
+        }
+        boolean zero = true;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Not an integer: " + value);
+            }
+            zero &= c == '0';
+        }
+        return zero ? 0 : start == 1 ? -1 : 1;
+    }
+
+    /**
+     * Returns the index of the first significant digit of the given integer, that
+     * of its last digit if it is zero.
+     * 
+     * @param value - the integer
+     * @return - index of the first significant digit
+     */
+    private static int firstSignificant(String value) {
+        int i = value.startsWith("-") ? 1 : 0;
+        while (i < value.length() - 1 && value.charAt(i) == '0') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the symbol of the given operator, as used in queries.
+     * 
+     * @param operator - one of the operators of this class
+     * @return - the symbol of the operator, null if the operator isn't one of this
+     *         class
+     */
+    public static String symbolOf(IComparisonOperator operator) {
+        if (operator == LESS)
+            return "<";
+        if (operator == LESS_OR_EQUALS)
+            return "<=";
+        if (operator == GREATER)
+            return ">";
+        if (operator == GREATER_OR_EQUALS)
+            return ">=";
+        if (operator == EQUALS)
+            return "=";
+        if (operator == NOT_EQUALS)
+            return "!=";
+        if (operator == LIKE)
+            return "LIKE";
+        return null;
+    }
 }
@@ -6,7 +6,7 @@ package hr.fer.oprpp1.hw04.db;
  * is the value we're comparing to, and a comparison operator which determines
  * how we're comparing the two.
  */
-public class ConditionalExpression {
+public class ConditionalExpression implements IQueryExpression {
     /**
      * Field getter, determines which field we're comparing.
      */
@@ -22,6 +22,12 @@ public class ConditionalExpression {
      */
     public IComparisonOperator comparisonOperator;
 
+    /**
+     * The comparison operator prepared with the literal, together with the literal
+     * and the operator it was prepared from, null until first needed.
+     */
+    private Prepared prepared;
+
     /**
      * Creates a new conditional expression.
      * 
@@ -54,6 +60,26 @@ public class ConditionalExpression {
         return literal;
     }
 
+    /**
+     * Binds the given value as the literal, used to fill in the parameter of a
+     * prepared query.
+     * 
+     * @param literal - the literal, null to leave the parameter unbound
+     */
+    public void setLiteral(String literal) {
+        this.literal = literal;
+    }
+
+    /**
+     * Checks whether the literal is a parameter of a prepared query that isn't
+     * bound yet.
+     * 
+     * @return - true if the literal isn't bound, false otherwise
+     */
+    public boolean isParameter() {
+        return literal == null;
+    }
+
     /**
      * Same as {@link #getLiteral()}, just calls it.
      */
@@ -69,4 +95,51 @@ public class ConditionalExpression {
     public IComparisonOperator getComparisonOperator() {
         return comparisonOperator;
     }
+
+    /**
+     * Returns the comparison operator with the literal bound as its second operand.
+     * It is prepared once and reused while the operator and the literal stay the
+     * same. A numeric field is compared with the literal as an integer.
+     * 
+     * @return prepared comparison operator
+     */
+    public IPreparedOperator getPreparedOperator() {
+        Prepared current = prepared;
+        if (current == null || current.literal != literal || current.operator != comparisonOperator) {
+            IPreparedOperator operator = FieldValueGetters.isNumeric(fieldGetter)
+                    ? ComparisonOperators.prepareNumeric(comparisonOperator, literal)
+                    : comparisonOperator.prepare(literal);
+            current = new Prepared(literal, comparisonOperator, operator);
+            prepared = current;
+        }
+        return current.prepared;
+    }
+
+    /**
+     * Checks whether the given record satisfies this expression.
+     * 
+     * @param record - the record to be checked
+     * @return true if the record satisfies the expression, false otherwise
+     */
+    @Override
+    public boolean test(StudentRecord record) {
+        return getPreparedOperator().satisfied(fieldGetter.get(record));
+    }
+
+    /**
+     * A prepared operator and what it was prepared from, kept in a single object
+     * so they are always read consistently.
+     */
+    private record Prepared(String literal, IComparisonOperator operator, IPreparedOperator prepared) {
+    }
+
+    /**
+     * Returns the expression as it would be written in a query, e.g.
+     * lastName LIKE "B*", an unbound parameter being written as ?.
+     */
+    @Override
+    public String toString() {
+        return FieldValueGetters.nameOf(fieldGetter) + " " + ComparisonOperators.symbolOf(comparisonOperator) + " "
+                + (literal == null ? "?" : "\"" + literal + "\"");
+    }
 }
@@ -0,0 +1,314 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A sorted secondary index over a single field of the student records. Every
+ * distinct value of the field is mapped to the ids of the rows holding it, the
+ * id of a row being its position in the database. Indexes of the fields LIKE
+ * is used on keep a second map, keyed by the values folded by
+ * {@link LikeMatcher#fold(String)}, serving the case insensitive LIKE operator.
+ * Equality, range and, if the index is foldable, LIKE "prefix*" conditions on
+ * the indexed field are answered by scanning only the matching part of the
+ * index.
+ */
+public class FieldIndex {
+    /**
+     * Name of the indexed field, as used in queries.
+     */
+    private final String name;
+
+    /**
+     * Getter of the indexed field.
+     */
+    private final IFieldValueGetter fieldGetter;
+
+    /**
+     * Rows mapped by the exact value of the field, ordered numerically if the
+     * field is numeric.
+     */
+    private final TreeMap<String, Rows> exact;
+
+    /**
+     * Rows mapped by the folded value of the field, null if the index doesn't
+     * serve LIKE.
+     */
+    private final TreeMap<String, Rows> folded;
+
+    /**
+     * Creates a new, empty index serving LIKE as well.
+     *
+     * @param name        - name of the indexed field, as used in queries
+     * @param fieldGetter - getter of the indexed field
+     */
+    public FieldIndex(String name, IFieldValueGetter fieldGetter) {
+        this(name, fieldGetter, true);
+    }
+
+    /**
+     * Creates a new, empty index. An index that isn't foldable doesn't serve LIKE,
+     * which saves a second map over all the values of fields LIKE isn't used on.
+     *
+     * @param name        - name of the indexed field, as used in queries
+     * @param fieldGetter - getter of the indexed field
+     * @param foldable    - whether the index serves LIKE
+     */
+    public FieldIndex(String name, IFieldValueGetter fieldGetter, boolean foldable) {
+        this.name = name;
+        this.fieldGetter = fieldGetter;
+        exact = FieldValueGetters.isNumeric(fieldGetter) ? new TreeMap<>(ComparisonOperators::compareNumbers)
+                : new TreeMap<>();
+        folded = foldable ? new TreeMap<>() : null;
+    }
+
+    /**
+     * Returns the name of the indexed field.
+     *
+     * @return - the name of the indexed field
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the getter of the indexed field.
+     *
+     * @return - the getter of the indexed field
+     */
+    public IFieldValueGetter getFieldGetter() {
+        return fieldGetter;
+    }
+
+    /**
+     * Adds the given record, stored in the given row, to the index.
+     *
+     * @param record - the record to be indexed
+     * @param row    - id of the row holding the record
+     */
+    public void add(StudentRecord record, int row) {
+        String value = fieldGetter.get(record);
+        exact.computeIfAbsent(value, k -> new Rows()).add(row);
+        if (folded != null) {
+            folded.computeIfAbsent(LikeMatcher.fold(value), k -> new Rows()).add(row);
+        }
+    }
+
+    /**
+     * Removes the given record, stored in the given row, from the index.
+     *
+     * @param record - the indexed record
+     * @param row    - id of the row holding the record
+     */
+    public void remove(StudentRecord record, int row) {
+        String value = fieldGetter.get(record);
+        remove(exact, value, row);
+        if (folded != null) {
+            remove(folded, LikeMatcher.fold(value), row);
+        }
+    }
+
+    /**
+     * Removes the given row id from the ids of the given value, removing the
+     * value once it has no rows left.
+     *
+     * @param map   - map of the index
+     * @param value - the value
+     * @param row   - the row id
+     */
+    private static void remove(TreeMap<String, Rows> map, String value, int row) {
+        Rows rows = map.get(value);
+        if (rows != null && rows.remove(row) && rows.size == 0) {
+            map.remove(value);
+        }
+    }
+
+    /**
+     * Returns the ids of all the indexed rows, ordered by their values.
+     *
+     * @return - the row ids
+     */
+    int[] rowsInOrder() {
+        int count = 0;
+        for (Rows rows : exact.values()) {
+            count += rows.size;
+        }
+        int[] order = new int[count];
+        int position = 0;
+        for (Rows rows : exact.values()) {
+            System.arraycopy(rows.ids, 0, order, position, rows.size);
+            position += rows.size;
+        }
+        return order;
+    }
+
+    /**
+     * Checks whether the given expression can be answered by this index. That is
+     * the case for an expression on the indexed field using an equality, a range
+     * or, if the index is foldable, a LIKE operator whose only wildcard, if any,
+     * is at the end of the pattern. A LIKE pattern that is an unbound parameter is assumed to be
+     * answerable, which has to be checked again once it is bound.
+     *
+     * @param expression - the expression to be checked
+     * @return - true if the index can answer the expression, false otherwise
+     */
+    public boolean supports(ConditionalExpression expression) {
+        if (expression.getFieldGetter() != fieldGetter) {
+            return false;
+        }
+        IComparisonOperator operator = expression.getComparisonOperator();
+        if (operator == ComparisonOperators.LIKE) {
+            if (folded == null) {
+                return false;
+            }
+            if (expression.isParameter()) {
+                return true;
+            }
+            int wildcard = expression.getStringLiteral().indexOf('*');
+            return wildcard == -1 || wildcard == expression.getStringLiteral().length() - 1;
+        }
+        return operator == ComparisonOperators.EQUALS
+                || operator == ComparisonOperators.LESS
+                || operator == ComparisonOperators.LESS_OR_EQUALS
+                || operator == ComparisonOperators.GREATER
+                || operator == ComparisonOperators.GREATER_OR_EQUALS;
+    }
+
+    /**
+     * Returns the ids of the rows whose indexed field satisfies the given
+     * expression.
+     *
+     * @param expression - the expression to be answered, must be supported by this
+     *                   index
+     * @return - a set of ids of the rows satisfying the expression
+     * @throws IllegalArgumentException if the expression isn't supported by this
+     *                                  index or its literal isn't bound
+     */
+    public BitSet lookup(ConditionalExpression expression) {
+        if (expression.isParameter()) {
+            throw new IllegalArgumentException("Parameter of the expression is not bound.");
+        }
+        if (!supports(expression)) {
+            throw new IllegalArgumentException("Index on " + name + " can't answer the expression.");
+        }
+        BitSet rows = new BitSet();
+        String literal = expression.getStringLiteral();
+        IComparisonOperator operator = expression.getComparisonOperator();
+
+        if (operator == ComparisonOperators.LIKE) {
+            String pattern = LikeMatcher.fold(literal);
+            if (!pattern.endsWith("*")) {
+                orInto(folded.get(pattern), rows);
+                return rows;
+            }
+            String prefix = pattern.substring(0, pattern.length() - 1);
+            for (Map.Entry<String, Rows> entry : folded.tailMap(prefix, true).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                entry.getValue().orInto(rows);
+            }
+            return rows;
+        }
+        if (operator == ComparisonOperators.EQUALS) {
+            orInto(exact.get(literal), rows);
+            return rows;
+        }
+
+        NavigableMap<String, Rows> range;
+        if (operator == ComparisonOperators.LESS) {
+            range = exact.headMap(literal, false);
+        } else if (operator == ComparisonOperators.LESS_OR_EQUALS) {
+            range = exact.headMap(literal, true);
+        } else if (operator == ComparisonOperators.GREATER) {
+            range = exact.tailMap(literal, false);
+        } else {
+            range = exact.tailMap(literal, true);
+        }
+        for (Rows r : range.values()) {
+            r.orInto(rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Adds the given rows, if any, to the given set.
+     *
+     * @param r    - the rows to be added, can be null
+     * @param rows - the set to add the rows to
+     */
+    private static void orInto(Rows r, BitSet rows) {
+        if (r != null) {
+            r.orInto(rows);
+        }
+    }
+
+    /**
+     * A growable, sorted list of row ids.
+     */
+    private static class Rows {
+        /**
+         * The row ids, only the first size are used.
+         */
+        private int[] ids = new int[2];
+
+        /**
+         * Number of row ids in the list.
+         */
+        private int size;
+
+        /**
+         * Adds the given row id, keeping the ids sorted. Ids added in increasing
+         * order, as they are when the index is built, are simply appended.
+         *
+         * @param row - the row id
+         */
+        private void add(int row) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * size);
+            }
+            if (size == 0 || ids[size - 1] < row) {
+                ids[size++] = row;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, row);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = row;
+            size++;
+        }
+
+        /**
+         * Removes the given row id.
+         *
+         * @param row - the row id
+         * @return - true if the row id was present, false otherwise
+         */
+        private boolean remove(int row) {
+            int position = Arrays.binarySearch(ids, 0, size, row);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Adds every row id of the list to the given set.
+         *
+         * @param rows - the set to add the rows to
+         */
+        private void orInto(BitSet rows) {
+            for (int i = 0; i < size; i++) {
+                rows.set(ids[i]);
+            }
+        }
+    }
+}
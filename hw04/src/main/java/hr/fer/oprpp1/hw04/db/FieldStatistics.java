@@ -0,0 +1,209 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Statistics about the values of a single field of the student records,
+ * collected when the database is loaded and used to estimate how many records
+ * a conditional expression selects. Besides the number of records and of
+ * distinct values, it keeps an equi-depth histogram of the values and one of
+ * the folded values, the latter used for the LIKE operator.
+ */
+public class FieldStatistics {
+    /**
+     * Maximum number of buckets of a histogram.
+     */
+    private static final int BUCKETS = 256;
+
+    /**
+     * Selectivity assumed for a LIKE pattern starting with a wildcard, which the
+     * histograms can't estimate.
+     */
+    private static final double UNKNOWN_LIKE_SELECTIVITY = 0.25;
+
+    /**
+     * Selectivity assumed for a range whose bound is an unbound parameter.
+     */
+    private static final double UNKNOWN_RANGE_SELECTIVITY = 1.0 / 3;
+
+    /**
+     * Getter of the field the statistics are about.
+     */
+    private final IFieldValueGetter fieldGetter;
+
+    /**
+     * Number of records.
+     */
+    private final int rows;
+
+    /**
+     * Number of distinct values of the field.
+     */
+    private final int distinct;
+
+    /**
+     * Number of records each histogram bucket holds.
+     */
+    private final int depth;
+
+    /**
+     * Order of the values, numeric if the field is numeric.
+     */
+    private final Comparator<String> order;
+
+    /**
+     * Lowest value of every bucket of the histogram of values.
+     */
+    private final String[] bounds;
+
+    /**
+     * Lowest value of every bucket of the histogram of folded values.
+     */
+    private final String[] foldedBounds;
+
+    /**
+     * Collects the statistics of the given field over the given records.
+     *
+     * @param fieldGetter - getter of the field
+     * @param records     - the records
+     */
+    public FieldStatistics(IFieldValueGetter fieldGetter, List<StudentRecord> records) {
+        this.fieldGetter = fieldGetter;
+        order = FieldValueGetters.isNumeric(fieldGetter) ? ComparisonOperators::compareNumbers
+                : Comparator.naturalOrder();
+        rows = records.size();
+        depth = Math.max(1, (rows + BUCKETS - 1) / BUCKETS);
+
+        String[] values = new String[rows];
+        String[] folded = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = fieldGetter.get(records.get(i));
+            folded[i] = LikeMatcher.fold(values[i]);
+        }
+        Arrays.sort(values, order);
+        Arrays.sort(folded);
+
+        int count = 0;
+        for (int i = 0; i < rows; i++) {
+            if (i == 0 || !values[i].equals(values[i - 1])) {
+                count++;
+            }
+        }
+        distinct = count;
+        bounds = sample(values);
+        foldedBounds = sample(folded);
+    }
+
+    /**
+     * Returns the getter of the field the statistics are about.
+     *
+     * @return - the getter of the field
+     */
+    public IFieldValueGetter getFieldGetter() {
+        return fieldGetter;
+    }
+
+    /**
+     * Returns the number of distinct values of the field.
+     *
+     * @return - the number of distinct values
+     */
+    public int getDistinct() {
+        return distinct;
+    }
+
+    /**
+     * Estimates the fraction of the records that satisfy the given expression on
+     * this field. If the literal is an unbound parameter, the estimate only
+     * depends on the operator.
+     *
+     * @param expression - the expression, on the field of these statistics
+     * @return - estimated selectivity, between 0 and 1
+     */
+    public double selectivity(ConditionalExpression expression) {
+        if (rows == 0) {
+            return 0;
+        }
+        String literal = expression.getStringLiteral();
+        IComparisonOperator operator = expression.getComparisonOperator();
+        double equality = 1.0 / Math.max(1, distinct);
+
+        double estimate;
+        if (operator == ComparisonOperators.EQUALS) {
+            estimate = equality;
+        } else if (operator == ComparisonOperators.NOT_EQUALS) {
+            estimate = 1 - equality;
+        } else if (literal == null) {
+            estimate = operator == ComparisonOperators.LIKE ? UNKNOWN_LIKE_SELECTIVITY : UNKNOWN_RANGE_SELECTIVITY;
+        } else if (operator == ComparisonOperators.LESS) {
+            estimate = countBelow(bounds, order, literal, false) / (double) rows;
+        } else if (operator == ComparisonOperators.LESS_OR_EQUALS) {
+            estimate = countBelow(bounds, order, literal, true) / (double) rows;
+        } else if (operator == ComparisonOperators.GREATER) {
+            estimate = 1 - countBelow(bounds, order, literal, true) / (double) rows;
+        } else if (operator == ComparisonOperators.GREATER_OR_EQUALS) {
+            estimate = 1 - countBelow(bounds, order, literal, false) / (double) rows;
+        } else if (operator == ComparisonOperators.LIKE) {
+            String pattern = LikeMatcher.fold(literal);
+            int wildcard = pattern.indexOf('*');
+            if (wildcard == -1) {
+                estimate = equality;
+            } else if (wildcard == 0) {
+                estimate = UNKNOWN_LIKE_SELECTIVITY;
+            } else {
+                String prefix = pattern.substring(0, wildcard);
+                Comparator<String> text = Comparator.naturalOrder();
+                estimate = (countBelow(foldedBounds, text, prefix + Character.MAX_VALUE, false)
+                        - countBelow(foldedBounds, text, prefix, false)) / (double) rows;
+                if (wildcard != pattern.length() - 1) {
+                    estimate *= UNKNOWN_LIKE_SELECTIVITY;
+                }
+            }
+        } else {
+            estimate = 1;
+        }
+        // never claim an expression selects nothing, the histogram is approximate
+        return Math.min(1, Math.max(estimate, 1.0 / rows));
+    }
+
+    /**
+     * Estimates the number of records whose value is below the given one.
+     *
+     * @param histogram - the histogram to be used
+     * @param order     - order of the values in the histogram
+     * @param value     - the value
+     * @param inclusive - whether the records with the given value are counted too
+     * @return - estimated number of records
+     */
+    private int countBelow(String[] histogram, Comparator<String> order, String value, boolean inclusive) {
+        int low = 0;
+        int high = histogram.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = order.compare(histogram[mid], value);
+            if (cmp < 0 || inclusive && cmp == 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // a value above the lowest one of the last bucket counted is on average in its middle
+        return Math.min(rows, Math.max(0, low * depth - depth / 2));
+    }
+
+    /**
+     * Takes every depth-th value of the given sorted values.
+     *
+     * @param sorted - sorted values
+     * @return - lowest value of every bucket
+     */
+    private String[] sample(String[] sorted) {
+        String[] sample = new String[(rows + depth - 1) / depth];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = sorted[i * depth];
+        }
+        return sample;
+    }
+}
@@ -18,4 +18,40 @@ public class FieldValueGetters {
      * Getter for the jmbag.
      */
     public static final IFieldValueGetter JMBAG = StudentRecord::getJmbag;
+
+    /**
+     * Getter for the final grade, as a string. Grades are compared by their
+     * numeric values, see {@link #isNumeric(IFieldValueGetter)}.
+     */
+    public static final IFieldValueGetter FINAL_GRADE = record -> Integer.toString(record.getFinalGrade());
+
+    /**
+     * Checks whether the values of the given getter's field are integers, compared
+     * by {@link ComparisonOperators#compareNumbers(String, String)} instead of as
+     * strings.
+     * 
+     * @param getter - the getter
+     * @return - true for the final grade, false otherwise
+     */
+    public static boolean isNumeric(IFieldValueGetter getter) {
+        return getter == FINAL_GRADE;
+    }
+
+    /**
+     * Returns the name of the given getter's field, as used in queries.
+     * 
+     * @param getter - one of the getters of this class
+     * @return - the name of the field, null if the getter isn't one of this class
+     */
+    public static String nameOf(IFieldValueGetter getter) {
+        if (getter == FIRST_NAME)
+            return "firstName";
+        if (getter == LAST_NAME)
+            return "lastName";
+        if (getter == JMBAG)
+            return "jmbag";
+        if (getter == FINAL_GRADE)
+            return "finalGrade";
+        return null;
+    }
 }
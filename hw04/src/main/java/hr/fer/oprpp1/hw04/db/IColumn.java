@@ -0,0 +1,35 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.BitSet;
+
+/**
+ * A column of a {@link ColumnarStudentTable}, holding the values of a single
+ * field for all the rows. It plays the role of an {@link IFieldValueGetter}
+ * for columnar storage, reading a field by row id instead of from a record.
+ */
+public interface IColumn {
+    /**
+     * Returns the value of the field in the given row.
+     * 
+     * @param row - the row id
+     * @return the value of the field in the given row
+     */
+    String get(int row);
+
+    /**
+     * Clears from the given selection every row whose value doesn't satisfy the
+     * given expression. Columns override this to evaluate the expression once per
+     * distinct value instead of once per row.
+     * 
+     * @param expression - expression on the field of this column
+     * @param selection  - the selected rows, modified in place
+     */
+    default void filter(ConditionalExpression expression, BitSet selection) {
+        IPreparedOperator operator = expression.getPreparedOperator();
+        for (int row = selection.nextSetBit(0); row >= 0; row = selection.nextSetBit(row + 1)) {
+            if (!operator.satisfied(get(row))) {
+                selection.clear(row);
+            }
+        }
+    }
+}
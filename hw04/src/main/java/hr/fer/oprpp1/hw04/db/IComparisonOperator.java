@@ -14,4 +14,16 @@ public interface IComparisonOperator {
      * @return true if the two strings satisfy the condition, false otherwise
      */
     boolean satisfied(String value1, String value2);
+
+    /**
+     * Binds the given string as the second operand, returning an operator that
+     * only takes the first one. Operators that can do some of the work up front,
+     * like LIKE compiling its pattern, override this.
+     * 
+     * @param value2 - second string
+     * @return the operator with the second string bound
+     */
+    default IPreparedOperator prepare(String value2) {
+        return value1 -> satisfied(value1, value2);
+    }
 }
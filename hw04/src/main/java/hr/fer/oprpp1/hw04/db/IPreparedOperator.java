@@ -0,0 +1,18 @@
+package hr.fer.oprpp1.hw04.db;
+
+/**
+ * A comparison operator with its second operand already bound, see
+ * {@link IComparisonOperator#prepare(String)}. Any work that depends only on
+ * the literal, like compiling a LIKE pattern, is done once when preparing.
+ */
+@FunctionalInterface
+public interface IPreparedOperator {
+    /**
+     * Returns true if the given string and the bound literal satisfy the
+     * condition, false otherwise.
+     * 
+     * @param value - the string compared to the bound literal
+     * @return true if the condition is satisfied, false otherwise
+     */
+    boolean satisfied(String value);
+}
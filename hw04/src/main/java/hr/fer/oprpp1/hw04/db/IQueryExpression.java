@@ -0,0 +1,17 @@
+package hr.fer.oprpp1.hw04.db;
+
+/**
+ * A node of the expression tree of a query, either a single conditional
+ * expression or a logical combination of other nodes.
+ */
+public interface IQueryExpression {
+    /**
+     * Checks whether the given record satisfies the expression. Logical
+     * combinations stop evaluating their operands as soon as the outcome is
+     * known.
+     * 
+     * @param record - the record to be checked
+     * @return true if the record satisfies the expression, false otherwise
+     */
+    boolean test(StudentRecord record);
+}
@@ -0,0 +1,22 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Renders selected student records, writing them straight to a writer so the
+ * rendered result never has to be held in memory as a whole.
+ */
+public interface IResultRenderer {
+    /**
+     * Renders the records in the given range of the list.
+     * 
+     * @param out     - the writer the records are written to
+     * @param records - the records
+     * @param from    - index of the first record to be rendered
+     * @param to      - index after the last record to be rendered
+     * @throws IOException if the writer fails
+     */
+    void render(Writer out, List<StudentRecord> records, int from, int to) throws IOException;
+}
@@ -0,0 +1,144 @@
+package hr.fer.oprpp1.hw04.db;
+
+/**
+ * A compiled LIKE pattern. The pattern is analysed once and the matcher is
+ * specialised for its shape, an exact value, a prefix, a suffix, a prefix and
+ * a suffix or a contained part, so matching is a case insensitive comparison
+ * of regions that allocates nothing. Case is ignored by the rule of
+ * {@link #fold(String)}.
+ * A pattern can contain a single wildcard '*' anywhere, or two when they are
+ * the first and the last character, e.g. "*ić*".
+ */
+public class LikeMatcher implements IPreparedOperator {
+    /**
+     * Shapes of patterns.
+     */
+    private enum Shape {
+        EXACT, PREFIX, SUFFIX, PREFIX_SUFFIX, CONTAINS, ANY
+    }
+
+    /**
+     * The shape of the pattern.
+     */
+    private final Shape shape;
+
+    /**
+     * Part of the pattern before the wildcard, or the whole pattern if there is
+     * none, or the contained part.
+     */
+    private final String prefix;
+
+    /**
+     * Part of the pattern after the wildcard.
+     */
+    private final String suffix;
+
+    /**
+     * Creates a new matcher.
+     * 
+     * @param shape  - the shape of the pattern
+     * @param prefix - part before the wildcard
+     * @param suffix - part after the wildcard
+     */
+    private LikeMatcher(Shape shape, String prefix, String suffix) {
+        this.shape = shape;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Compiles the given pattern.
+     * 
+     * @param pattern - the pattern
+     * @return - the matcher for the pattern
+     * @throws IllegalArgumentException if the pattern has more wildcards than
+     *                                  supported
+     */
+    public static LikeMatcher compile(String pattern) {
+        int first = pattern.indexOf('*');
+        if (first == -1) {
+            return new LikeMatcher(Shape.EXACT, pattern, "");
+        }
+        int last = pattern.lastIndexOf('*');
+        if (first != last) {
+            if (first != 0 || last != pattern.length() - 1 || pattern.indexOf('*', 1) != last) {
+                throw new IllegalArgumentException("Invalid LIKE expression");
+            }
+            return new LikeMatcher(Shape.CONTAINS, pattern.substring(1, last), "");
+        }
+        String prefix = pattern.substring(0, first);
+        String suffix = pattern.substring(first + 1);
+        Shape shape;
+        if (prefix.isEmpty()) {
+            shape = suffix.isEmpty() ? Shape.ANY : Shape.SUFFIX;
+        } else {
+            shape = suffix.isEmpty() ? Shape.PREFIX : Shape.PREFIX_SUFFIX;
+        }
+        return new LikeMatcher(shape, prefix, suffix);
+    }
+
+    /**
+     * Folds the case of the given value by the rule the matcher compares by,
+     * mapping every character to the lowercase of its uppercase. The rule doesn't
+     * depend on the default locale and keeps the length of the value, so values
+     * folded by it, e.g. the keys of an index, match exactly when the matcher
+     * matches them ignoring case.
+     * 
+     * @param value - the value
+     * @return - the folded value
+     */
+    public static String fold(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns true if the given value matches the pattern, false otherwise.
+     * 
+     * @param value - the value to be matched
+     * @return true if the value matches the pattern, false otherwise
+     */
+    @Override
+    public boolean satisfied(String value) {
+        return switch (shape) {
+            case EXACT -> value.equalsIgnoreCase(prefix);
+            case PREFIX -> value.regionMatches(true, 0, prefix, 0, prefix.length());
+            case SUFFIX -> endsWith(value);
+            case PREFIX_SUFFIX -> value.length() >= prefix.length() + suffix.length()
+                    && value.regionMatches(true, 0, prefix, 0, prefix.length())
+                    && endsWith(value);
+            case CONTAINS -> contains(value);
+            case ANY -> true;
+        };
+    }
+
+    /**
+     * Checks if the value ends with the suffix, ignoring case.
+     * 
+     * @param value - the value
+     * @return true if it does, false otherwise
+     */
+    private boolean endsWith(String value) {
+        int start = value.length() - suffix.length();
+        return start >= 0 && value.regionMatches(true, start, suffix, 0, suffix.length());
+    }
+
+    /**
+     * Checks if the value contains the contained part, ignoring case.
+     * 
+     * @param value - the value
+     * @return true if it does, false otherwise
+     */
+    private boolean contains(String value) {
+        int last = value.length() - prefix.length();
+        for (int i = 0; i <= last; i++) {
+            if (value.regionMatches(true, i, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
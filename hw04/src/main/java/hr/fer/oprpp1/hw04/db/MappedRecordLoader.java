@@ -0,0 +1,280 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Loads student records from a file of tab separated lines by memory mapping
+ * it and decoding the fields directly from the mapped bytes, without building
+ * a string per line. Files bigger than {@link #PARALLEL_THRESHOLD} are split
+ * into chunks on line boundaries, one per processor, which are parsed in
+ * parallel and joined in order.
+ */
+class MappedRecordLoader {
+    /**
+     * Size of a file, in bytes, from which it is parsed in parallel.
+     */
+    static final long PARALLEL_THRESHOLD = 16L << 20;
+
+    /**
+     * Maximum size of a chunk, a single mapping can't be bigger than 2GB.
+     */
+    private static final long MAX_CHUNK = 1L << 30;
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private MappedRecordLoader() {
+    }
+
+    /**
+     * Loads the records from the given file.
+     *
+     * @param path - path of the file
+     * @return - the records, in the order of the lines
+     * @throws IOException              if the file can't be read
+     * @throws IllegalArgumentException if a line is invalid, the message stating
+     *                                  its number
+     */
+    static ArrayList<StudentRecord> load(Path path) throws IOException {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunks = size < PARALLEL_THRESHOLD ? 1 : parallelism;
+            chunks = (int) Math.max(chunks, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+            return load(channel, chunks);
+        }
+    }
+
+    /**
+     * Loads the records from the given channel, split into the given number of
+     * chunks.
+     *
+     * @param channel - the channel of the file
+     * @param chunks  - number of chunks, parsed in parallel if more than one
+     * @return - the records, in the order of the lines
+     * @throws IOException if the file can't be read
+     */
+    static ArrayList<StudentRecord> load(FileChannel channel, int chunks) throws IOException {
+        long[] bounds = splitOnLines(channel, chunks);
+        Chunk[] parsed = new Chunk[bounds.length - 1];
+        try {
+            IntStream range = IntStream.range(0, parsed.length);
+            if (parsed.length > 1) {
+                range = range.parallel();
+            }
+            range.forEach(i -> {
+                try {
+                    parsed[i] = parse(channel, bounds[i], bounds[i + 1]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        int lines = 0;
+        int total = 0;
+        for (Chunk chunk : parsed) {
+            if (chunk.error != null) {
+                throw new IllegalArgumentException("Line " + (lines + chunk.errorLine) + ": " + chunk.error);
+            }
+            lines += chunk.lines;
+            total += chunk.records.size();
+        }
+        ArrayList<StudentRecord> records = new ArrayList<>(total);
+        for (Chunk chunk : parsed) {
+            records.addAll(chunk.records);
+        }
+        return records;
+    }
+
+    /**
+     * Splits the file into the given number of chunks of about the same size,
+     * moving every boundary to the start of the next line.
+     *
+     * @param channel - the channel of the file
+     * @param chunks  - the wanted number of chunks
+     * @return - offsets of the chunks, starting with 0 and ending with the size of
+     *         the file, possibly fewer than wanted if lines are long
+     * @throws IOException if the file can't be read
+     */
+    private static long[] splitOnLines(FileChannel channel, int chunks) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max(size * i / chunks, bounds.get(bounds.size() - 1));
+            long boundary = size;
+            search: while (position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int j = 0; j < read; j++) {
+                    if (buffer.get(j) == '\n') {
+                        boundary = position + j + 1;
+                        break search;
+                    }
+                }
+                position += read;
+            }
+            if (boundary > bounds.get(bounds.size() - 1) && boundary < size) {
+                bounds.add(boundary);
+            }
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Parses the lines between the given offsets of the file.
+     *
+     * @param channel - the channel of the file
+     * @param start   - offset of the first line
+     * @param end     - offset after the last line
+     * @return - the parsed chunk, with the first error found, if any
+     * @throws IOException if the file can't be read
+     */
+    private static Chunk parse(FileChannel channel, long start, long end) throws IOException {
+        Chunk chunk = new Chunk();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        Map<String, String> names = new HashMap<>();
+        byte[] scratch = new byte[64];
+        int[] starts = new int[4];
+        int[] ends = new int[4];
+        int limit = buffer.limit();
+        int position = 0;
+
+        while (position < limit) {
+            chunk.lines++;
+            int fields = 0;
+            int fieldStart = position;
+            while (position < limit && buffer.get(position) != '\n') {
+                if (buffer.get(position) == '\t') {
+                    if (fields < 4) {
+                        starts[fields] = fieldStart;
+                        ends[fields] = position;
+                    }
+                    fields++;
+                    fieldStart = position + 1;
+                }
+                position++;
+            }
+            int lineEnd = position;
+            if (lineEnd > fieldStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (fields < 4) {
+                starts[fields] = fieldStart;
+                ends[fields] = lineEnd;
+            }
+            fields++;
+            position++;
+
+            if (fields != 4) {
+                return chunk.fail("Invalid number of arguments.");
+            }
+            int grade = parseGrade(buffer, starts[3], ends[3]);
+            if (grade == -1) {
+                return chunk.fail("Invalid grade.");
+            }
+            if (scratch.length < position - starts[0]) {
+                scratch = new byte[2 * (position - starts[0])];
+            }
+            String jmbag = decode(buffer, starts[0], ends[0], scratch);
+            String lastName = names.computeIfAbsent(decode(buffer, starts[1], ends[1], scratch), k -> k);
+            String firstName = names.computeIfAbsent(decode(buffer, starts[2], ends[2], scratch), k -> k);
+            chunk.records.add(new StudentRecord(jmbag, lastName, firstName, grade));
+        }
+        return chunk;
+    }
+
+    /**
+     * Parses a grade, a number from 1 to 5.
+     *
+     * @param buffer - the buffer holding the grade
+     * @param start  - offset of the first digit
+     * @param end    - offset after the last digit
+     * @return - the grade, -1 if it isn't valid
+     */
+    private static int parseGrade(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+        int grade = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9' || grade > 5) {
+                return -1;
+            }
+            grade = 10 * grade + (b - '0');
+        }
+        return grade >= 1 && grade <= 5 ? grade : -1;
+    }
+
+    /**
+     * Decodes a UTF-8 field of the buffer.
+     *
+     * @param buffer  - the buffer holding the field
+     * @param start   - offset of the field
+     * @param end     - offset after the field
+     * @param scratch - array big enough to hold the bytes of the field
+     * @return - the decoded field
+     */
+    private static String decode(ByteBuffer buffer, int start, int end, byte[] scratch) {
+        buffer.get(start, scratch, 0, end - start);
+        return new String(scratch, 0, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Records parsed from a chunk of the file.
+     */
+    private static class Chunk {
+        /**
+         * The parsed records.
+         */
+        private final List<StudentRecord> records = new ArrayList<>();
+
+        /**
+         * Number of lines read.
+         */
+        private int lines;
+
+        /**
+         * Description of the first invalid line, null if all are valid.
+         */
+        private String error;
+
+        /**
+         * Number of the invalid line within the chunk, starting from 1.
+         */
+        private int errorLine;
+
+        /**
+         * Records an error on the current line.
+         *
+         * @param message - description of the error
+         * @return - this chunk
+         */
+        private Chunk fail(String message) {
+            error = message;
+            errorLine = lines;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package hr.fer.oprpp1.hw04.db;
+
+/**
+ * A negation of an expression, satisfied if its operand isn't.
+ */
+public class NotExpression implements IQueryExpression {
+    /**
+     * The negated expression.
+     */
+    private final IQueryExpression operand;
+
+    /**
+     * Creates a new negation.
+     * 
+     * @param operand - the negated expression
+     */
+    public NotExpression(IQueryExpression operand) {
+        this.operand = operand;
+    }
+
+    /**
+     * Returns the negated expression.
+     * 
+     * @return - the negated expression
+     */
+    public IQueryExpression getOperand() {
+        return operand;
+    }
+
+    @Override
+    public boolean test(StudentRecord record) {
+        return !operand.test(record);
+    }
+
+    /**
+     * Returns the expression as it would be written in a query, a logical
+     * combination being parenthesized.
+     */
+    @Override
+    public String toString() {
+        return operand instanceof ConditionalExpression ? "NOT " + operand : "NOT (" + operand + ")";
+    }
+}
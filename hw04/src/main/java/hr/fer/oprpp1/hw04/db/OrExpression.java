@@ -0,0 +1,56 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.List;
+
+/**
+ * A disjunction of expressions, satisfied if any of its operands is.
+ */
+public class OrExpression implements IQueryExpression {
+    /**
+     * The operands, checked in order.
+     */
+    private final List<IQueryExpression> operands;
+
+    /**
+     * Creates a new disjunction.
+     * 
+     * @param operands - the operands, checked in the given order
+     */
+    public OrExpression(List<IQueryExpression> operands) {
+        this.operands = List.copyOf(operands);
+    }
+
+    /**
+     * Returns the operands.
+     * 
+     * @return - the operands, in the order they are checked
+     */
+    public List<IQueryExpression> getOperands() {
+        return operands;
+    }
+
+    @Override
+    public boolean test(StudentRecord record) {
+        for (IQueryExpression operand : operands) {
+            if (operand.test(record)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the expression as it would be written in a query.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (IQueryExpression operand : operands) {
+            if (sb.length() > 0) {
+                sb.append(" OR ");
+            }
+            sb.append(operand);
+        }
+        return sb.toString();
+    }
+}
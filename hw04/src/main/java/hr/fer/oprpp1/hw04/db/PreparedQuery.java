@@ -0,0 +1,185 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A query parsed and planned once, executed many times with different values
+ * of its parameters, the literals written as ? in the query. The plan is made
+ * without knowing the values, from estimates that depend only on the operators,
+ * and is made again only once the indexes of the database are rebuilt. If a
+ * bound LIKE pattern can't be answered by the index the plan relies on, that
+ * execution is planned with the bound values instead.
+ * <p>
+ * The values are bound into the expressions of the query, so a prepared query
+ * must not be executed by several threads at once.
+ */
+public class PreparedQuery {
+    /**
+     * The database the query is executed on.
+     */
+    private final StudentDatabase database;
+
+    /**
+     * The parsed query.
+     */
+    private final QueryParser parser;
+
+    /**
+     * The expressions whose literals are parameters, in order.
+     */
+    private final List<ConditionalExpression> parameters;
+
+    /**
+     * Plan of a query that is a conjunction, null until planned.
+     */
+    private QueryPlan plan;
+
+    /**
+     * The reordered expression tree of a query that isn't a conjunction, null
+     * until planned.
+     */
+    private IQueryExpression optimized;
+
+    /**
+     * Generation of the indexes of the database the query was planned with.
+     */
+    private int generation;
+
+    /**
+     * Creates a new prepared query. Use {@link StudentDatabase#prepare(String)}.
+     *
+     * @param database - the database the query is executed on
+     * @param parser   - the parsed query
+     * @throws IllegalArgumentException if the query computes an aggregate
+     */
+    PreparedQuery(StudentDatabase database, QueryParser parser) {
+        if (parser.getAggregate() != null) {
+            throw new IllegalArgumentException("Aggregates can't be prepared.");
+        }
+        this.database = database;
+        this.parser = parser;
+        this.parameters = parser.getParameters();
+    }
+
+    /**
+     * Returns the number of parameters of the query.
+     *
+     * @return - the number of parameters
+     */
+    public int getParameterCount() {
+        return parameters.size();
+    }
+
+    /**
+     * Executes the query with the given values of its parameters. The result
+     * respects the LIMIT clause of the query, if any.
+     *
+     * @param values - values of the parameters, in the order they appear in the
+     *               query
+     * @return - list of all records that satisfy the query, in the order they are
+     *         stored
+     * @throws IllegalArgumentException if the number of values doesn't match the
+     *                                  number of parameters
+     * @throws NullPointerException     if a value is null
+     */
+    public List<StudentRecord> execute(String... values) {
+        if (values.length != parameters.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + parameters.size() + " parameters, got " + values.length + ".");
+        }
+        for (String value : values) {
+            if (value == null) {
+                throw new NullPointerException("Value of a parameter can't be null.");
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            parameters.get(i).setLiteral(values[i]);
+        }
+
+        List<StudentRecord> selected;
+        if (parser.isDirectQuery()) {
+            StudentRecord record = database.forJMBAG(parser.getQueriedJMBAG());
+            selected = record == null ? List.of() : List.of(record);
+        } else if (parser.isConjunction()) {
+            String key = QueryCache.keyOf(parser.getQuery());
+            QueryCache.Result result = database.getQueryCache().get(key);
+            if (result == null) {
+                QueryPlan current = currentPlan();
+                result = database.getQueryCache().put(key, database.execute(current), current.getIndex());
+            }
+            selected = result.records();
+        } else {
+            String key = parser.getExpression().toString();
+            QueryCache.Result result = database.getQueryCache().get(key);
+            if (result == null) {
+                replanIfStale();
+                List<StudentRecord> records = new ArrayList<>();
+                database.scan(optimized, records::add);
+                result = database.getQueryCache().put(key, records, null);
+            }
+            selected = result.records();
+        }
+        int from = Math.min(parser.getOffset(), selected.size());
+        int to = parser.getLimit() < 0 ? selected.size()
+                : (int) Math.min(selected.size(), (long) from + parser.getLimit());
+        return selected.subList(from, to);
+    }
+
+    /**
+     * Describes how the query is executed, with its parameters as currently
+     * bound, written as ? if they were never bound.
+     *
+     * @return - the description of the query's plan
+     */
+    public String explain() {
+        if (parser.isDirectQuery()) {
+            return "Access path: jmbag primary key lookup (at most 1 of " + database.count() + " records)\n";
+        }
+        if (parser.isConjunction()) {
+            replanIfStale();
+            return plan.explain();
+        }
+        return database.getPlanner().explain(parser.getExpression());
+    }
+
+    /**
+     * Returns the plan of a conjunction for the bound values. The prepared plan is
+     * used unless its index can't answer the bound expression, a LIKE pattern
+     * with a wildcard other than at its end.
+     *
+     * @return - the plan
+     */
+    private QueryPlan currentPlan() {
+        replanIfStale();
+        if (plan.getIndex() == null || plan.getIndex().supports(plan.getIndexedExpression())) {
+            return plan;
+        }
+        return database.getPlanner().plan(parser.getQuery());
+    }
+
+    /**
+     * Plans the query again if the indexes of the database were rebuilt since it
+     * was last planned, the old plan referring to the old indexes.
+     */
+    private void replanIfStale() {
+        if ((plan != null || optimized != null) && generation == database.getGeneration()) {
+            return;
+        }
+        List<String> bound = new ArrayList<>(parameters.size());
+        for (ConditionalExpression parameter : parameters) {
+            bound.add(parameter.getLiteral());
+            parameter.setLiteral(null);
+        }
+        // plans are made from the operators alone, so they hold for any values
+        if (parser.isConjunction()) {
+            plan = database.getPlanner().plan(parser.getQuery());
+        } else {
+            optimized = database.getPlanner().optimize(parser.getExpression());
+        }
+        for (int i = 0; i < bound.size(); i++) {
+            parameters.get(i).setLiteral(bound.get(i));
+        }
+        generation = database.getGeneration();
+    }
+}
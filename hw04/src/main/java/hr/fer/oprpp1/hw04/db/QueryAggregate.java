@@ -0,0 +1,17 @@
+package hr.fer.oprpp1.hw04.db;
+
+/**
+ * Aggregates a query can compute over the records it selects instead of
+ * returning them.
+ */
+public enum QueryAggregate {
+    /**
+     * Number of selected records.
+     */
+    COUNT,
+
+    /**
+     * Average final grade of the selected records.
+     */
+    AVG
+}
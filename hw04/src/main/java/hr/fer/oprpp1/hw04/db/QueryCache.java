@@ -0,0 +1,190 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of query results, evicting the least recently used result
+ * when full. Results are keyed by the normalized query, so queries that differ
+ * only in whitespace, in the case of keywords or in the order of their
+ * expressions share an entry. The cache has to be invalidated whenever the
+ * records of the database change.
+ */
+public class QueryCache {
+    /**
+     * Default maximum number of cached results.
+     */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    /**
+     * Cached results, in order from the least to the most recently used.
+     */
+    private final LinkedHashMap<String, Result> results;
+
+    /**
+     * Maximum number of cached results.
+     */
+    private int capacity;
+
+    /**
+     * Number of lookups that found a result.
+     */
+    private long hits;
+
+    /**
+     * Number of lookups that didn't find a result.
+     */
+    private long misses;
+
+    /**
+     * Creates a new cache with the default capacity.
+     */
+    public QueryCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new cache holding at most the given number of results.
+     *
+     * @param capacity - maximum number of cached results, 0 disables caching
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public QueryCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative.");
+        }
+        this.capacity = capacity;
+        results = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+                return size() > QueryCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the key of the given query, its expressions as they would be
+     * written in a query, sorted and joined by AND.
+     *
+     * @param query - the expressions of the query
+     * @return - the normalized query
+     */
+    public static String keyOf(List<ConditionalExpression> query) {
+        List<String> expressions = new ArrayList<>(query.size());
+        for (ConditionalExpression expression : query) {
+            expressions.add(expression.toString());
+        }
+        Collections.sort(expressions);
+        return String.join(" AND ", expressions);
+    }
+
+    /**
+     * Returns the cached result of the given query and marks it as the most
+     * recently used one.
+     *
+     * @param key - the normalized query
+     * @return - the cached result, null if there is none
+     */
+    public synchronized Result get(String key) {
+        Result result = results.get(key);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Caches the result of the given query, evicting the least recently used
+     * result if the cache is full.
+     *
+     * @param key       - the normalized query
+     * @param records   - the selected records, copied into the cache
+     * @param usedIndex - the index used to select the records, null if none
+     * @return - the cached result
+     */
+    public synchronized Result put(String key, List<StudentRecord> records, FieldIndex usedIndex) {
+        Result result = new Result(List.copyOf(records), usedIndex);
+        if (capacity > 0) {
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all the cached results, to be called whenever the records change.
+     */
+    public synchronized void invalidate() {
+        results.clear();
+    }
+
+    /**
+     * Sets the maximum number of cached results, evicting the least recently used
+     * results that don't fit.
+     *
+     * @param capacity - maximum number of cached results, 0 disables caching
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative.");
+        }
+        this.capacity = capacity;
+        var iterator = results.entrySet().iterator();
+        while (results.size() > capacity) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached results.
+     *
+     * @return - the capacity
+     */
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return - the number of cached results
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a result.
+     *
+     * @return - the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that didn't find a result.
+     *
+     * @return - the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * A cached result of a query.
+     *
+     * @param records   - the selected records, unmodifiable
+     * @param usedIndex - the index used to select the records, null if none
+     */
+    public record Result(List<StudentRecord> records, FieldIndex usedIndex) {
+    }
+}
@@ -32,7 +32,7 @@ public class QueryFilter implements IFilter {
     @Override
     public boolean accepts(StudentRecord record) {
         for (ConditionalExpression exp : query) {
-            if (!exp.getComparisonOperator().satisfied(exp.getFieldGetter().get(record), exp.getStringLiteral())) {
+            if (!exp.test(record)) {
                 return false;
             }
         }
@@ -74,8 +74,13 @@ public class QueryLexer {
             while (currentIndex < data.length && Character.isLetter(data[currentIndex])) {
                 sb.append(data[currentIndex++]);
             }
-        } else if (data[currentIndex] == '=') {
+        } else if (data[currentIndex] == '=' || data[currentIndex] == '(' || data[currentIndex] == ')'
+                || data[currentIndex] == '?') {
             sb.append(data[currentIndex++]);
+        } else if (data[currentIndex] >= '0' && data[currentIndex] <= '9') {
+            while (currentIndex < data.length && data[currentIndex] >= '0' && data[currentIndex] <= '9') {
+                sb.append(data[currentIndex++]);
+            }
         } else if (data[currentIndex] == '"') {
             sb.append(data[currentIndex++]);
             while (data[currentIndex] != '"') {
@@ -107,6 +112,23 @@ public class QueryLexer {
      * @return - token type based on the current word
      */
     private QueryTokenType determineTokenType() {
+        if (!word.isEmpty() && word.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return QueryTokenType.NUMBER;
+        } else if (word.equals("?")) {
+            return QueryTokenType.PARAMETER;
+        } else if (word.equals("(")) {
+            return QueryTokenType.LPAREN;
+        } else if (word.equals(")")) {
+            return QueryTokenType.RPAREN;
+        } else if (word.equalsIgnoreCase("OR")) {
+            return QueryTokenType.OR;
+        } else if (word.equalsIgnoreCase("NOT")) {
+            return QueryTokenType.NOT;
+        } else if (word.equalsIgnoreCase("COUNT")) {
+            return QueryTokenType.COUNT;
+        } else if (word.equalsIgnoreCase("AVG")) {
+            return QueryTokenType.AVG;
+        }
         if (word.length() == 1 || word.length() == 2 || word.equals("LIKE")) {
             if (!Character.isLetter(word.charAt(0))) {
                 return QueryTokenType.COMPARISON_OPERATOR;
@@ -125,10 +147,16 @@ public class QueryLexer {
             return QueryTokenType.JMBAG;
         } else if (word.equalsIgnoreCase("AND")) {
             return QueryTokenType.AND;
+        } else if (word.equalsIgnoreCase("LIMIT")) {
+            return QueryTokenType.LIMIT;
+        } else if (word.equalsIgnoreCase("OFFSET")) {
+            return QueryTokenType.OFFSET;
         } else if (word.equals("lastName")) {
             return QueryTokenType.LASTNAME;
         } else if (word.equals("firstName")) {
             return QueryTokenType.FIRSTNAME;
+        } else if (word.equals("finalGrade")) {
+            return QueryTokenType.FINALGRADE;
         }
         throw new UnsupportedOperationException("Could not determine token type.");
     }
@@ -0,0 +1,179 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of queries, recorded by many threads at once. Latencies are kept
+ * in a histogram with eight buckets per power of two of microseconds, so
+ * percentiles are accurate to within an eighth of their value while recording
+ * takes constant time and memory.
+ */
+public class QueryMetrics {
+    /**
+     * Number of buckets per power of two, latencies below it get a bucket each.
+     */
+    private static final int SUB_BUCKETS = 8;
+
+    /**
+     * Number of bits selecting the bucket within a power of two.
+     */
+    private static final int SUB_BITS = 3;
+
+    /**
+     * Number of queries recorded in every bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(bucket(Long.MAX_VALUE) + 1);
+
+    /**
+     * Number of queries recorded.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Sum of the latencies recorded, in microseconds.
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Highest latency recorded, in microseconds.
+     */
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Number of queries that failed.
+     */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Records the latency of a query.
+     *
+     * @param nanos - the latency, in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        buckets.incrementAndGet(bucket(micros));
+        count.increment();
+        total.add(micros);
+        max.accumulate(micros);
+    }
+
+    /**
+     * Records a query that failed, whose latency isn't recorded.
+     */
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    /**
+     * Returns the number of queries whose latency was recorded.
+     *
+     * @return - the number of queries
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the number of queries that failed.
+     *
+     * @return - the number of failed queries
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return - the mean latency in microseconds, 0 if nothing was recorded
+     */
+    public double getMeanMicros() {
+        long queries = count.sum();
+        return queries == 0 ? 0 : (double) total.sum() / queries;
+    }
+
+    /**
+     * Returns the highest latency.
+     *
+     * @return - the highest latency in microseconds, 0 if nothing was recorded
+     */
+    public long getMaxMicros() {
+        return max.get();
+    }
+
+    /**
+     * Returns the latency below which the given percentage of the queries are,
+     * rounded up to the upper bound of its bucket.
+     *
+     * @param percentile - the percentage, from 0 to 100
+     * @return - the latency in microseconds, 0 if nothing was recorded
+     * @throws IllegalArgumentException if percentile isn't between 0 and 100
+     */
+    public long getPercentileMicros(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        long[] snapshot = new long[buckets.length()];
+        long queries = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = buckets.get(i);
+            queries += snapshot[i];
+        }
+        long rank = Math.max(1, (long) Math.ceil(queries * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMaxMicros());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Summarizes the metrics in a single line.
+     *
+     * @return - the summary
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "Queries: %d, failed: %d, latency (us): mean %.1f, p50 %d, p90 %d, p99 %d, max %d", getCount(),
+                getFailures(), getMeanMicros(), getPercentileMicros(50), getPercentileMicros(90),
+                getPercentileMicros(99), getMaxMicros());
+    }
+
+    /**
+     * Returns the bucket of the given latency.
+     *
+     * @param micros - the latency, in microseconds
+     * @return - index of the bucket
+     */
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (exponent - SUB_BITS + 1) + sub;
+    }
+
+    /**
+     * Returns the highest latency falling into the given bucket.
+     *
+     * @param bucket - index of the bucket
+     * @return - the latency, in microseconds
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+}
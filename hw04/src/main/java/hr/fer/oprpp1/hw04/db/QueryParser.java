@@ -4,8 +4,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Parses a query and creates a list of conditional expressions, with the help
- * of QueryLexer.
+ * Parses a query and creates its expression tree, with the help of QueryLexer.
+ * A query that is a conjunction of conditional expressions also gets a list of
+ * them.
  */
 public class QueryParser {
     /**
@@ -28,6 +29,39 @@ public class QueryParser {
      */
     List<ConditionalExpression> expressions;
 
+    /**
+     * The conditional expressions whose literal is a parameter, in the order the
+     * parameters appear in the query.
+     */
+    private List<ConditionalExpression> parameters;
+
+    /**
+     * The expression tree of the query.
+     */
+    private IQueryExpression expression;
+
+    /**
+     * True if the query is a conjunction of conditional expressions, which are
+     * then held by the list of expressions.
+     */
+    private boolean conjunction;
+
+    /**
+     * The aggregate computed over the selected records, null if the records are
+     * to be returned.
+     */
+    private QueryAggregate aggregate;
+
+    /**
+     * Maximum number of records the query selects, -1 if there is no limit.
+     */
+    private int limit = -1;
+
+    /**
+     * Number of selected records skipped before the first one returned.
+     */
+    private int offset;
+
     /**
      * Creates a new query parser and calls the parse method, parsing it upon
      * creation of the parser itself.
@@ -40,35 +74,164 @@ public class QueryParser {
     }
 
     /**
-     * The main parse method, generates the list of conditional expressions.
+     * The main parse method, generates the expression tree of the query. AND
+     * binds tighter than OR, NOT tighter than both and parentheses group
+     * expressions. The query may start with an aggregate and end with a LIMIT
+     * clause.
      */
     public void parseQuery() {
         token = lexer.nextToken();
         expressions = new ArrayList<>();
+        parameters = new ArrayList<>();
         if (token.getType() == QueryTokenType.EOF) {
             throw new QueryParserException("Query is empty.");
         }
+        if (token.getType() == QueryTokenType.COUNT || token.getType() == QueryTokenType.AVG) {
+            aggregate = token.getType() == QueryTokenType.COUNT ? QueryAggregate.COUNT : QueryAggregate.AVG;
+            token = lexer.nextToken();
+        }
+
+        expression = parseOr();
+        if (token.getType() == QueryTokenType.LIMIT) {
+            limit = parseNumber(lexer.nextToken());
+            token = lexer.nextToken();
+            if (token.getType() == QueryTokenType.OFFSET) {
+                offset = parseNumber(lexer.nextToken());
+                token = lexer.nextToken();
+            }
+        }
+        if (token.getType() != QueryTokenType.EOF) {
+            throw new QueryParserException("Expected AND, OR, LIMIT or end of query, got " + token.getValue());
+        }
+        conjunction = collectConjunction(expression);
+        isDirectQuery = conjunction && resolveIsDirectQuery();
+    }
+
+    /**
+     * Parses a disjunction, expressions joined by OR.
+     * 
+     * @return - the parsed expression
+     */
+    private IQueryExpression parseOr() {
+        IQueryExpression first = parseAnd();
+        if (token.getType() != QueryTokenType.OR) {
+            return first;
+        }
+        List<IQueryExpression> operands = new ArrayList<>(List.of(first));
+        while (token.getType() == QueryTokenType.OR) {
+            token = lexer.nextToken();
+            operands.add(parseAnd());
+        }
+        return new OrExpression(operands);
+    }
+
+    /**
+     * Parses a conjunction, expressions joined by AND.
+     * 
+     * @return - the parsed expression
+     */
+    private IQueryExpression parseAnd() {
+        IQueryExpression first = parseNot();
+        if (token.getType() != QueryTokenType.AND) {
+            return first;
+        }
+        List<IQueryExpression> operands = new ArrayList<>(List.of(first));
+        while (token.getType() == QueryTokenType.AND) {
+            token = lexer.nextToken();
+            operands.add(parseNot());
+        }
+        return new AndExpression(operands);
+    }
 
+    /**
+     * Parses a negated expression, a parenthesized expression or a single
+     * conditional expression.
+     * 
+     * @return - the parsed expression
+     */
+    private IQueryExpression parseNot() {
+        if (token.getType() == QueryTokenType.NOT) {
+            token = lexer.nextToken();
+            return new NotExpression(parseNot());
+        }
+        if (token.getType() == QueryTokenType.LPAREN) {
+            token = lexer.nextToken();
+            IQueryExpression inner = parseOr();
+            if (token.getType() != QueryTokenType.RPAREN) {
+                throw new QueryParserException("Expected ), got " + token.getValue());
+            }
+            token = lexer.nextToken();
+            return inner;
+        }
         var fieldValueGetter = resolveFieldValueGetter(token.getType());
         var comparisonOperator = resolveComparisonOperator((token = lexer.nextToken()));
-        var literal = (token = lexer.nextToken()).getValue();
-        expressions.add(new ConditionalExpression(fieldValueGetter, literal, comparisonOperator));
-
+        var literal = resolveLiteral((token = lexer.nextToken()));
         token = lexer.nextToken();
+        var expression = new ConditionalExpression(fieldValueGetter, literal, comparisonOperator);
+        if (expression.isParameter()) {
+            parameters.add(expression);
+        }
+        return expression;
+    }
 
-        while (token.getType() != QueryTokenType.EOF) {
-            if (token.getType() != QueryTokenType.AND) {
-                throw new QueryParserException("Expected AND, got " + token.getValue());
+    /**
+     * Resolves the literal held by the given token, a string, a number or a
+     * parameter.
+     * 
+     * @param token - the token holding the literal
+     * @return - the literal, null for a parameter
+     * @throws QueryParserException if the token isn't a literal
+     */
+    private String resolveLiteral(QueryToken token) {
+        if (token.getType() == QueryTokenType.STRING || token.getType() == QueryTokenType.NUMBER) {
+            return token.getValue();
+        }
+        if (token.getType() == QueryTokenType.PARAMETER) {
+            return null;
+        }
+        throw new QueryParserException("Expected a literal, got " + token.getValue());
+    }
+
+    /**
+     * Collects the conditional expressions of the given tree into the list of
+     * expressions, if the tree is a conjunction of conditional expressions.
+     * 
+     * @param node - the tree
+     * @return - true if the tree is a conjunction of conditional expressions,
+     *         false otherwise
+     */
+    private boolean collectConjunction(IQueryExpression node) {
+        if (node instanceof ConditionalExpression expression) {
+            expressions.add(expression);
+            return true;
+        }
+        if (node instanceof AndExpression and) {
+            for (IQueryExpression operand : and.getOperands()) {
+                if (!collectConjunction(operand)) {
+                    return false;
+                }
             }
-            QueryToken[] condList = new QueryToken[3];
-            for (int i = 0; i < 3; i++)
-                condList[i] = lexer.nextToken();
+            return true;
+        }
+        return false;
+    }
 
-            expressions.add(new ConditionalExpression(resolveFieldValueGetter(condList[0].getType()),
-                    condList[2].getValue(), resolveComparisonOperator(condList[1])));
-            token = lexer.nextToken();
+    /**
+     * Parses the number held by the given token.
+     * 
+     * @param token - the token
+     * @return - the number
+     * @throws QueryParserException if the token isn't a number
+     */
+    private int parseNumber(QueryToken token) {
+        if (token.getType() != QueryTokenType.NUMBER) {
+            throw new QueryParserException("Expected a number, got " + token.getValue());
+        }
+        try {
+            return Integer.parseInt(token.getValue());
+        } catch (NumberFormatException e) {
+            throw new QueryParserException("Number is too big: " + token.getValue());
         }
-        isDirectQuery = resolveIsDirectQuery();
     }
 
     /**
@@ -115,14 +278,79 @@ public class QueryParser {
     }
 
     /**
-     * Returns the list of conditional expressions.
+     * Returns the maximum number of records the query selects, given by its
+     * LIMIT clause.
+     * 
+     * @return - the maximum number of records, -1 if there is no limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of selected records skipped before the first one
+     * returned, given by the OFFSET part of its LIMIT clause.
+     * 
+     * @return - the number of skipped records
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the list of conditional expressions, all of which have to be
+     * satisfied. Only queries that are a conjunction of conditional expressions
+     * have one, see {@link #isConjunction()}.
      * 
      * @return - list of conditional expressions
+     * @throws IllegalStateException if the query isn't a conjunction
      */
     public List<ConditionalExpression> getQuery() {
+        if (!conjunction)
+            throw new IllegalStateException("Query is not a conjunction of conditional expressions.");
+
         return expressions;
     }
 
+    /**
+     * Checks whether the query is a conjunction of conditional expressions, those
+     * being returned by {@link #getQuery()}.
+     * 
+     * @return - true if the query is a conjunction, false otherwise
+     */
+    public boolean isConjunction() {
+        return conjunction;
+    }
+
+    /**
+     * Returns the expression tree of the query.
+     * 
+     * @return - the root of the expression tree
+     */
+    public IQueryExpression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns the conditional expressions whose literal is a parameter, written
+     * as ? in the query, in the order the parameters appear. Their literals are
+     * bound through {@link ConditionalExpression#setLiteral(String)}.
+     * 
+     * @return - the expressions with parameters, empty if the query has none
+     */
+    public List<ConditionalExpression> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the aggregate the query computes.
+     * 
+     * @return - the aggregate, null if the query returns the selected records
+     */
+    public QueryAggregate getAggregate() {
+        return aggregate;
+    }
+
     /**
      * Resolves the field value getter for the given token type, determining its type
      * based on the token type.
@@ -135,6 +363,7 @@ public class QueryParser {
             case LASTNAME -> FieldValueGetters.LAST_NAME;
             case FIRSTNAME -> FieldValueGetters.FIRST_NAME;
             case JMBAG -> FieldValueGetters.JMBAG;
+            case FINALGRADE -> FieldValueGetters.FINAL_GRADE;
             default -> throw new UnsupportedOperationException("Could not resolve FieldValueGetter" + typ);
         };
     }
@@ -0,0 +1,138 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.List;
+
+/**
+ * An execution plan of a query, made by the {@link QueryPlanner}. It consists
+ * of an access path, which is either a scan of all the records or a scan of
+ * the part of an index matching one of the expressions, and of the residual
+ * expressions that the records found by the access path are checked against,
+ * in the order they are to be checked.
+ */
+public class QueryPlan {
+    /**
+     * The index used as the access path, null for a scan of all the records.
+     */
+    private final FieldIndex index;
+
+    /**
+     * The expression answered by the index, null for a scan of all the records.
+     */
+    private final ConditionalExpression indexedExpression;
+
+    /**
+     * The expressions the records found by the access path are checked against.
+     */
+    private final List<ConditionalExpression> residual;
+
+    /**
+     * Estimated selectivity of the indexed expression.
+     */
+    private final double indexedSelectivity;
+
+    /**
+     * Estimated selectivity of every residual expression.
+     */
+    private final double[] residualSelectivities;
+
+    /**
+     * Number of records in the database.
+     */
+    private final int rows;
+
+    /**
+     * Creates a new plan.
+     *
+     * @param index                 - index used as the access path, null for a
+     *                              scan of all the records
+     * @param indexedExpression     - expression answered by the index, null for a
+     *                              scan of all the records
+     * @param indexedSelectivity    - estimated selectivity of the indexed
+     *                              expression
+     * @param residual              - expressions to be checked, in order
+     * @param residualSelectivities - estimated selectivities of the residual
+     *                              expressions
+     * @param rows                  - number of records in the database
+     */
+    public QueryPlan(FieldIndex index, ConditionalExpression indexedExpression, double indexedSelectivity,
+            List<ConditionalExpression> residual, double[] residualSelectivities, int rows) {
+        this.index = index;
+        this.indexedExpression = indexedExpression;
+        this.indexedSelectivity = indexedSelectivity;
+        this.residual = residual;
+        this.residualSelectivities = residualSelectivities;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns the index used as the access path.
+     *
+     * @return - the index, null if all the records are scanned
+     */
+    public FieldIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the expression answered by the index.
+     *
+     * @return - the expression, null if all the records are scanned
+     */
+    public ConditionalExpression getIndexedExpression() {
+        return indexedExpression;
+    }
+
+    /**
+     * Returns the residual expressions, in the order they are to be checked.
+     *
+     * @return - the residual expressions
+     */
+    public List<ConditionalExpression> getResidual() {
+        return residual;
+    }
+
+    /**
+     * Returns the estimated number of records the access path reads.
+     *
+     * @return - the estimated number of records read
+     */
+    public long getEstimatedReads() {
+        return index == null ? rows : Math.round(rows * indexedSelectivity);
+    }
+
+    /**
+     * Returns the estimated number of records selected by the query, assuming the
+     * expressions are independent.
+     *
+     * @return - the estimated number of records selected
+     */
+    public long getEstimatedRecords() {
+        double estimate = index == null ? rows : rows * indexedSelectivity;
+        for (double selectivity : residualSelectivities) {
+            estimate *= selectivity;
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Describes the plan in a human readable form.
+     *
+     * @return - the description of the plan
+     */
+    public String explain() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Access path: ");
+        if (index == null) {
+            sb.append("full scan");
+        } else {
+            sb.append(index.getName()).append(" index scan for ").append(indexedExpression);
+        }
+        sb.append(" (estimated ").append(getEstimatedReads()).append(" of ").append(rows).append(" records)\n");
+        for (int i = 0; i < residual.size(); i++) {
+            sb.append("Filter ").append(i + 1).append(": ").append(residual.get(i))
+                    .append(String.format(" (selectivity %.3f)%n", residualSelectivities[i]));
+        }
+        sb.append("Estimated records selected: ").append(getEstimatedRecords()).append("\n");
+        return sb.toString();
+    }
+}
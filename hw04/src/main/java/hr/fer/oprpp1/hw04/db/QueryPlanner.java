@@ -0,0 +1,281 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A cost-based planner for queries. Using the statistics collected when the
+ * database was loaded, it estimates the selectivity of every expression of a
+ * query. The most selective expression an index can answer becomes the access
+ * path and the remaining expressions are ordered so that the ones rejecting
+ * the most records for the least work are checked first.
+ */
+public class QueryPlanner {
+    /**
+     * Relative cost of checking a LIKE expression, compared to the other
+     * operators which cost 1.
+     */
+    private static final double LIKE_COST = 4;
+
+    /**
+     * Indexes available as access paths.
+     */
+    private final List<FieldIndex> indexes;
+
+    /**
+     * Statistics of the fields.
+     */
+    private final List<FieldStatistics> statistics;
+
+    /**
+     * Number of records in the database.
+     */
+    private final int rows;
+
+    /**
+     * Creates a new planner.
+     *
+     * @param indexes    - indexes available as access paths
+     * @param statistics - statistics of the fields
+     * @param rows       - number of records in the database
+     */
+    public QueryPlanner(List<FieldIndex> indexes, List<FieldStatistics> statistics, int rows) {
+        this.indexes = indexes;
+        this.statistics = statistics;
+        this.rows = rows;
+    }
+
+    /**
+     * Makes a plan for the given query.
+     *
+     * @param query - the query, a list of expressions that all have to be satisfied
+     * @return - the plan
+     */
+    public QueryPlan plan(List<ConditionalExpression> query) {
+        FieldIndex bestIndex = null;
+        ConditionalExpression bestExpression = null;
+        double bestSelectivity = 1;
+        for (ConditionalExpression expression : query) {
+            FieldIndex index = indexFor(expression);
+            if (index == null) {
+                continue;
+            }
+            double selectivity = selectivity(expression);
+            if (bestIndex == null || selectivity < bestSelectivity) {
+                bestIndex = index;
+                bestExpression = expression;
+                bestSelectivity = selectivity;
+            }
+        }
+
+        List<ConditionalExpression> residual = new ArrayList<>(query);
+        // the index answers its expression exactly, no need to check it again
+        residual.remove(bestExpression);
+        residual.sort(Comparator.comparingDouble(this::rank));
+        double[] selectivities = new double[residual.size()];
+        for (int i = 0; i < selectivities.length; i++) {
+            selectivities[i] = selectivity(residual.get(i));
+        }
+        return new QueryPlan(bestIndex, bestExpression, bestSelectivity, residual, selectivities, rows);
+    }
+
+    /**
+     * Estimates the fraction of the records that satisfy the given expression.
+     *
+     * @param expression - the expression
+     * @return - the estimated selectivity, 1 if there are no statistics for the
+     *         field of the expression
+     */
+    public double selectivity(ConditionalExpression expression) {
+        for (FieldStatistics stats : statistics) {
+            if (stats.getFieldGetter() == expression.getFieldGetter()) {
+                return stats.selectivity(expression);
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Estimates the fraction of the records that satisfy the given expression
+     * tree, assuming its conditional expressions are independent.
+     *
+     * @param node - root of the expression tree
+     * @return - the estimated selectivity
+     */
+    public double selectivity(IQueryExpression node) {
+        if (node instanceof ConditionalExpression expression) {
+            return selectivity(expression);
+        }
+        if (node instanceof NotExpression not) {
+            return 1 - selectivity(not.getOperand());
+        }
+        List<IQueryExpression> operands = node instanceof AndExpression and ? and.getOperands()
+                : ((OrExpression) node).getOperands();
+        double product = 1;
+        for (IQueryExpression operand : operands) {
+            product *= node instanceof AndExpression ? selectivity(operand) : 1 - selectivity(operand);
+        }
+        return node instanceof AndExpression ? product : 1 - product;
+    }
+
+    /**
+     * Reorders the operands of the conjunctions and disjunctions of the given
+     * expression tree so that evaluating it short-circuits as early as possible.
+     * Operands of a conjunction are ordered by their cost divided by the fraction
+     * of records they reject, operands of a disjunction by their cost divided by
+     * the fraction of records they accept.
+     *
+     * @param node - root of the expression tree
+     * @return - root of the reordered tree
+     */
+    public IQueryExpression optimize(IQueryExpression node) {
+        if (node instanceof NotExpression not) {
+            return new NotExpression(optimize(not.getOperand()));
+        }
+        if (node instanceof AndExpression and) {
+            List<IQueryExpression> operands = new ArrayList<>();
+            and.getOperands().forEach(operand -> operands.add(optimize(operand)));
+            operands.sort(Comparator.comparingDouble(this::rank));
+            return new AndExpression(operands);
+        }
+        if (node instanceof OrExpression or) {
+            List<IQueryExpression> operands = new ArrayList<>();
+            or.getOperands().forEach(operand -> operands.add(optimize(operand)));
+            operands.sort(Comparator.comparingDouble(operand -> {
+                double accepted = selectivity(operand);
+                return accepted == 0 ? Double.POSITIVE_INFINITY : cost(operand) / accepted;
+            }));
+            return new OrExpression(operands);
+        }
+        return node;
+    }
+
+    /**
+     * Describes how the given expression tree would be executed. Indexed
+     * expressions of a conjunction have their rows intersected and those of a
+     * disjunction united, if all of its operands are indexed, and the records
+     * found that way are checked against the tree unless the indexes answer it
+     * exactly.
+     *
+     * @param node - root of the expression tree
+     * @return - the description of the execution
+     */
+    public String explain(IQueryExpression node) {
+        StringBuilder sb = new StringBuilder("Access path: ");
+        AccessPath path = accessPath(node);
+        long reads = path == null ? rows : Math.round(rows * path.selectivity());
+        sb.append(path == null ? "full scan" : path.description());
+        sb.append(" (estimated ").append(reads).append(" of ").append(rows).append(" records)\n");
+        if (path == null || !path.exact()) {
+            sb.append("Filter: ").append(optimize(node)).append("\n");
+        }
+        sb.append("Estimated records selected: ").append(Math.round(rows * selectivity(node))).append("\n");
+        return sb.toString();
+    }
+
+    /**
+     * Finds the indexed part of the given expression tree.
+     *
+     * @param node - root of the expression tree
+     * @return - the access path, null if the tree can't be answered by indexes
+     */
+    private AccessPath accessPath(IQueryExpression node) {
+        if (node instanceof ConditionalExpression expression) {
+            FieldIndex index = indexFor(expression);
+            return index == null ? null
+                    : new AccessPath(index.getName() + " index scan for " + expression, selectivity(expression), true);
+        }
+        boolean and = node instanceof AndExpression;
+        if (!and && !(node instanceof OrExpression)) {
+            return null;
+        }
+        List<IQueryExpression> operands = and ? ((AndExpression) node).getOperands()
+                : ((OrExpression) node).getOperands();
+        List<String> descriptions = new ArrayList<>();
+        double selectivity = and ? 1 : 0;
+        boolean exact = true;
+        for (IQueryExpression operand : operands) {
+            AccessPath path = accessPath(operand);
+            if (path == null) {
+                if (!and) {
+                    return null;
+                }
+                exact = false;
+                continue;
+            }
+            descriptions.add(path.description());
+            selectivity = and ? selectivity * path.selectivity() : selectivity + path.selectivity();
+            exact &= path.exact();
+        }
+        if (descriptions.isEmpty()) {
+            return null;
+        }
+        if (descriptions.size() == 1) {
+            return new AccessPath(descriptions.get(0), selectivity, exact);
+        }
+        String description = (and ? "intersection of (" : "union of (") + String.join(", ", descriptions) + ")";
+        return new AccessPath(description, Math.min(1, selectivity), exact);
+    }
+
+    /**
+     * The indexed part of an expression tree.
+     *
+     * @param description - description of the index lookups
+     * @param selectivity - estimated fraction of the records found
+     * @param exact       - whether the lookups answer the tree exactly
+     */
+    private record AccessPath(String description, double selectivity, boolean exact) {
+    }
+
+    /**
+     * Returns the rank of the given expression among the operands of a
+     * conjunction, lower ranks are checked first. The rank is the cost of
+     * checking the expression divided by the fraction of records it rejects.
+     *
+     * @param expression - the expression
+     * @return - the rank of the expression
+     */
+    private double rank(IQueryExpression expression) {
+        double rejected = 1 - selectivity(expression);
+        return rejected == 0 ? Double.POSITIVE_INFINITY : cost(expression) / rejected;
+    }
+
+    /**
+     * Returns the relative cost of checking the given expression tree, assuming
+     * all of its conditional expressions are checked.
+     *
+     * @param node - root of the expression tree
+     * @return - the cost
+     */
+    private double cost(IQueryExpression node) {
+        if (node instanceof ConditionalExpression expression) {
+            return expression.getComparisonOperator() == ComparisonOperators.LIKE ? LIKE_COST : 1;
+        }
+        if (node instanceof NotExpression not) {
+            return cost(not.getOperand());
+        }
+        List<IQueryExpression> operands = node instanceof AndExpression and ? and.getOperands()
+                : ((OrExpression) node).getOperands();
+        double cost = 0;
+        for (IQueryExpression operand : operands) {
+            cost += cost(operand);
+        }
+        return cost;
+    }
+
+    /**
+     * Returns the index that can answer the given expression.
+     *
+     * @param expression - the expression
+     * @return - the index that can answer the expression, null if there is none
+     */
+    FieldIndex indexFor(ConditionalExpression expression) {
+        for (FieldIndex index : indexes) {
+            if (index.supports(expression)) {
+                return index;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,164 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The result of a single query, either the selected records together with the
+ * way they were found, or the value of an aggregate. A result doesn't change
+ * once created, so it can be rendered while other queries are executed.
+ */
+public class QueryResult {
+    /**
+     * The selected records, empty for an aggregate.
+     */
+    private final List<StudentRecord> records;
+
+    /**
+     * Whether the records were found by the jmbag primary key.
+     */
+    private final boolean direct;
+
+    /**
+     * The secondary index used to find the records, null if none was used.
+     */
+    private final FieldIndex usedIndex;
+
+    /**
+     * The computed aggregate, null if the records were selected.
+     */
+    private final QueryAggregate aggregate;
+
+    /**
+     * Number of records aggregated.
+     */
+    private final long aggregatedCount;
+
+    /**
+     * Sum of the grades of the records aggregated.
+     */
+    private final long aggregatedGrades;
+
+    /**
+     * Creates the result of a query selecting records.
+     *
+     * @param records   - the selected records, unmodifiable
+     * @param direct    - whether the records were found by the jmbag primary key
+     * @param usedIndex - the secondary index used, null if none was used
+     */
+    public QueryResult(List<StudentRecord> records, boolean direct, FieldIndex usedIndex) {
+        this(records, direct, usedIndex, null, 0, 0);
+    }
+
+    /**
+     * Creates the result of a query computing an aggregate.
+     *
+     * @param aggregate        - the computed aggregate
+     * @param aggregatedCount  - number of records aggregated
+     * @param aggregatedGrades - sum of the grades of the records aggregated
+     */
+    public QueryResult(QueryAggregate aggregate, long aggregatedCount, long aggregatedGrades) {
+        this(List.of(), false, null, aggregate, aggregatedCount, aggregatedGrades);
+    }
+
+    private QueryResult(List<StudentRecord> records, boolean direct, FieldIndex usedIndex, QueryAggregate aggregate,
+            long aggregatedCount, long aggregatedGrades) {
+        this.records = records;
+        this.direct = direct;
+        this.usedIndex = usedIndex;
+        this.aggregate = aggregate;
+        this.aggregatedCount = aggregatedCount;
+        this.aggregatedGrades = aggregatedGrades;
+    }
+
+    /**
+     * Returns the selected records.
+     *
+     * @return - the selected records, empty for an aggregate
+     */
+    public List<StudentRecord> getRecords() {
+        return records;
+    }
+
+    /**
+     * Checks whether the records were found by the jmbag primary key.
+     *
+     * @return - true if the query was direct, false otherwise
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Returns the secondary index used to find the records.
+     *
+     * @return - the index, null if none was used
+     */
+    public FieldIndex getUsedIndex() {
+        return usedIndex;
+    }
+
+    /**
+     * Returns the computed aggregate.
+     *
+     * @return - the aggregate, null if the records were selected
+     */
+    public QueryAggregate getAggregate() {
+        return aggregate;
+    }
+
+    /**
+     * Returns the value of the computed aggregate.
+     *
+     * @return - the number of records for COUNT, the average grade for AVG, NaN
+     *         if no aggregate was computed or no records were averaged
+     */
+    public double getAggregateValue() {
+        if (aggregate == QueryAggregate.COUNT) {
+            return aggregatedCount;
+        }
+        if (aggregate == QueryAggregate.AVG && aggregatedCount > 0) {
+            return (double) aggregatedGrades / aggregatedCount;
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Writes a page of the selected records to the given writer, rendered by the
+     * given renderer. The table renderer is preceded by a note on the index used,
+     * if any. The value of an aggregate is written instead of the records.
+     *
+     * @param out      - the writer
+     * @param renderer - the renderer, one of {@link ResultRenderers}
+     * @param offset   - number of selected records skipped
+     * @param limit    - maximum number of records written
+     * @throws IOException              if the writer fails
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    public void write(Writer out, IResultRenderer renderer, int offset, int limit) throws IOException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit can't be negative.");
+        }
+        if (aggregate == QueryAggregate.COUNT) {
+            out.write("Count: " + aggregatedCount + "\n");
+            return;
+        } else if (aggregate == QueryAggregate.AVG) {
+            out.write(aggregatedCount == 0 ? "Average grade: none\n"
+                    : String.format(Locale.ROOT, "Average grade: %.2f (%d records)\n", getAggregateValue(),
+                            aggregatedCount));
+            return;
+        }
+        int from = Math.min(offset, records.size());
+        int to = (int) Math.min(records.size(), (long) from + limit);
+        if (renderer == ResultRenderers.TABLE && from < to) {
+            if (direct) {
+                out.write("Using index for record retrieval.\n");
+            } else if (usedIndex != null) {
+                out.write("Using " + usedIndex.getName() + " index for record retrieval.\n");
+            }
+        }
+        renderer.render(out, records, from, to);
+    }
+}
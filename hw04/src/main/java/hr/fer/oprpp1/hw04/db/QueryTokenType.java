@@ -9,8 +9,19 @@ public enum QueryTokenType {
     JMBAG,
     LASTNAME,
     FIRSTNAME,
+    FINALGRADE,
     AND,
+    OR,
+    NOT,
+    LPAREN, // (
+    RPAREN, // )
+    COUNT,
+    AVG,
+    LIMIT,
+    OFFSET,
+    NUMBER, // digits only
     STRING,
+    PARAMETER, // ?
     LIKE, // LIKE
     COMPARISON_OPERATOR, // > < >= <= = !=
     EOF
@@ -0,0 +1,218 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Renderers of selected student records.
+ */
+public class ResultRenderers {
+    /**
+     * Renders the records as a table with a column for every field, each column
+     * as wide as its widest value, followed by the number of records.
+     */
+    public static final IResultRenderer TABLE = (out, records, from, to) -> {
+        if (from == to) {
+            out.write("Records selected: 0\n");
+            return;
+        }
+        int[] widths = new int[4]; // jmbag, lastname, firstname, grade
+        for (int i = from; i < to; i++) {
+            StudentRecord record = records.get(i);
+            widths[0] = Math.max(widths[0], record.getJmbag().length());
+            widths[1] = Math.max(widths[1], record.getLastName().length());
+            widths[2] = Math.max(widths[2], record.getFirstName().length());
+            widths[3] = Math.max(widths[3], gradeLength(record.getFinalGrade()));
+        }
+        writeBoundary(out, widths);
+        for (int i = from; i < to; i++) {
+            StudentRecord record = records.get(i);
+            out.write('|');
+            writeCell(out, record.getJmbag(), widths[0]);
+            writeCell(out, record.getLastName(), widths[1]);
+            writeCell(out, record.getFirstName(), widths[2]);
+            writeCell(out, Integer.toString(record.getFinalGrade()), widths[3]);
+            out.write('\n');
+        }
+        writeBoundary(out, widths);
+        out.write("Records selected: ");
+        out.write(Integer.toString(to - from));
+        out.write('\n');
+    };
+
+    /**
+     * Renders the records as comma separated values, preceded by a line naming
+     * the fields. Values holding a comma, a quote or a line break are quoted.
+     */
+    public static final IResultRenderer CSV = (out, records, from, to) -> {
+        out.write("jmbag,lastName,firstName,finalGrade\n");
+        for (int i = from; i < to; i++) {
+            StudentRecord record = records.get(i);
+            writeCsv(out, record.getJmbag());
+            out.write(',');
+            writeCsv(out, record.getLastName());
+            out.write(',');
+            writeCsv(out, record.getFirstName());
+            out.write(',');
+            out.write(Integer.toString(record.getFinalGrade()));
+            out.write('\n');
+        }
+    };
+
+    /**
+     * Renders the records as a JSON array of objects, one object per line.
+     */
+    public static final IResultRenderer JSON = (out, records, from, to) -> {
+        out.write('[');
+        for (int i = from; i < to; i++) {
+            StudentRecord record = records.get(i);
+            out.write(i == from ? "\n  {\"jmbag\": " : ",\n  {\"jmbag\": ");
+            writeJson(out, record.getJmbag());
+            out.write(", \"lastName\": ");
+            writeJson(out, record.getLastName());
+            out.write(", \"firstName\": ");
+            writeJson(out, record.getFirstName());
+            out.write(", \"finalGrade\": ");
+            out.write(Integer.toString(record.getFinalGrade()));
+            out.write('}');
+        }
+        out.write(from == to ? "]\n" : "\n]\n");
+    };
+
+    /**
+     * Spaces used for padding the cells of a table.
+     */
+    private static final String SPACES = " ".repeat(64);
+
+    /**
+     * Equal signs used for the boundaries of a table.
+     */
+    private static final String EQUALS = "=".repeat(64);
+
+    /**
+     * Returns the renderer with the given name, table, csv or json.
+     * 
+     * @param name - name of the renderer, case insensitive
+     * @return - the renderer
+     * @throws IllegalArgumentException if there is no renderer with the name
+     */
+    public static IResultRenderer forName(String name) {
+        return switch (name.toLowerCase()) {
+            case "table" -> TABLE;
+            case "csv" -> CSV;
+            case "json" -> JSON;
+            default -> throw new IllegalArgumentException("Unknown format: " + name);
+        };
+    }
+
+    /**
+     * Returns the number of digits of the given grade.
+     * 
+     * @param grade - the grade
+     * @return - the number of characters of the grade
+     */
+    private static int gradeLength(int grade) {
+        return grade >= 0 && grade < 10 ? 1 : Integer.toString(grade).length();
+    }
+
+    /**
+     * Writes a cell of a table, the value padded to the width of the column and
+     * followed by the column separator.
+     * 
+     * @param out   - the writer
+     * @param value - value of the cell
+     * @param width - width of the column
+     * @throws IOException if the writer fails
+     */
+    private static void writeCell(Writer out, String value, int width) throws IOException {
+        out.write(' ');
+        out.write(value);
+        repeat(out, SPACES, 1 + width - value.length());
+        out.write('|');
+    }
+
+    /**
+     * Writes the top or bottom boundary of a table.
+     * 
+     * @param out    - the writer
+     * @param widths - widths of the columns
+     * @throws IOException if the writer fails
+     */
+    private static void writeBoundary(Writer out, int[] widths) throws IOException {
+        for (int width : widths) {
+            out.write('+');
+            repeat(out, EQUALS, width + 2);
+        }
+        out.write("+\n");
+    }
+
+    /**
+     * Writes the given number of characters of a string made of a single
+     * repeated character.
+     * 
+     * @param out    - the writer
+     * @param filler - the repeated character
+     * @param count  - number of characters to be written
+     * @throws IOException if the writer fails
+     */
+    private static void repeat(Writer out, String filler, int count) throws IOException {
+        while (count > 0) {
+            int length = Math.min(count, filler.length());
+            out.write(filler, 0, length);
+            count -= length;
+        }
+    }
+
+    /**
+     * Writes a CSV value, quoting it if needed.
+     * 
+     * @param out   - the writer
+     * @param value - the value
+     * @throws IOException if the writer fails
+     */
+    private static void writeCsv(Writer out, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * Writes a JSON string, escaping the characters that have to be escaped.
+     * 
+     * @param out   - the writer
+     * @param value - the value
+     * @throws IOException if the writer fails
+     */
+    private static void writeJson(Writer out, String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) {
+                continue;
+            }
+            out.write(value, start, i - start);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\t' -> out.write("\\t");
+                case '\r' -> out.write("\\r");
+                default -> out.write(String.format("\\u%04x", (int) c));
+            }
+            start = i + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,380 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes snapshots, compact binary files holding all the records of
+ * a database. A snapshot consists of:
+ * <ul>
+ * <li>a header, the magic number, the format version and the number of
+ * records,</li>
+ * <li>a string table holding every distinct first and last name once,</li>
+ * <li>the records, each being its jmbag followed by the positions of its last
+ * and first name in the string table and its grade,</li>
+ * <li>the jmbag index, the positions of the records sorted by jmbag. Reading
+ * checks it in a single pass and hands it over, so the database builds its
+ * jmbag map and index in that order without sorting or checking the
+ * uniqueness of the jmbags again.</li>
+ * </ul>
+ * Strings are stored as their length followed by their UTF-8 bytes, numbers
+ * as variable length integers, seven bits per byte. Snapshots are read and
+ * written sequentially through a single buffer, so reading one is dominated by
+ * the read itself rather than by tokenizing.
+ */
+class SnapshotFile {
+    /**
+     * Magic number a snapshot starts with.
+     */
+    static final int MAGIC = 0x53444253;
+
+    /**
+     * Version of the format written.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the buffer used for reading and writing.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private SnapshotFile() {
+    }
+
+    /**
+     * The contents of a snapshot.
+     *
+     * @param records    - the records, the row id of a record being its position
+     * @param jmbagOrder - the row ids of the records sorted by jmbag, the jmbags
+     *                   being unique
+     */
+    record Contents(ArrayList<StudentRecord> records, int[] jmbagOrder) {
+    }
+
+    /**
+     * Writes the given records into a snapshot. The snapshot is written into a
+     * temporary file which then replaces the given one, so a crash never leaves a
+     * partially written snapshot behind.
+     *
+     * @param path       - path of the snapshot
+     * @param records    - the records
+     * @param jmbagOrder - positions of the records sorted by jmbag, e.g. read from
+     *                   the jmbag index
+     * @throws IOException              if the snapshot can't be written
+     * @throws IllegalArgumentException if the order doesn't hold every record
+     */
+    static void write(Path path, List<StudentRecord> records, int[] jmbagOrder) throws IOException {
+        if (jmbagOrder.length != records.size()) {
+            throw new IllegalArgumentException("The jmbag order must hold every record.");
+        }
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (StudentRecord record : records) {
+            for (String name : new String[] { record.getLastName(), record.getFirstName() }) {
+                if (ids.putIfAbsent(name, strings.size()) == null) {
+                    strings.add(name);
+                }
+            }
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putVarint(VERSION);
+            out.putVarint(records.size());
+            out.putVarint(strings.size());
+            for (String string : strings) {
+                out.putString(string);
+            }
+            for (StudentRecord record : records) {
+                out.putString(record.getJmbag());
+                out.putVarint(ids.get(record.getLastName()));
+                out.putVarint(ids.get(record.getFirstName()));
+                out.putVarint(record.getFinalGrade());
+            }
+            for (int row : jmbagOrder) {
+                out.putVarint(row);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the records and the jmbag index from a snapshot.
+     *
+     * @param path - path of the snapshot
+     * @return - the records, in the order they were written, and their order by
+     *         jmbag
+     * @throws IOException              if the snapshot can't be read or is
+     *                                  truncated
+     * @throws IllegalArgumentException if the file isn't a snapshot, is of an
+     *                                  unsupported version or is corrupt
+     */
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Input in = new Input(channel);
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a snapshot: " + path);
+            }
+            int version = in.getVarint();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+            }
+            int count = in.getVarint();
+            int stringCount = in.getVarint();
+            // every record and string takes at least a byte, guards against corrupt counts
+            if (count > channel.size() || stringCount > channel.size()) {
+                throw new IllegalArgumentException("Corrupt snapshot, invalid number of records.");
+            }
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.getString();
+            }
+
+            ArrayList<StudentRecord> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String jmbag = in.getString();
+                String lastName = string(strings, in.getVarint());
+                String firstName = string(strings, in.getVarint());
+                int grade = in.getVarint();
+                if (grade < 1 || grade > 5) {
+                    throw new IllegalArgumentException("Corrupt snapshot, invalid grade: " + grade);
+                }
+                records.add(new StudentRecord(jmbag, lastName, firstName, grade));
+            }
+
+            int[] jmbagOrder = new int[count];
+            String previous = null;
+            for (int i = 0; i < count; i++) {
+                int row = in.getVarint();
+                jmbagOrder[i] = row;
+                if (row >= count) {
+                    throw new IllegalArgumentException("Corrupt snapshot, invalid jmbag index.");
+                }
+                String jmbag = records.get(row).getJmbag();
+                if (previous != null && previous.compareTo(jmbag) >= 0) {
+                    throw new IllegalArgumentException("Corrupt snapshot, jmbags are not unique and sorted.");
+                }
+                previous = jmbag;
+            }
+            return new Contents(records, jmbagOrder);
+        }
+    }
+
+    /**
+     * Returns the string at the given position of the string table.
+     *
+     * @param strings - the string table
+     * @param id      - the position
+     * @return - the string
+     * @throws IllegalArgumentException if the position is out of the table
+     */
+    private static String string(String[] strings, int id) {
+        if (id >= strings.length) {
+            throw new IllegalArgumentException("Corrupt snapshot, invalid string: " + id);
+        }
+        return strings[id];
+    }
+
+    /**
+     * Buffered sequential writer of snapshot values to a channel.
+     */
+    private static class Output {
+        /**
+         * The channel written to.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Buffer of the values not yet written to the channel.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Makes room for the given number of bytes, at most the size of the buffer.
+         *
+         * @param bytes - number of bytes
+         * @throws IOException if the buffer can't be written
+         */
+        private void reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes an int as four bytes.
+         *
+         * @param value - the value
+         * @throws IOException if the channel can't be written
+         */
+        private void putInt(int value) throws IOException {
+            reserve(4);
+            buffer.putInt(value);
+        }
+
+        /**
+         * Writes a non-negative int as a variable length integer.
+         *
+         * @param value - the value
+         * @throws IOException if the channel can't be written
+         */
+        private void putVarint(int value) throws IOException {
+            reserve(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) (value & 0x7F | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        /**
+         * Writes a string as its length followed by its UTF-8 bytes.
+         *
+         * @param value - the string
+         * @throws IOException if the channel can't be written
+         */
+        private void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(bytes.length);
+            for (int offset = 0; offset < bytes.length;) {
+                reserve(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        /**
+         * Writes the buffered values to the channel.
+         *
+         * @throws IOException if the buffer can't be written
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Buffered sequential reader of snapshot values from a channel.
+     */
+    private static class Input {
+        /**
+         * The channel read from.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Buffer of the values read from the channel but not yet consumed.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private Input(FileChannel channel) {
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        /**
+         * Makes sure the given number of bytes, at most the size of the buffer, is
+         * buffered.
+         *
+         * @param bytes - number of bytes
+         * @throws IOException if the channel can't be read or ends too soon
+         */
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Snapshot is truncated.");
+                }
+            }
+            buffer.flip();
+        }
+
+        /**
+         * Reads an int stored as four bytes.
+         *
+         * @return - the value
+         * @throws IOException if the channel can't be read
+         */
+        private int getInt() throws IOException {
+            require(4);
+            return buffer.getInt();
+        }
+
+        /**
+         * Reads a non-negative variable length integer.
+         *
+         * @return - the value
+         * @throws IOException if the channel can't be read
+         */
+        private int getVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                require(1);
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    if (value < 0) {
+                        break;
+                    }
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Corrupt snapshot, invalid number.");
+        }
+
+        /**
+         * Reads a string stored as its length followed by its UTF-8 bytes.
+         *
+         * @return - the string
+         * @throws IOException if the channel can't be read
+         */
+        private String getString() throws IOException {
+            int length = getVarint();
+            if (length <= BUFFER_SIZE) {
+                require(length);
+                String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                        StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+                return value;
+            }
+            byte[] bytes = new byte[length];
+            for (int offset = 0; offset < length;) {
+                require(1);
+                int chunk = Math.min(buffer.remaining(), length - offset);
+                buffer.get(bytes, offset, chunk);
+                offset += chunk;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,38 +1,134 @@
 package hr.fer.oprpp1.hw04.db;
 
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 /**
  * A simple student record database.
  */
-public class StudentDatabase {
+public class StudentDatabase implements Closeable {
     /**
-     * List of student records.
+     * List of student records, null if the records are stored in columns.
      */
     private ArrayList<StudentRecord> records;
 
     /**
-     * Map of student records, indexed by jmbag.
+     * The records stored in columns, null if they are stored as objects.
      */
-    private HashMap<String, StudentRecord> jmbagMap;
+    private ColumnarStudentTable table;
 
     /**
-     * The previous selection of records.
+     * Map of ids of the rows holding student records, indexed by jmbag.
      */
-    private ArrayList<StudentRecord> selection;
+    private HashMap<String, Integer> jmbagMap;
 
     /**
-     * Remembers whether the previous selection was direct or not.
+     * Sorted secondary indexes, one for every field of the records.
      */
-    private boolean usedIndexed;
+    private List<FieldIndex> indexes;
+
+    /**
+     * Planner choosing the access path and the order of the expressions of
+     * queries.
+     */
+    private QueryPlanner planner;
+
+    /**
+     * Number of times the indexes and the planner were rebuilt, by which prepared
+     * queries notice that their plans are stale.
+     */
+    private int generation;
+
+    /**
+     * Cache of the results of the latest queries.
+     */
+    private final QueryCache cache = new QueryCache();
+
+    /**
+     * Number of worker threads filtering the records, 1 for sequential filtering.
+     */
+    private int parallelism = 1;
+
+    /**
+     * Number of records below which filtering is sequential regardless of the
+     * number of workers.
+     */
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * Pool of the workers, created when first needed.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Default number of records below which filtering is sequential.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    /**
+     * Default number of changes after which the database is compacted.
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+
+    /**
+     * Log the changes are written to before being applied, null if the database
+     * isn't persistent.
+     */
+    private WriteAheadLog log;
+
+    /**
+     * Path of the snapshot the database is compacted into, null if the database
+     * isn't persistent.
+     */
+    private Path snapshot;
+
+    /**
+     * Number of changes after which the database is compacted.
+     */
+    private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    /**
+     * Number of changes since the database was last compacted.
+     */
+    private int changes;
+
+    /**
+     * Why the compaction made by the last change failed, null if it succeeded or
+     * none was made.
+     */
+    private IOException compactionFailure;
+
+    /**
+     * Number of servers serving the database, which can't be changed while there
+     * are any. Guarded by the database, which the changes hold as well, so a
+     * server can't be attached in the middle of a change.
+     */
+    private int servers;
+
+    /**
+     * The result of the previous selection.
+     */
+    private QueryResult selection = new QueryResult(List.of(), false, null);
 
     /**
      * Creates a new student database from a list of student records.
@@ -40,10 +136,251 @@ public class StudentDatabase {
      * @param records - list of student records
      */
     public StudentDatabase(List<String> lines) {
-        records = new ArrayList<>();
-        jmbagMap = new HashMap<>();
-        selection = new ArrayList<>();
+        this(lines, false);
+    }
+
+    /**
+     * Creates a new student database from a list of student records, optionally
+     * storing them in columns. Columnar storage takes less memory and evaluates
+     * queries one expression at a time over whole columns, which suits queries
+     * that scan many records.
+     * 
+     * @param lines    - list of student records
+     * @param columnar - whether to store the records in columns
+     */
+    public StudentDatabase(List<String> lines, boolean columnar) {
+        this(parseLines(lines), columnar);
+    }
+
+    /**
+     * Creates a new student database holding the given records, which become
+     * owned by the database. Builds the indexes and statistics over them.
+     * 
+     * @param records  - the records, in the order they were read, the row id of a
+     *                 record being its position
+     * @param columnar - whether to store the records in columns
+     * @throws IllegalArgumentException if two records have the same jmbag
+     */
+    private StudentDatabase(ArrayList<StudentRecord> records, boolean columnar) {
+        this(records, null, columnar);
+    }
+
+    /**
+     * Creates a new student database holding the given records, which become
+     * owned by the database, whose order by jmbag is known.
+     * 
+     * @param records    - the records, the row id of a record being its position
+     * @param jmbagOrder - the row ids sorted by jmbag, the jmbags being unique, or
+     *                   null if the order isn't known
+     * @param columnar   - whether to store the records in columns
+     * @throws IllegalArgumentException if two records have the same jmbag
+     */
+    private StudentDatabase(ArrayList<StudentRecord> records, int[] jmbagOrder, boolean columnar) {
+        build(records, jmbagOrder);
+        if (columnar) {
+            table = new ColumnarStudentTable(records);
+            this.records = null;
+        }
+    }
+
+    /**
+     * Makes the given records the records of the database, building the indexes
+     * and statistics over them. If the order of the records by jmbag is known,
+     * the jmbag map and index are filled in that order and the jmbags aren't
+     * checked for uniqueness again.
+     * 
+     * @param records    - the records, the row id of a record being its position
+     * @param jmbagOrder - the row ids sorted by jmbag, the jmbags being unique, or
+     *                   null if the order isn't known
+     * @throws IllegalArgumentException if two records have the same jmbag
+     */
+    private void build(ArrayList<StudentRecord> records, int[] jmbagOrder) {
+        this.records = records;
+        jmbagMap = new HashMap<>(records.size() * 4 / 3 + 1);
+        indexes = List.of(
+                new FieldIndex("jmbag", FieldValueGetters.JMBAG, false),
+                new FieldIndex("lastName", FieldValueGetters.LAST_NAME),
+                new FieldIndex("firstName", FieldValueGetters.FIRST_NAME),
+                new FieldIndex("finalGrade", FieldValueGetters.FINAL_GRADE, false));
+
+        if (jmbagOrder != null) {
+            FieldIndex jmbagIndex = indexes.get(0);
+            for (int row : jmbagOrder) {
+                StudentRecord record = records.get(row);
+                jmbagMap.put(record.getJmbag(), row);
+                jmbagIndex.add(record, row);
+            }
+            for (int row = 0; row < records.size(); row++) {
+                for (FieldIndex index : indexes.subList(1, indexes.size())) {
+                    index.add(records.get(row), row);
+                }
+            }
+        } else {
+            for (int row = 0; row < records.size(); row++) {
+                StudentRecord record = records.get(row);
+                if (jmbagMap.putIfAbsent(record.getJmbag(), row) != null) {
+                    throw new IllegalArgumentException(
+                            "Jmbag is not unique for line " + (row + 1) + ": " + record.getJmbag());
+                }
+                for (FieldIndex index : indexes) {
+                    index.add(record, row);
+                }
+            }
+        }
+
+        List<FieldStatistics> statistics = new ArrayList<>();
+        for (FieldIndex index : indexes) {
+            statistics.add(new FieldStatistics(index.getFieldGetter(), records));
+        }
+        planner = new QueryPlanner(indexes, statistics, records.size());
+        generation++;
+    }
+
+    /**
+     * Loads a database from the given file of tab separated records. The file is
+     * memory mapped and the fields are decoded straight from the mapped bytes,
+     * large files being split on line boundaries and parsed in parallel. Grades
+     * and uniqueness of jmbags are checked as the records are read.
+     * 
+     * @param path - path of the file
+     * @return - the loaded database
+     * @throws IOException              if the file can't be read
+     * @throws IllegalArgumentException if a line is invalid, the message stating
+     *                                  its number
+     */
+    public static StudentDatabase load(Path path) throws IOException {
+        return load(path, false);
+    }
+
+    /**
+     * Loads a database from the given file of tab separated records, optionally
+     * storing them in columns. See {@link #load(Path)}.
+     * 
+     * @param path     - path of the file
+     * @param columnar - whether to store the records in columns
+     * @return - the loaded database
+     * @throws IOException              if the file can't be read
+     * @throws IllegalArgumentException if a line is invalid, the message stating
+     *                                  its number
+     */
+    public static StudentDatabase load(Path path, boolean columnar) throws IOException {
+        return new StudentDatabase(MappedRecordLoader.load(path), columnar);
+    }
+
+    /**
+     * Loads a database from the given snapshot, written by
+     * {@link #writeSnapshot(Path)}.
+     * 
+     * @param path - path of the snapshot
+     * @return - the loaded database
+     * @throws IOException              if the snapshot can't be read
+     * @throws IllegalArgumentException if the file isn't a valid snapshot
+     */
+    public static StudentDatabase readSnapshot(Path path) throws IOException {
+        return readSnapshot(path, false);
+    }
+
+    /**
+     * Loads a database from the given snapshot, optionally storing the records in
+     * columns. See {@link #readSnapshot(Path)}.
+     * 
+     * @param path     - path of the snapshot
+     * @param columnar - whether to store the records in columns
+     * @return - the loaded database
+     * @throws IOException              if the snapshot can't be read
+     * @throws IllegalArgumentException if the file isn't a valid snapshot
+     */
+    public static StudentDatabase readSnapshot(Path path, boolean columnar) throws IOException {
+        SnapshotFile.Contents contents = SnapshotFile.read(path);
+        return new StudentDatabase(contents.records(), contents.jmbagOrder(), columnar);
+    }
+
+    /**
+     * Writes all the records of the database into a snapshot, a compact binary
+     * file that loads much faster than the tab separated text. The names are
+     * stored once in a string table and the records refer to them, followed by
+     * an index of the records sorted by jmbag.
+     * 
+     * @param path - path of the snapshot, replaced atomically if it exists
+     * @throws IOException if the snapshot can't be written
+     */
+    public void writeSnapshot(Path path) throws IOException {
+        SnapshotFile.Contents live = liveRecords();
+        SnapshotFile.write(path, live.records(), live.jmbagOrder());
+    }
+
+    /**
+     * Returns the records that aren't deleted, in the order of their rows, and
+     * their order by jmbag, read from the jmbag index.
+     * 
+     * @return - the live records and their order by jmbag
+     */
+    private SnapshotFile.Contents liveRecords() {
+        ArrayList<StudentRecord> live = new ArrayList<>(count());
+        int[] positions = new int[size()];
+        for (int row = 0; row < size(); row++) {
+            StudentRecord record = record(row);
+            if (record != null) {
+                positions[row] = live.size();
+                live.add(record);
+            }
+        }
+        int[] jmbagOrder = indexes.get(0).rowsInOrder();
+        for (int i = 0; i < jmbagOrder.length; i++) {
+            jmbagOrder[i] = positions[jmbagOrder[i]];
+        }
+        return new SnapshotFile.Contents(live, jmbagOrder);
+    }
 
+    /**
+     * Opens a persistent database stored in the given directory. The database is
+     * read from the snapshot in the directory and the changes logged after the
+     * snapshot was written are applied to it. A directory without a snapshot is
+     * initialized with the records of the given file of tab separated records, or
+     * with no records if there is no file.
+     * 
+     * @param directory    - the directory holding the snapshot and the log
+     * @param initial      - file of tab separated records the database is
+     *                     initialized with, may be null
+     * @param syncInterval - number of changes after which the log is forced to the
+     *                     disk, 1 to force every change, 0 to force it only when
+     *                     the database is synced or closed
+     * @return - the opened database
+     * @throws IOException              if the directory can't be read or written
+     * @throws IllegalArgumentException if the initial records are invalid or
+     *                                  syncInterval is negative
+     */
+    public static StudentDatabase open(Path directory, Path initial, int syncInterval) throws IOException {
+        Files.createDirectories(directory);
+        Path snapshot = directory.resolve("snapshot.db");
+        StudentDatabase db;
+        if (Files.exists(snapshot)) {
+            SnapshotFile.Contents contents = SnapshotFile.read(snapshot);
+            db = new StudentDatabase(contents.records(), contents.jmbagOrder(), false);
+        } else {
+            db = new StudentDatabase(initial != null && Files.exists(initial) ? MappedRecordLoader.load(initial)
+                    : new ArrayList<>(), false);
+            db.writeSnapshot(snapshot);
+        }
+        db.snapshot = snapshot;
+        db.log = new WriteAheadLog(directory.resolve("wal.log"), syncInterval);
+        db.log.replay(db::apply);
+        db.changes = db.log.size();
+        if (db.changes >= db.compactionThreshold) {
+            db.compact();
+        }
+        return db;
+    }
+
+    /**
+     * Parses the given lines into records.
+     * 
+     * @param lines - lines of tab separated records
+     * @return - the records
+     * @throws IllegalArgumentException if a line is invalid
+     */
+    private static ArrayList<StudentRecord> parseLines(List<String> lines) {
+        ArrayList<StudentRecord> records = new ArrayList<>(lines.size());
         for (String line : lines) {
             String[] rows = line.split("\t");
             if (rows.length != 4) {
@@ -52,13 +389,38 @@ public class StudentDatabase {
             if (!checkGrade(rows[3])) {
                 throw new IllegalArgumentException("Invalid grade for line: " + line);
             }
-            if (jmbagMap.containsKey(rows[0])) {
-                throw new IllegalArgumentException("Jmbag is not unique for line: " + line);
-            }
-            StudentRecord record = new StudentRecord(rows[0], rows[1], rows[2], Integer.parseInt(rows[3]));
-            records.add(record);
-            jmbagMap.put(rows[0], record);
+            records.add(new StudentRecord(rows[0], rows[1], rows[2], Integer.parseInt(rows[3])));
         }
+        return records;
+    }
+
+    /**
+     * Returns the number of rows of the database, including the rows of deleted
+     * records.
+     * 
+     * @return - the number of rows
+     */
+    private int size() {
+        return records != null ? records.size() : table.size();
+    }
+
+    /**
+     * Returns the number of records in the database.
+     * 
+     * @return - the number of records
+     */
+    public int count() {
+        return jmbagMap.size();
+    }
+
+    /**
+     * Returns the record stored in the given row.
+     * 
+     * @param row - the row id
+     * @return - the record, null if it was deleted
+     */
+    private StudentRecord record(int row) {
+        return records != null ? records.get(row) : table.record(row);
     }
 
     /**
@@ -68,7 +430,8 @@ public class StudentDatabase {
      * @return student record with the given jmbag
      */
     public StudentRecord forJMBAG(String jmbag) {
-        return jmbagMap.getOrDefault(jmbag, null);
+        Integer row = jmbagMap.get(jmbag);
+        return row == null ? null : record(row);
     }
 
     /**
@@ -78,7 +441,167 @@ public class StudentDatabase {
      * @return - list of all records that satisfy the given filter
      */
     public List<StudentRecord> filter(IFilter filter) {
-        return records.stream().filter(filter::accepts).collect(Collectors.toList());
+        if (parallelism > 1 && size() >= parallelThreshold) {
+            int chunk = Math.max(1, size() / (4 * parallelism));
+            return pool().invoke(new FilterTask(filter, 0, size(), chunk));
+        }
+        if (records == null) {
+            return IntStream.range(0, size()).mapToObj(this::record).filter(filter::accepts)
+                    .collect(Collectors.toList());
+        }
+        return records.stream().filter(record -> record != null && filter.accepts(record))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the pool of the workers, creating it when first needed. Queries run
+     * by several threads at once share a single pool.
+     * 
+     * @return - the pool of the workers
+     */
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Sets the number of worker threads filtering the records and the number of
+     * records below which filtering stays sequential. The workers split the
+     * records into ranges, filter them in parallel and the results are merged in
+     * the order of the records.
+     * 
+     * @param parallelism - number of workers, 1 for sequential filtering
+     * @param threshold   - number of records below which filtering is sequential
+     * @throws IllegalArgumentException if parallelism is less than 1 or threshold
+     *                                  is negative
+     */
+    public void setParallelism(int parallelism, int threshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold can't be negative.");
+        }
+        if (pool != null && parallelism != this.parallelism) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.parallelism = parallelism;
+        this.parallelThreshold = threshold;
+    }
+
+    /**
+     * Filters a range of rows, splitting it in half until it is small enough to
+     * be filtered directly. The results of the halves are joined in order.
+     */
+    private class FilterTask extends RecursiveTask<List<StudentRecord>> {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The filter to be satisfied.
+         */
+        private final IFilter filter;
+
+        /**
+         * First row of the range.
+         */
+        private final int from;
+
+        /**
+         * Row after the last one of the range.
+         */
+        private final int to;
+
+        /**
+         * Size of a range that is filtered directly.
+         */
+        private final int chunk;
+
+        private FilterTask(IFilter filter, int from, int to, int chunk) {
+            this.filter = filter;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected List<StudentRecord> compute() {
+            if (to - from <= chunk) {
+                List<StudentRecord> result = new ArrayList<>();
+                for (int row = from; row < to; row++) {
+                    StudentRecord record = record(row);
+                    if (record != null && filter.accepts(record)) {
+                        result.add(record);
+                    }
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            FilterTask left = new FilterTask(filter, from, middle, chunk);
+            left.fork();
+            List<StudentRecord> right = new FilterTask(filter, middle, to, chunk).compute();
+            List<StudentRecord> result = left.join();
+            result.addAll(right);
+            return result;
+        }
+    }
+
+    /**
+     * Returns a list of all records selected by the given plan, in the order they
+     * are stored in the database. Only the records found by the plan's access path
+     * are read and checked against the residual expressions.
+     * 
+     * @param plan - the plan to be executed
+     * @return - list of all records selected by the plan
+     */
+    List<StudentRecord> execute(QueryPlan plan) {
+        if (table != null) {
+            return executeColumnar(plan);
+        }
+        IFilter filter = new QueryFilter(plan.getResidual());
+        if (plan.getIndex() == null) {
+            return filter(filter);
+        }
+        BitSet rows = plan.getIndex().lookup(plan.getIndexedExpression());
+        List<StudentRecord> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            StudentRecord record = record(row);
+            if (filter.accepts(record)) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Executes the given plan over the columns. The rows found by the access path
+     * form a selection bitmap, which each residual expression narrows down in
+     * turn, and only the rows left at the end are built into records.
+     * 
+     * @param plan - the plan to be executed
+     * @return - list of all records selected by the plan
+     */
+    private List<StudentRecord> executeColumnar(QueryPlan plan) {
+        BitSet rows;
+        if (plan.getIndex() == null) {
+            rows = new BitSet(table.size());
+            rows.set(0, table.size());
+        } else {
+            rows = plan.getIndex().lookup(plan.getIndexedExpression());
+        }
+        for (ConditionalExpression expression : plan.getResidual()) {
+            if (rows.isEmpty()) {
+                break;
+            }
+            table.filter(expression, rows);
+        }
+        List<StudentRecord> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            result.add(table.record(row));
+        }
+        return result;
     }
 
     /**
@@ -87,7 +610,7 @@ public class StudentDatabase {
      * @param grade - the grade to check
      * @return - true if the grade is valid, false otherwise
      */
-    private boolean checkGrade(Object grade) {
+    private static boolean checkGrade(Object grade) {
         try {
             int gradeInt = Integer.parseInt(grade.toString());
             return gradeInt >= 1 && gradeInt <= 5;
@@ -97,88 +620,586 @@ public class StudentDatabase {
     }
 
     /**
-     * Returns a list of all records that satisfy the given query.
+     * Selects all records that satisfy the given query, the selection being
+     * rendered by {@link #getResult()} and {@link #writeResult(Writer, IResultRenderer)}.
      * 
      * @param queryText - query to be satisfied
-     * @return - list of all records that satisfy the given query
+     * @throws IllegalArgumentException if the query has parameters, see
+     *                                  {@link #prepare(String)}
      */
     public void select(String queryText) {
+        selection = query(queryText);
+    }
+
+    /**
+     * Returns the result of the given query, leaving the selection unchanged.
+     * Results of queries that aren't direct are cached until the records change.
+     * A query starting with an aggregate computes it in a single pass over the
+     * matching records instead of selecting them. Queries can be run by several
+     * threads at once as long as the records aren't changed meanwhile. The records
+     * of the result are an unmodifiable view shared with the cache.
+     * 
+     * @param queryText - query to be satisfied
+     * @return - the result of the query
+     * @throws IllegalArgumentException if the query has parameters, see
+     *                                  {@link #prepare(String)}
+     */
+    public QueryResult query(String queryText) {
         QueryParser parser = new QueryParser(queryText);
-        selection.clear();
+        if (!parser.getParameters().isEmpty()) {
+            throw new IllegalArgumentException("Query has parameters, it has to be prepared.");
+        }
+        if (parser.getAggregate() != null) {
+            return aggregate(parser.getAggregate(), parser.getExpression());
+        }
+        List<StudentRecord> selected;
+        FieldIndex usedIndex = null;
         if (parser.isDirectQuery()) {
-            usedIndexed = true;
             StudentRecord record = forJMBAG(parser.getQueriedJMBAG());
-            if (record != null) {
-                selection.add(record);
+            selected = record == null ? List.of() : List.of(record);
+        } else if (parser.isConjunction()) {
+            String key = QueryCache.keyOf(parser.getQuery());
+            QueryCache.Result result = cache.get(key);
+            if (result == null) {
+                QueryPlan plan = planner.plan(parser.getQuery());
+                result = cache.put(key, execute(plan), plan.getIndex());
             }
+            usedIndex = result.usedIndex();
+            selected = result.records();
         } else {
-            usedIndexed = false;
-            selection = new ArrayList<>(filter(new QueryFilter(parser.getQuery())));
+            String key = parser.getExpression().toString();
+            QueryCache.Result result = cache.get(key);
+            if (result == null) {
+                List<StudentRecord> records = new ArrayList<>();
+                scan(planner.optimize(parser.getExpression()), records::add);
+                result = cache.put(key, records, null);
+            }
+            selected = result.records();
         }
+        int from = Math.min(parser.getOffset(), selected.size());
+        int to = parser.getLimit() < 0 ? selected.size()
+                : (int) Math.min(selected.size(), (long) from + parser.getLimit());
+        return new QueryResult(selected.subList(from, to), parser.isDirectQuery(), usedIndex);
     }
 
     /**
-     * Returns the selection in a easily readable format.
+     * Prepares the given query, which may have parameters written as ? in place of
+     * its literals, e.g. lastName LIKE ? and jmbag &gt; ?. The query is parsed and
+     * planned once and can then be executed many times with different values of
+     * the parameters.
      * 
-     * @return the selection in a easily readable format
+     * @param queryText - the query
+     * @return - the prepared query
+     * @throws IllegalArgumentException if the query computes an aggregate
      */
-    public String getResult() {
-        if (selection.isEmpty()) {
-            return "Records selected: 0\n";
-        }
-        int[] maxLen = { 0, 0, 0, 0 }; // jmbag, lastname, firstname, grade
-        for (var record : selection) {
-            maxLen[0] = Math.max(maxLen[0], record.getJmbag().length());
-            maxLen[1] = Math.max(maxLen[1], record.getLastName().length());
-            maxLen[2] = Math.max(maxLen[2], record.getFirstName().length());
-            maxLen[3] = Math.max(maxLen[3], Integer.toString(record.getFinalGrade()).length());
-        }
-        StringBuilder sb = new StringBuilder();
-        if (usedIndexed)
-            sb.append("Using index for record retrieval.\n");
-        appendVerticalBoundary(sb, maxLen);
-        for (StudentRecord record : selection) {
-            sb.append("|");
-            String[] arrRecord = record.toArray();
-            for (int i = 0; i < 4; i++) {
-                sb.append(" ").append(arrRecord[i]);
-                for (int w = 0; w < 1 + maxLen[i] - arrRecord[i].length(); w++) {
-                    sb.append(" ");
+    public PreparedQuery prepare(String queryText) {
+        return new PreparedQuery(this, new QueryParser(queryText));
+    }
+
+    /**
+     * Returns the planner of the queries, replaced whenever the indexes are
+     * rebuilt.
+     * 
+     * @return - the planner
+     */
+    QueryPlanner getPlanner() {
+        return planner;
+    }
+
+    /**
+     * Returns the number of times the indexes and the planner were rebuilt.
+     * 
+     * @return - the generation of the indexes
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the cache of query results, through which its capacity can be set
+     * and its hits and misses read.
+     * 
+     * @return - the cache of query results
+     */
+    public QueryCache getQueryCache() {
+        return cache;
+    }
+
+    /**
+     * Describes how the given query would be executed, without executing it.
+     * 
+     * @param queryText - the query
+     * @return - the description of the query's plan
+     */
+    public String explain(String queryText) {
+        QueryParser parser = new QueryParser(queryText);
+        if (parser.isDirectQuery()) {
+            return "Access path: jmbag primary key lookup (at most 1 of " + count() + " records)\n";
+        }
+        if (!parser.isConjunction()) {
+            return planner.explain(parser.getExpression());
+        }
+        return planner.plan(parser.getQuery()).explain();
+    }
+
+    /**
+     * Computes the aggregate of the records satisfying the given expression tree,
+     * without selecting them. If the indexes answer the tree exactly, the records
+     * are counted without being read.
+     * 
+     * @param aggregate - the aggregate
+     * @param tree      - root of the expression tree
+     * @return - the result holding the value of the aggregate
+     */
+    private QueryResult aggregate(QueryAggregate aggregate, IQueryExpression tree) {
+        IQueryExpression optimized = planner.optimize(tree);
+        Candidates candidates = candidates(optimized);
+        if (aggregate == QueryAggregate.COUNT && candidates != null && candidates.exact()) {
+            return new QueryResult(aggregate, candidates.rows().cardinality(), 0);
+        }
+        // count and sum of the grades
+        long[] totals = new long[2];
+        scan(optimized, candidates, record -> {
+            totals[0]++;
+            totals[1] += record.getFinalGrade();
+        });
+        return new QueryResult(aggregate, totals[0], totals[1]);
+    }
+
+    /**
+     * Passes every record satisfying the given expression tree, in the order they
+     * are stored, to the given consumer. Only the records found by the indexes
+     * are checked if the indexes can narrow the tree down.
+     * 
+     * @param optimized - root of the expression tree, as reordered by the planner
+     * @param consumer  - consumer of the satisfying records
+     */
+    void scan(IQueryExpression optimized, Consumer<StudentRecord> consumer) {
+        scan(optimized, candidates(optimized), consumer);
+    }
+
+    /**
+     * Passes every record satisfying the given expression tree among the given
+     * candidates, in the order they are stored, to the given consumer.
+     * 
+     * @param optimized  - root of the expression tree, as reordered by the planner
+     * @param candidates - rows found by the indexes, null to check all the rows
+     * @param consumer   - consumer of the satisfying records
+     */
+    private void scan(IQueryExpression optimized, Candidates candidates, Consumer<StudentRecord> consumer) {
+        if (candidates == null) {
+            for (int row = 0; row < size(); row++) {
+                StudentRecord record = record(row);
+                if (record != null && optimized.test(record)) {
+                    consumer.accept(record);
                 }
-                sb.append("|");
             }
-            sb.append("\n");
+            return;
+        }
+        BitSet rows = candidates.rows();
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            StudentRecord record = record(row);
+            if (candidates.exact() || optimized.test(record)) {
+                consumer.accept(record);
+            }
         }
-        appendVerticalBoundary(sb, maxLen);
-        sb.append("Records selected: ").append(selection.size()).append("\n");
-        return sb.toString();
     }
 
     /**
-     * Takes a StringBuilder and appends top and bottom boundaries to it based on
-     * the number and length of columns.
+     * Finds the rows that may satisfy the given expression tree using the
+     * indexes. The rows of the indexed operands of a conjunction are intersected,
+     * stopping once nothing is left, and those of a disjunction united, if all of
+     * its operands are indexed.
      * 
-     * @param sb - StringBuilder to append to
-     * @param maxLen - array of maximum lengths of columns
+     * @param node - root of the expression tree
+     * @return - the candidate rows, null if the indexes can't narrow the tree down
      */
-    private void appendVerticalBoundary(StringBuilder sb, int[] maxLen) {
-        for (int i = 0; i < 4; i++) {
-            sb.append("+");
-            for (int j = 0; j < maxLen[i] + 2; j++) {
-                sb.append("=");
+    private Candidates candidates(IQueryExpression node) {
+        if (node instanceof ConditionalExpression expression) {
+            FieldIndex index = planner.indexFor(expression);
+            return index == null ? null : new Candidates(index.lookup(expression), true);
+        }
+        if (node instanceof AndExpression and) {
+            BitSet rows = null;
+            boolean exact = true;
+            for (IQueryExpression operand : and.getOperands()) {
+                Candidates candidates = candidates(operand);
+                if (candidates == null) {
+                    exact = false;
+                    continue;
+                }
+                if (rows == null) {
+                    rows = candidates.rows();
+                } else {
+                    rows.and(candidates.rows());
+                }
+                exact &= candidates.exact();
+                if (rows.isEmpty()) {
+                    return new Candidates(rows, true);
+                }
             }
+            return rows == null ? null : new Candidates(rows, exact);
         }
-        sb.append("+");
-        sb.append("\n");
+        if (node instanceof OrExpression or) {
+            BitSet rows = new BitSet();
+            boolean exact = true;
+            for (IQueryExpression operand : or.getOperands()) {
+                Candidates candidates = candidates(operand);
+                if (candidates == null) {
+                    return null;
+                }
+                rows.or(candidates.rows());
+                exact &= candidates.exact();
+            }
+            return new Candidates(rows, exact);
+        }
+        return null;
+    }
+
+    /**
+     * Rows found by the indexes for an expression tree.
+     * 
+     * @param rows  - the rows
+     * @param exact - whether the rows are exactly the ones satisfying the tree, or
+     *              only a superset of them
+     */
+    private record Candidates(BitSet rows, boolean exact) {
+    }
+
+    /**
+     * Returns the value of the aggregate computed by the previous query.
+     * 
+     * @return - the number of records for COUNT, the average grade for AVG, NaN
+     *         if the previous query computed no aggregate or averaged no records
+     */
+    public double getAggregateValue() {
+        return selection.getAggregateValue();
+    }
+
+    /**
+     * Inserts a new record. If the database is persistent, the insertion is
+     * logged before it is applied.
+     * 
+     * @param record - the record to be inserted
+     * @throws IOException                   if the change can't be logged
+     * @throws IllegalArgumentException      if a record with the same jmbag exists
+     *                                       or the grade is invalid
+     * @throws UnsupportedOperationException if the records are stored in columns
+     * @throws IllegalStateException         if the database is being served
+     */
+    public synchronized void insert(StudentRecord record) throws IOException {
+        checkChange(record);
+        if (jmbagMap.containsKey(record.getJmbag())) {
+            throw new IllegalArgumentException("Jmbag is not unique: " + record.getJmbag());
+        }
+        change(new WriteAheadLog.Entry(WriteAheadLog.Operation.INSERT, record.getJmbag(), record));
+    }
+
+    /**
+     * Replaces the record with the jmbag of the given record by the given record.
+     * If the database is persistent, the update is logged before it is applied.
+     * 
+     * @param record - the new record
+     * @throws IOException                   if the change can't be logged
+     * @throws IllegalArgumentException      if there is no record with the jmbag
+     *                                       or the grade is invalid
+     * @throws UnsupportedOperationException if the records are stored in columns
+     * @throws IllegalStateException         if the database is being served
+     */
+    public synchronized void update(StudentRecord record) throws IOException {
+        checkChange(record);
+        if (!jmbagMap.containsKey(record.getJmbag())) {
+            throw new IllegalArgumentException("No record with jmbag: " + record.getJmbag());
+        }
+        change(new WriteAheadLog.Entry(WriteAheadLog.Operation.UPDATE, record.getJmbag(), record));
+    }
+
+    /**
+     * Deletes the record with the given jmbag. If the database is persistent, the
+     * deletion is logged before it is applied.
+     * 
+     * @param jmbag - jmbag of the record to be deleted
+     * @return - true if the record was deleted, false if there was no such record
+     * @throws IOException                   if the change can't be logged
+     * @throws UnsupportedOperationException if the records are stored in columns
+     * @throws IllegalStateException         if the database is being served
+     */
+    public synchronized boolean delete(String jmbag) throws IOException {
+        checkWritable();
+        if (!jmbagMap.containsKey(jmbag)) {
+            return false;
+        }
+        change(new WriteAheadLog.Entry(WriteAheadLog.Operation.DELETE, jmbag, null));
+        return true;
+    }
+
+    /**
+     * Checks whether the records can be changed.
+     * 
+     * @throws UnsupportedOperationException if the records are stored in columns
+     * @throws IllegalStateException         if the database is being served
+     */
+    private void checkWritable() {
+        if (table != null) {
+            throw new UnsupportedOperationException("Records stored in columns can't be changed.");
+        }
+        if (servers > 0) {
+            throw new IllegalStateException("The database is being served and can't be changed.");
+        }
+    }
+
+    /**
+     * Checks whether the given record can be inserted or updated.
+     * 
+     * @param record - the record
+     * @throws IllegalArgumentException      if the grade is invalid
+     * @throws UnsupportedOperationException if the records are stored in columns
+     * @throws IllegalStateException         if the database is being served
+     */
+    private void checkChange(StudentRecord record) {
+        checkWritable();
+        if (record.getJmbag() == null || record.getLastName() == null || record.getFirstName() == null) {
+            throw new NullPointerException("Fields of the record can't be null.");
+        }
+        if (record.getFinalGrade() < 1 || record.getFinalGrade() > 5) {
+            throw new IllegalArgumentException("Invalid grade: " + record.getFinalGrade());
+        }
+    }
+
+    /**
+     * Logs the given change, applies it and compacts the database once enough
+     * changes were made. The compaction is best-effort: the change is already
+     * logged and applied, so a failed compaction doesn't fail the change. It is
+     * remembered until the next change, see {@link #getCompactionFailure()}, and
+     * retried once as many changes were made again.
+     * 
+     * @param entry - the change
+     * @throws IOException if the change can't be logged
+     */
+    private void change(WriteAheadLog.Entry entry) throws IOException {
+        compactionFailure = null;
+        if (log != null) {
+            log.append(entry.operation(), entry.jmbag(), entry.record());
+        }
+        apply(entry);
+        if (++changes >= compactionThreshold) {
+            try {
+                compact();
+            } catch (IOException | UncheckedIOException e) {
+                // the log still holds the changes, so nothing is lost until the next try
+                compactionFailure = e instanceof UncheckedIOException unchecked ? unchecked.getCause()
+                        : (IOException) e;
+                changes = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns why the automatic compaction made by the last change failed.
+     * 
+     * @return - the failure, null if the compaction succeeded or the last change
+     *         made none
+     */
+    public IOException getCompactionFailure() {
+        return compactionFailure;
+    }
+
+    /**
+     * Applies the given change to the records and indexes. A deleted record
+     * leaves an empty row behind, removed when the database is compacted.
+     * 
+     * @param entry - the change
+     */
+    private void apply(WriteAheadLog.Entry entry) {
+        Integer row = jmbagMap.get(entry.jmbag());
+        if (row != null) {
+            StudentRecord old = records.get(row);
+            for (FieldIndex index : indexes) {
+                index.remove(old, row);
+            }
+            records.set(row, null);
+            jmbagMap.remove(entry.jmbag());
+        }
+        if (entry.operation() != WriteAheadLog.Operation.DELETE) {
+            if (row == null || entry.operation() == WriteAheadLog.Operation.INSERT) {
+                row = records.size();
+                records.add(null);
+            }
+            records.set(row, entry.record());
+            jmbagMap.put(entry.jmbag(), row);
+            for (FieldIndex index : indexes) {
+                index.add(entry.record(), row);
+            }
+        }
+        cache.invalidate();
+    }
+
+    /**
+     * Compacts the database, removing the rows of deleted records and rebuilding
+     * the indexes and statistics. A persistent database is written into its
+     * snapshot and its log is cleared.
+     * 
+     * @throws IOException                   if the snapshot can't be written
+     * @throws UnsupportedOperationException if the records are stored in columns
+     * @throws IllegalStateException         if the database is being served
+     */
+    public synchronized void compact() throws IOException {
+        checkWritable();
+        SnapshotFile.Contents live = liveRecords();
+        if (snapshot != null) {
+            log.sync();
+            SnapshotFile.write(snapshot, live.records(), live.jmbagOrder());
+            log.clear();
+        }
+        build(live.records(), live.jmbagOrder());
+        cache.invalidate();
+        changes = 0;
+    }
+
+    /**
+     * Registers a server of the database, rejecting changes until it is
+     * unregistered. The clients of the server share the records without locking,
+     * so they must not change under them. A change in progress is finished
+     * before the server is registered.
+     */
+    synchronized void attachServer() {
+        servers++;
+    }
+
+    /**
+     * Unregisters a server of the database, allowing changes once no server is
+     * left.
+     */
+    synchronized void detachServer() {
+        servers--;
+    }
+
+    /**
+     * Sets the number of changes after which the database is compacted.
+     * 
+     * @param threshold - number of changes
+     * @throws IllegalArgumentException if threshold is less than 1
+     */
+    public void setCompactionThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Compaction threshold must be at least 1.");
+        }
+        compactionThreshold = threshold;
+    }
+
+    /**
+     * Forces the logged changes to the disk. Does nothing if the database isn't
+     * persistent.
+     * 
+     * @throws IOException if the log can't be forced
+     */
+    public void sync() throws IOException {
+        if (log != null) {
+            log.sync();
+        }
+    }
+
+    /**
+     * Forces the logged changes to the disk and closes the log, after which the
+     * database can no longer be changed. Also stops the filtering workers.
+     */
+    @Override
+    public void close() throws IOException {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    /**
+     * Returns the selection in a easily readable format.
+     * 
+     * @return the selection in a easily readable format
+     */
+    public String getResult() {
+        StringWriter out = new StringWriter();
+        try {
+            writeResult(out, ResultRenderers.TABLE);
+        } catch (IOException e) {
+            // a StringWriter never fails
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the selection to the given writer, rendered by the given renderer.
+     * The table renderer is preceded by a note on the index used, if any.
+     * 
+     * @param out      - the writer
+     * @param renderer - the renderer, one of {@link ResultRenderers}
+     * @throws IOException if the writer fails
+     */
+    public void writeResult(Writer out, IResultRenderer renderer) throws IOException {
+        writeResult(out, renderer, 0, selection.getRecords().size());
+    }
+
+    /**
+     * Writes a page of the selection to the given writer, rendered by the given
+     * renderer. The table renderer is preceded by a note on the index used, if
+     * any. If the previous query computed an aggregate, its value is written
+     * instead.
+     * 
+     * @param out      - the writer
+     * @param renderer - the renderer, one of {@link ResultRenderers}
+     * @param offset   - number of selected records skipped
+     * @param limit    - maximum number of records written
+     * @throws IOException              if the writer fails
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    public void writeResult(Writer out, IResultRenderer renderer, int offset, int limit) throws IOException {
+        selection.write(out, renderer, offset, limit);
     }
 
     /**
      * The main method, this is to be called when working with the database.
+     * Passing --columnar as an argument stores the records in columns, passing
+     * --workers=N filters with N worker threads. Passing --data=DIR keeps the
+     * database in the given directory, logging the changes made by the insert,
+     * update and delete commands, and --sync=N forces the log to the disk once
+     * every N changes. The format command switches the output of queries
+     * between table, csv and json. Passing --serve=PORT, or --serve for the
+     * default port, serves queries to clients connecting to the local host
+     * instead, see {@link StudentDatabaseServer}.
      */
     public static void main(String[] args) throws IOException {
-        StudentDatabase db = new StudentDatabase(Files.readAllLines(
-                Paths.get("src/main/java/hr/fer/oprpp1/hw04/db/database.txt"),
-                StandardCharsets.UTF_8));
+        Path text = Paths.get("src/main/java/hr/fer/oprpp1/hw04/db/database.txt");
+        Path data = null;
+        int syncInterval = 1;
+        int port = -1;
+        for (String arg : args) {
+            if (arg.startsWith("--data=")) {
+                data = Paths.get(arg.substring("--data=".length()));
+            } else if (arg.startsWith("--sync=")) {
+                syncInterval = Integer.parseInt(arg.substring("--sync=".length()));
+            } else if (arg.equals("--serve")) {
+                port = StudentDatabaseServer.DEFAULT_PORT;
+            } else if (arg.startsWith("--serve=")) {
+                port = Integer.parseInt(arg.substring("--serve=".length()));
+            }
+        }
+        StudentDatabase db = data != null ? open(data, text, syncInterval)
+                : load(text, Arrays.asList(args).contains("--columnar"));
+        for (String arg : args) {
+            if (arg.startsWith("--workers=")) {
+                db.setParallelism(Integer.parseInt(arg.substring("--workers=".length())),
+                        DEFAULT_PARALLEL_THRESHOLD);
+            }
+        }
+        if (port >= 0) {
+            serve(db, port);
+            return;
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        IResultRenderer renderer = ResultRenderers.TABLE;
         Scanner sc = new Scanner(System.in);
         while (true) {
             System.out.print("> ");
@@ -186,15 +1207,101 @@ public class StudentDatabase {
             if (query.equals("exit")) {
                 break;
             }
-            if (query.startsWith("query")) {
-                db.select(query.substring(5));
-                System.out.println(db.getResult());
-            } else {
-                System.out.println("Invalid command.");
+            try {
+                if (query.startsWith("query")) {
+                    db.select(query.substring(5));
+                    db.writeResult(out, renderer);
+                    out.write(System.lineSeparator());
+                    out.flush();
+                } else if (query.startsWith("format")) {
+                    renderer = ResultRenderers.forName(query.substring(6).trim());
+                    System.out.println("Output format set.");
+                } else if (query.startsWith("explain")) {
+                    System.out.println(db.explain(query.substring(7)));
+                } else if (query.startsWith("insert")) {
+                    db.insert(parseRecord(query.substring(6)));
+                    System.out.println("Record inserted.");
+                    reportCompactionFailure(db);
+                } else if (query.startsWith("update")) {
+                    db.update(parseRecord(query.substring(6)));
+                    System.out.println("Record updated.");
+                    reportCompactionFailure(db);
+                } else if (query.startsWith("delete")) {
+                    if (db.delete(query.substring(6).trim())) {
+                        System.out.println("Record deleted.");
+                        reportCompactionFailure(db);
+                    } else {
+                        System.out.println("No such record.");
+                    }
+                } else if (query.equals("compact")) {
+                    db.compact();
+                    System.out.println("Database compacted.");
+                } else {
+                    System.out.println("Invalid command.");
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // the disk failed, report it and keep the session going
+                System.out.println("I/O error: " + e.getMessage());
+            } catch (RuntimeException e) {
+                // a malformed command must not end the session
+                System.out.println(e.getMessage() == null ? "Invalid command." : e.getMessage());
             }
         }
         sc.close();
+        db.close();
+        System.out.println("Goodbye!");
+    }
+
+    /**
+     * Serves queries over the given database until exit is entered, stats
+     * printing the latency metrics of the queries served so far.
+     * 
+     * @param db   - the database
+     * @param port - port on the local host
+     * @throws IOException if the port can't be bound
+     */
+    private static void serve(StudentDatabase db, int port) throws IOException {
+        try (db; StudentDatabaseServer server = new StudentDatabaseServer(db, port)) {
+            server.start();
+            System.out.println("Serving queries on localhost:" + server.getPort() + ".");
+            Scanner sc = new Scanner(System.in);
+            while (sc.hasNextLine()) {
+                String command = sc.nextLine().trim();
+                if (command.equals("exit")) {
+                    break;
+                } else if (command.equals("stats")) {
+                    System.out.println(server.getMetrics());
+                } else {
+                    System.out.println("Invalid command.");
+                }
+            }
+        }
         System.out.println("Goodbye!");
     }
 
+    /**
+     * Reports a failed automatic compaction, which didn't fail the change that
+     * triggered it.
+     * 
+     * @param db - the database
+     */
+    private static void reportCompactionFailure(StudentDatabase db) {
+        IOException failure = db.getCompactionFailure();
+        if (failure != null) {
+            System.out.println("Compaction failed, the change is kept in the log: " + failure.getMessage());
+        }
+    }
+
+    /**
+     * Parses the arguments of the insert and update commands, the jmbag, last
+     * name, first name and grade of a record separated by tabs.
+     * 
+     * @param arguments - the arguments
+     * @return - the record
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    private static StudentRecord parseRecord(String arguments) {
+        return parseLines(List.of(arguments.strip())).get(0);
+    }
+
 }
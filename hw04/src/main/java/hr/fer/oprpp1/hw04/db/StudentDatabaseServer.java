@@ -0,0 +1,224 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves queries over a database to clients connecting to a port of the local
+ * host, every client being served by its own thread. The clients send one
+ * command per line:
+ * <ul>
+ * <li>query ... - returns the records selected by the query, rendered in the
+ * client's format,</li>
+ * <li>format table|csv|json - sets the client's format, table by default,</li>
+ * <li>explain ... - returns how the query would be executed,</li>
+ * <li>stats - returns the latency metrics of all the queries served,</li>
+ * <li>exit - closes the connection.</li>
+ * </ul>
+ * Every response ends with an empty line. The database is shared by all the
+ * clients, so it rejects changes from the moment the server is created until
+ * it is closed.
+ */
+public class StudentDatabaseServer implements Closeable {
+    /**
+     * Port the server listens on by default.
+     */
+    public static final int DEFAULT_PORT = 7070;
+
+    /**
+     * Milliseconds the server waits before accepting again after accepting a
+     * connection failed, e.g. because the process ran out of file descriptors.
+     */
+    private static final long ACCEPT_BACKOFF_MILLIS = 100;
+
+    /**
+     * The served database.
+     */
+    private final StudentDatabase database;
+
+    /**
+     * Socket accepting the connections.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * Threads serving the clients, one per connection.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Sockets of the connected clients, closed when the server is closed.
+     */
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Latencies of the queries served, from reading a query to having written
+     * its result.
+     */
+    private final QueryMetrics metrics = new QueryMetrics();
+
+    /**
+     * Whether the server still keeps the database from being changed.
+     */
+    private boolean attached;
+
+    /**
+     * Creates a server listening on the given port of the local host. Connections
+     * are accepted once the server is started. The database can't be changed
+     * until the server is closed.
+     *
+     * @param database - the database to be served
+     * @param port     - the port, 0 for any free port
+     * @throws IOException if the port can't be bound
+     */
+    public StudentDatabaseServer(StudentDatabase database, int port) throws IOException {
+        this.database = database;
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        database.attachServer();
+        attached = true;
+        workers = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "query-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return - the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the latency metrics of the queries served.
+     *
+     * @return - the metrics
+     */
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts accepting connections in the background.
+     */
+    public void start() {
+        workers.execute(this::accept);
+    }
+
+    /**
+     * Accepts connections until the server is closed, handing each to its own
+     * thread. A failure to accept a connection while the server is open is
+     * reported and the server backs off before accepting again, instead of
+     * failing again at once.
+     */
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                clients.add(socket);
+                workers.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                System.err.println("Accepting a connection failed: " + e.getMessage());
+                try {
+                    Thread.sleep(ACCEPT_BACKOFF_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Serves the commands of a single client until it exits or disconnects.
+     *
+     * @param socket - socket of the client
+     */
+    private void serve(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                Writer out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            IResultRenderer renderer = ResultRenderers.TABLE;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.strip();
+                if (command.equals("exit")) {
+                    break;
+                }
+                long start = System.nanoTime();
+                boolean query = command.startsWith("query");
+                try {
+                    if (query) {
+                        QueryResult result = database.query(command.substring(5));
+                        result.write(out, renderer, 0, result.getRecords().size());
+                    } else if (command.startsWith("format")) {
+                        renderer = ResultRenderers.forName(command.substring(6).trim());
+                        out.write("Output format set.\n");
+                    } else if (command.startsWith("explain")) {
+                        out.write(database.explain(command.substring(7)));
+                    } else if (command.equals("stats")) {
+                        out.write(metrics + "\n");
+                    } else {
+                        out.write("Invalid command.\n");
+                    }
+                } catch (RuntimeException e) {
+                    // a malformed query must not end the connection
+                    if (query) {
+                        metrics.recordFailure();
+                        query = false;
+                    }
+                    out.write((e.getMessage() == null ? "Invalid query." : e.getMessage()) + "\n");
+                }
+                out.write('\n');
+                out.flush();
+                if (query) {
+                    metrics.record(System.nanoTime() - start);
+                }
+            }
+        } catch (IOException e) {
+            // the client disconnected
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    /**
+     * Stops accepting connections and disconnects all the clients, after which the
+     * database can be changed again.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            serverSocket.close();
+            for (Socket socket : clients) {
+                socket.close();
+            }
+        } finally {
+            workers.shutdown();
+            if (attached) {
+                attached = false;
+                database.detachServer();
+            }
+        }
+    }
+}
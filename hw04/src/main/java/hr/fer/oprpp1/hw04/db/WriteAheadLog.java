@@ -0,0 +1,222 @@
+package hr.fer.oprpp1.hw04.db;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the changes made to a database, written before the
+ * changes are applied so they survive a crash. Every entry is prefixed by its
+ * length and checksum, an entry left incomplete by a crash is detected and cut
+ * off when the log is replayed. Forcing the log to the disk is batched, it is
+ * done once every given number of entries.
+ */
+class WriteAheadLog implements Closeable {
+    /**
+     * Kind of a change.
+     */
+    enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    /**
+     * A logged change.
+     *
+     * @param operation - kind of the change
+     * @param jmbag     - jmbag of the changed record
+     * @param record    - the inserted or updated record, null for a deletion
+     */
+    record Entry(Operation operation, String jmbag, StudentRecord record) {
+    }
+
+    /**
+     * Channel of the log file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Number of entries after which the log is forced to the disk, 0 if it is
+     * only forced when synced explicitly.
+     */
+    private final int syncInterval;
+
+    /**
+     * Number of entries appended since the log was last forced to the disk.
+     */
+    private int unsynced;
+
+    /**
+     * Number of entries in the log.
+     */
+    private int entries;
+
+    /**
+     * Opens the log in the given file, creating it if it doesn't exist.
+     *
+     * @param path         - path of the log file
+     * @param syncInterval - number of entries after which the log is forced to the
+     *                     disk, 1 to force every entry, 0 to force only on
+     *                     {@link #sync()} and {@link #close()}
+     * @throws IOException              if the file can't be opened
+     * @throws IllegalArgumentException if syncInterval is negative
+     */
+    WriteAheadLog(Path path, int syncInterval) throws IOException {
+        if (syncInterval < 0) {
+            throw new IllegalArgumentException("Sync interval can't be negative.");
+        }
+        this.syncInterval = syncInterval;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Passes every complete entry of the log, in order, to the given consumer and
+     * positions the log after the last one, cutting off an incomplete entry left
+     * by a crash. To be called once, before anything is appended.
+     *
+     * @param consumer - consumer of the entries
+     * @throws IOException if the log can't be read
+     */
+    void replay(Consumer<Entry> consumer) throws IOException {
+        long valid = 0;
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        CRC32 crc = new CRC32();
+        try {
+            while (true) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || valid + 8 + length > channel.size()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                consumer.accept(decode(payload));
+                valid += 8 + length;
+                entries++;
+            }
+        } catch (EOFException e) {
+            // the last entry is incomplete
+        }
+        channel.truncate(valid);
+        channel.position(valid);
+    }
+
+    /**
+     * Appends an entry to the log, forcing the log to the disk if the sync
+     * interval is reached.
+     *
+     * @param operation - kind of the change
+     * @param jmbag     - jmbag of the changed record
+     * @param record    - the inserted or updated record, null for a deletion
+     * @throws IOException if the entry can't be written
+     */
+    void append(Operation operation, String jmbag, StudentRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(operation.ordinal());
+        out.writeUTF(jmbag);
+        if (record != null) {
+            out.writeUTF(record.getLastName());
+            out.writeUTF(record.getFirstName());
+            out.writeByte(record.getFinalGrade());
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        entries++;
+        unsynced++;
+        if (syncInterval > 0 && unsynced >= syncInterval) {
+            sync();
+        }
+    }
+
+    /**
+     * Forces the appended entries to the disk.
+     *
+     * @throws IOException if the log can't be forced
+     */
+    void sync() throws IOException {
+        if (unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    /**
+     * Removes all the entries, to be called once they are part of a snapshot.
+     *
+     * @throws IOException if the log can't be truncated
+     */
+    void clear() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(false);
+        unsynced = 0;
+        entries = 0;
+    }
+
+    /**
+     * Returns the number of entries in the log.
+     *
+     * @return - the number of entries
+     */
+    int size() {
+        return entries;
+    }
+
+    /**
+     * Forces the appended entries to the disk and closes the log.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Decodes the payload of an entry.
+     *
+     * @param payload - the payload
+     * @return - the entry
+     * @throws IOException if the payload is malformed
+     */
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        Operation operation = Operation.values()[in.readUnsignedByte()];
+        String jmbag = in.readUTF();
+        if (operation == Operation.DELETE) {
+            return new Entry(operation, jmbag, null);
+        }
+        String lastName = in.readUTF();
+        String firstName = in.readUTF();
+        int grade = in.readUnsignedByte();
+        return new Entry(operation, jmbag, new StudentRecord(jmbag, lastName, firstName, grade));
+    }
+}
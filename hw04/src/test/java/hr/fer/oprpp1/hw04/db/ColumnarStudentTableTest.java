@@ -0,0 +1,58 @@
+package hr.fer.oprpp1.hw04.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ColumnarStudentTableTest {
+    private static final List<StudentRecord> RECORDS = List.of(
+            new StudentRecord("0000000001", "Akšamović", "Marin", 2),
+            new StudentRecord("0000000002", "Bakamović", "Petra", 3),
+            new StudentRecord("0000000003", "Bosnić", "Andrea", 4),
+            new StudentRecord("0000000004", "Bosnić", "Marin", 5),
+            new StudentRecord("0000000005", "Cvrlje", "Ivan", 3));
+
+    private static BitSet select(ColumnarStudentTable table, String query) {
+        BitSet rows = new BitSet();
+        rows.set(0, table.size());
+        for (ConditionalExpression expression : new QueryParser(query).getQuery()) {
+            table.filter(expression, rows);
+        }
+        return rows;
+    }
+
+    @Test
+    public void testRecordsRoundTrip() {
+        ColumnarStudentTable table = new ColumnarStudentTable(RECORDS);
+        assertEquals(5, table.size());
+        for (int row = 0; row < RECORDS.size(); row++) {
+            StudentRecord expected = RECORDS.get(row);
+            StudentRecord actual = table.record(row);
+            assertEquals(expected.toString(), actual.toString());
+        }
+    }
+
+    @Test
+    public void testColumnsReadValues() {
+        ColumnarStudentTable table = new ColumnarStudentTable(RECORDS);
+        assertEquals("Bosnić", table.column(FieldValueGetters.LAST_NAME).get(3));
+        assertEquals("Ivan", table.column(FieldValueGetters.FIRST_NAME).get(4));
+        assertEquals("0000000002", table.column(FieldValueGetters.JMBAG).get(1));
+        assertEquals("4", table.column(FieldValueGetters.FINAL_GRADE).get(2));
+        assertNull(table.column(record -> "x"));
+    }
+
+    @Test
+    public void testFilterNarrowsSelection() {
+        ColumnarStudentTable table = new ColumnarStudentTable(RECORDS);
+        assertEquals("{2, 3}", select(table, "lastName = \"Bosnić\"").toString());
+        assertEquals("{1, 2, 3}", select(table, "lastName LIKE \"b*\"").toString());
+        assertEquals("{3}", select(table, "lastName LIKE \"b*\" and firstName = \"Marin\"").toString());
+        assertEquals("{1, 4}", select(table, "finalGrade = \"3\"").toString());
+        assertEquals("{2, 3, 4}", select(table, "jmbag > \"0000000002\"").toString());
+        assertEquals("{}", select(table, "finalGrade > \"5\"").toString());
+    }
+}
@@ -67,4 +67,28 @@ public class ComparisonOperatorsTest {
         assertTrue(ComparisonOperators.LIKE.satisfied("AAAA", "*"));
         assertTrue(ComparisonOperators.LIKE.satisfied("Jambrović", "jamb*"));
     }
+
+    @Test
+    public void testCompareNumbers() {
+        assertTrue(ComparisonOperators.compareNumbers("2", "10") < 0);
+        assertTrue(ComparisonOperators.compareNumbers("10", "9") > 0);
+        assertEquals(0, ComparisonOperators.compareNumbers("005", "5"));
+        assertEquals(0, ComparisonOperators.compareNumbers("0", "-00"));
+        assertTrue(ComparisonOperators.compareNumbers("-10", "-9") < 0);
+        assertTrue(ComparisonOperators.compareNumbers("-1", "0") < 0);
+        assertTrue(ComparisonOperators.compareNumbers("5", "100000000000000000000") < 0);
+        assertThrows(IllegalArgumentException.class, () -> ComparisonOperators.compareNumbers("5", "A"));
+        assertThrows(IllegalArgumentException.class, () -> ComparisonOperators.compareNumbers("-", "5"));
+        assertThrows(IllegalArgumentException.class, () -> ComparisonOperators.compareNumbers("", "5"));
+    }
+
+    @Test
+    public void testPrepareNumeric() {
+        assertTrue(ComparisonOperators.prepareNumeric(ComparisonOperators.LESS, "10").satisfied("5"));
+        assertFalse(ComparisonOperators.prepareNumeric(ComparisonOperators.GREATER, "10").satisfied("5"));
+        assertTrue(ComparisonOperators.prepareNumeric(ComparisonOperators.EQUALS, "05").satisfied("5"));
+        assertTrue(ComparisonOperators.prepareNumeric(ComparisonOperators.LIKE, "1*").satisfied("10"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ComparisonOperators.prepareNumeric(ComparisonOperators.LESS_OR_EQUALS, "five"));
+    }
 }
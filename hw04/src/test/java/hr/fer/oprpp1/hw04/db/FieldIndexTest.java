@@ -0,0 +1,130 @@
+package hr.fer.oprpp1.hw04.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+public class FieldIndexTest {
+    private static FieldIndex createIndex() {
+        FieldIndex index = new FieldIndex("lastName", FieldValueGetters.LAST_NAME);
+        index.add(new StudentRecord("0000000001", "Akšamović", "Marin", 2), 0);
+        index.add(new StudentRecord("0000000002", "Bakamović", "Petra", 3), 1);
+        index.add(new StudentRecord("0000000003", "Bosnić", "Andrea", 4), 2);
+        index.add(new StudentRecord("0000000004", "Bosnić", "Marin", 5), 3);
+        index.add(new StudentRecord("0000000005", "Cvrlje", "Ivan", 3), 4);
+        return index;
+    }
+
+    private static BitSet rows(int... ids) {
+        BitSet rows = new BitSet();
+        for (int id : ids) {
+            rows.set(id);
+        }
+        return rows;
+    }
+
+    private static ConditionalExpression lastName(IComparisonOperator operator, String literal) {
+        return new ConditionalExpression(FieldValueGetters.LAST_NAME, literal, operator);
+    }
+
+    @Test
+    public void testSupports() {
+        FieldIndex index = createIndex();
+        assertTrue(index.supports(lastName(ComparisonOperators.EQUALS, "Bosnić")));
+        assertTrue(index.supports(lastName(ComparisonOperators.LESS, "B")));
+        assertTrue(index.supports(lastName(ComparisonOperators.LIKE, "Bo*")));
+        assertTrue(index.supports(lastName(ComparisonOperators.LIKE, "Bosnić")));
+        assertFalse(index.supports(lastName(ComparisonOperators.LIKE, "*ić")));
+        assertFalse(index.supports(lastName(ComparisonOperators.LIKE, "B*ć")));
+        assertFalse(index.supports(lastName(ComparisonOperators.NOT_EQUALS, "Bosnić")));
+        assertFalse(index.supports(
+                new ConditionalExpression(FieldValueGetters.FIRST_NAME, "Marin", ComparisonOperators.EQUALS)));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.lookup(lastName(ComparisonOperators.NOT_EQUALS, "Bosnić")));
+    }
+
+    @Test
+    public void testEquality() {
+        FieldIndex index = createIndex();
+        assertEquals(rows(2, 3), index.lookup(lastName(ComparisonOperators.EQUALS, "Bosnić")));
+        assertEquals(rows(), index.lookup(lastName(ComparisonOperators.EQUALS, "bosnić")));
+        assertEquals(rows(), index.lookup(lastName(ComparisonOperators.EQUALS, "Horvat")));
+    }
+
+    @Test
+    public void testRanges() {
+        FieldIndex index = createIndex();
+        assertEquals(rows(0, 1), index.lookup(lastName(ComparisonOperators.LESS, "Bosnić")));
+        assertEquals(rows(0, 1, 2, 3), index.lookup(lastName(ComparisonOperators.LESS_OR_EQUALS, "Bosnić")));
+        assertEquals(rows(4), index.lookup(lastName(ComparisonOperators.GREATER, "Bosnić")));
+        assertEquals(rows(2, 3, 4), index.lookup(lastName(ComparisonOperators.GREATER_OR_EQUALS, "Bosnić")));
+    }
+
+    @Test
+    public void testLikeIsCaseInsensitive() {
+        FieldIndex index = createIndex();
+        assertEquals(rows(1, 2, 3), index.lookup(lastName(ComparisonOperators.LIKE, "b*")));
+        assertEquals(rows(2, 3), index.lookup(lastName(ComparisonOperators.LIKE, "BOS*")));
+        assertEquals(rows(2, 3), index.lookup(lastName(ComparisonOperators.LIKE, "bosnić")));
+        assertEquals(rows(0, 1, 2, 3, 4), index.lookup(lastName(ComparisonOperators.LIKE, "*")));
+        assertEquals(rows(), index.lookup(lastName(ComparisonOperators.LIKE, "D*")));
+    }
+
+    @Test
+    public void testRemoveAndReAdd() {
+        FieldIndex index = createIndex();
+        index.remove(new StudentRecord("0000000003", "Bosnić", "Andrea", 4), 2);
+        assertEquals(rows(3), index.lookup(lastName(ComparisonOperators.EQUALS, "Bosnić")));
+        assertEquals(rows(3), index.lookup(lastName(ComparisonOperators.LIKE, "bos*")));
+
+        index.remove(new StudentRecord("0000000004", "Bosnić", "Marin", 5), 3);
+        assertTrue(index.lookup(lastName(ComparisonOperators.EQUALS, "Bosnić")).isEmpty());
+        assertEquals(rows(0, 1, 4), index.lookup(lastName(ComparisonOperators.GREATER, "A")));
+
+        index.add(new StudentRecord("0000000003", "Bosnić", "Andrea", 4), 2);
+        assertEquals(rows(2), index.lookup(lastName(ComparisonOperators.LIKE, "Bosnić")));
+    }
+
+    @Test
+    public void testLikeAgreesWithMatcherInAnyLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            String[] lastNames = { "Ilić", "ilić", "IŞIK", "Işık", "İnce", "Straße" };
+            FieldIndex index = new FieldIndex("lastName", FieldValueGetters.LAST_NAME);
+            for (int i = 0; i < lastNames.length; i++) {
+                index.add(new StudentRecord(String.format("%010d", i), lastNames[i], "Ana", 1), i);
+            }
+            for (String pattern : new String[] { "i*", "I*", "ı*", "İ*", "ılić", "ILIĆ", "işik", "STRASSE", "stra*" }) {
+                LikeMatcher matcher = LikeMatcher.compile(pattern);
+                BitSet expected = new BitSet();
+                for (int i = 0; i < lastNames.length; i++) {
+                    if (matcher.satisfied(lastNames[i])) {
+                        expected.set(i);
+                    }
+                }
+                assertEquals(expected, index.lookup(lastName(ComparisonOperators.LIKE, pattern)), pattern);
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testIndexThatIsNotFoldable() {
+        FieldIndex index = new FieldIndex("jmbag", FieldValueGetters.JMBAG, false);
+        index.add(new StudentRecord("0000000001", "Akšamović", "Marin", 2), 0);
+        index.add(new StudentRecord("0000000002", "Bakamović", "Petra", 3), 1);
+        ConditionalExpression like = new ConditionalExpression(FieldValueGetters.JMBAG, "00*", ComparisonOperators.LIKE);
+        assertFalse(index.supports(like));
+        assertThrows(IllegalArgumentException.class, () -> index.lookup(like));
+        ConditionalExpression equals = new ConditionalExpression(FieldValueGetters.JMBAG, "0000000002",
+                ComparisonOperators.EQUALS);
+        assertEquals(rows(1), index.lookup(equals));
+        index.remove(new StudentRecord("0000000002", "Bakamović", "Petra", 3), 1);
+        assertEquals(rows(), index.lookup(equals));
+    }
+}
@@ -22,4 +22,10 @@ public class FieldValueGettersTest {
         StudentRecord record = new StudentRecord("0000000001", "Bosnić", "Ivan", 5);
         assertEquals("0000000001", FieldValueGetters.JMBAG.get(record));
     }
+
+    @Test
+    public void testFinalGrade() {
+        StudentRecord record = new StudentRecord("0000000001", "Bosnić", "Ivan", 5);
+        assertEquals("5", FieldValueGetters.FINAL_GRADE.get(record));
+    }
 }
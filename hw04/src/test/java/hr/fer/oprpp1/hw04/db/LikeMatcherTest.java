@@ -0,0 +1,74 @@
+package hr.fer.oprpp1.hw04.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class LikeMatcherTest {
+    @Test
+    public void testExact() {
+        LikeMatcher matcher = LikeMatcher.compile("Bosnić");
+        assertTrue(matcher.satisfied("Bosnić"));
+        assertTrue(matcher.satisfied("BOSNIĆ"));
+        assertFalse(matcher.satisfied("Bosni"));
+        assertFalse(matcher.satisfied("Bosnića"));
+    }
+
+    @Test
+    public void testPrefixAndSuffix() {
+        assertTrue(LikeMatcher.compile("bos*").satisfied("Bosnić"));
+        assertFalse(LikeMatcher.compile("bos*").satisfied("Bo"));
+        assertTrue(LikeMatcher.compile("*IĆ").satisfied("Bosnić"));
+        assertFalse(LikeMatcher.compile("*ić").satisfied("ć"));
+        assertTrue(LikeMatcher.compile("b*ć").satisfied("Bosnić"));
+        assertFalse(LikeMatcher.compile("bos*osnić").satisfied("Bosnić"));
+        assertTrue(LikeMatcher.compile("*").satisfied(""));
+    }
+
+    @Test
+    public void testContains() {
+        LikeMatcher matcher = LikeMatcher.compile("*SNI*");
+        assertTrue(matcher.satisfied("Bosnić"));
+        assertTrue(matcher.satisfied("sni"));
+        assertFalse(matcher.satisfied("Bosić"));
+        assertFalse(matcher.satisfied("sn"));
+        assertTrue(LikeMatcher.compile("**").satisfied("anything"));
+    }
+
+    @Test
+    public void testInvalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> LikeMatcher.compile("A*A*A"));
+        assertThrows(IllegalArgumentException.class, () -> LikeMatcher.compile("*A*A"));
+        assertThrows(IllegalArgumentException.class, () -> LikeMatcher.compile("*A**"));
+    }
+
+    @Test
+    public void testPreparedOperators() {
+        assertSame(LikeMatcher.class, ComparisonOperators.LIKE.prepare("B*").getClass());
+        assertTrue(ComparisonOperators.LESS.prepare("Jasna").satisfied("Ana"));
+        assertFalse(ComparisonOperators.LESS.prepare("Ana").satisfied("Jasna"));
+    }
+
+    @Test
+    public void testExpressionReusesPreparedOperator() {
+        ConditionalExpression expr = new ConditionalExpression(FieldValueGetters.LAST_NAME, "Bos*",
+                ComparisonOperators.LIKE);
+        IPreparedOperator prepared = expr.getPreparedOperator();
+        assertSame(prepared, expr.getPreparedOperator());
+        assertTrue(expr.test(new StudentRecord("0000000003", "Bosnić", "Andrea", 4)));
+
+        expr.literal = "Bak*";
+        assertNotSame(prepared, expr.getPreparedOperator());
+        assertFalse(expr.test(new StudentRecord("0000000003", "Bosnić", "Andrea", 4)));
+    }
+
+    @Test
+    public void testFold() {
+        assertEquals("bosnić", LikeMatcher.fold("BoSNIĆ"));
+        assertEquals("straße", LikeMatcher.fold("Straße"));
+        for (String value : new String[] { "Işık", "IŞIK", "İnce", "ilić" }) {
+            assertTrue(LikeMatcher.compile(LikeMatcher.fold(value)).satisfied(value), value);
+            assertEquals(value.length(), LikeMatcher.fold(value).length());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package hr.fer.oprpp1.hw04.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedRecordLoaderTest {
+    @TempDir
+    Path dir;
+
+    private Path write(String content) throws IOException {
+        Path file = dir.resolve("database.txt");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        List<StudentRecord> records = MappedRecordLoader.load(write(
+                "0000000001\tAkšamović\tMarin\t2\n0000000002\tBakamović\tPetra\t3\n"));
+        assertEquals(2, records.size());
+        assertEquals("Akšamović", records.get(0).getLastName());
+        assertEquals("Marin", records.get(0).getFirstName());
+        assertEquals(2, records.get(0).getFinalGrade());
+        assertEquals("0000000002", records.get(1).getJmbag());
+        assertEquals(3, records.get(1).getFinalGrade());
+    }
+
+    @Test
+    public void testLoadWithoutTrailingNewlineAndWithCarriageReturns() throws IOException {
+        List<StudentRecord> records = MappedRecordLoader.load(write(
+                "0000000001\tAkšamović\tMarin\t2\r\n0000000002\tBakamović\tPetra\t5"));
+        assertEquals(2, records.size());
+        assertEquals(2, records.get(0).getFinalGrade());
+        assertEquals(5, records.get(1).getFinalGrade());
+    }
+
+    @Test
+    public void testLoadEmptyFile() throws IOException {
+        assertTrue(MappedRecordLoader.load(write("")).isEmpty());
+    }
+
+    @Test
+    public void testInvalidLinesReportLineNumber() throws IOException {
+        Path grade = write("0000000001\tAkšamović\tMarin\t2\n0000000002\tBakamović\tPetra\t6\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> MappedRecordLoader.load(grade));
+        assertEquals("Line 2: Invalid grade.", e.getMessage());
+
+        Path fields = write("0000000001\tAkšamović\tMarin\t2\n0000000002\tBakamović\t3\n");
+        e = assertThrows(IllegalArgumentException.class, () -> MappedRecordLoader.load(fields));
+        assertEquals("Line 2: Invalid number of arguments.", e.getMessage());
+    }
+
+    @Test
+    public void testChunksGiveSameRecordsAndLineNumbers() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            sb.append(String.format("%010d\tPrezime%d\tIme%d\t%d%n", i, i % 37, i % 11, i % 5 + 1));
+        }
+        Path file = write(sb.toString());
+        List<StudentRecord> expected = MappedRecordLoader.load(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ArrayList<StudentRecord> chunked = MappedRecordLoader.load(channel, 7);
+            assertEquals(expected.size(), chunked.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getJmbag(), chunked.get(i).getJmbag());
+                assertEquals(expected.get(i).getLastName(), chunked.get(i).getLastName());
+                assertEquals(expected.get(i).getFinalGrade(), chunked.get(i).getFinalGrade());
+            }
+        }
+
+        sb.append("0000001001\tPrezime\tIme\t0\n");
+        Path invalid = write(sb.toString());
+        try (FileChannel channel = FileChannel.open(invalid, StandardOpenOption.READ)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> MappedRecordLoader.load(channel, 7));
+            assertEquals("Line 1001: Invalid grade.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDatabaseLoadChecksUniqueJmbags() throws IOException {
+        StudentDatabase db = StudentDatabase.load(write(
+                "0000000001\tAkšamović\tMarin\t2\n0000000002\tBakamović\tPetra\t3\n"));
+        assertEquals("Petra", db.forJMBAG("0000000002").getFirstName());
+
+        Path duplicate = write("0000000001\tAkšamović\tMarin\t2\n0000000001\tBakamović\tPetra\t3\n");
+        assertThrows(IllegalArgumentException.class, () -> StudentDatabase.load(duplicate));
+    }
+}
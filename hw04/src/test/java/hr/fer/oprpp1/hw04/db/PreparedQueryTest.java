@@ -0,0 +1,84 @@
+package hr.fer.oprpp1.hw04.db;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PreparedQueryTest {
+    private static StudentDatabase createDatabase() {
+        return new StudentDatabase(new ArrayList<String>(Arrays.asList(
+                "0000000001	Akšamović	Marin	2",
+                "0000000002	Bakamović	Petra	3",
+                "0000000003	Bosnić	Andrea	4",
+                "0000000004	Božić	Marin	5",
+                "0000000005	Brezović	Jusufadis	2",
+                "0000000006	Cvrlje	Ivan	3")));
+    }
+
+    private static List<String> jmbags(List<StudentRecord> records) {
+        List<String> jmbags = new ArrayList<>();
+        records.forEach(record -> jmbags.add(record.getJmbag()));
+        return jmbags;
+    }
+
+    @Test
+    public void testExecuteMatchesFilter() {
+        StudentDatabase db = createDatabase();
+        PreparedQuery query = db.prepare("lastName LIKE ? and jmbag > ?");
+        assertEquals(2, query.getParameterCount());
+        String[][] bindings = { { "B*", "0000000002" }, { "*ić", "0000000000" }, { "b*ć", "0000000003" },
+                { "Cvrlje", "0000000009" } };
+        for (String[] values : bindings) {
+            QueryParser parser = new QueryParser(
+                    "lastName LIKE \"" + values[0] + "\" and jmbag > \"" + values[1] + "\"");
+            assertEquals(jmbags(db.filter(new QueryFilter(parser.getQuery()))), jmbags(query.execute(values)));
+        }
+        assertEquals(List.of("0000000003", "0000000004", "0000000005"), jmbags(query.execute("B*", "0000000002")));
+    }
+
+    @Test
+    public void testExpressionTreeAndLimit() {
+        StudentDatabase db = createDatabase();
+        PreparedQuery query = db.prepare("firstName = ? or not finalGrade < ? LIMIT 2");
+        assertEquals(List.of("0000000001", "0000000003"), jmbags(query.execute("Marin", "4")));
+        assertEquals(List.of("0000000002", "0000000004"), jmbags(query.execute("Petra", "5")));
+    }
+
+    @Test
+    public void testDirectQuery() {
+        StudentDatabase db = createDatabase();
+        PreparedQuery query = db.prepare("jmbag = ?");
+        assertEquals("Bosnić", query.execute("0000000003").get(0).getLastName());
+        assertTrue(query.execute("0000000009").isEmpty());
+        assertTrue(query.explain().contains("primary key"));
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        StudentDatabase db = createDatabase();
+        PreparedQuery query = db.prepare("lastName LIKE ?");
+        assertThrows(IllegalArgumentException.class, () -> query.execute());
+        assertThrows(IllegalArgumentException.class, () -> query.execute("A*", "B*"));
+        assertThrows(NullPointerException.class, () -> query.execute((String) null));
+        assertThrows(IllegalArgumentException.class, () -> db.prepare("COUNT lastName LIKE ?"));
+        assertThrows(IllegalArgumentException.class, () -> db.select("lastName LIKE ?"));
+    }
+
+    @Test
+    public void testReplannedAfterCompaction() throws IOException {
+        StudentDatabase db = createDatabase();
+        PreparedQuery query = db.prepare("lastName LIKE ? and finalGrade = ?");
+        assertTrue(query.explain().contains("lastName LIKE ?"));
+        assertEquals(List.of("0000000004"), jmbags(query.execute("B*", "5")));
+
+        db.insert(new StudentRecord("0000000007", "Bartolić", "Ana", 5));
+        assertEquals(List.of("0000000004", "0000000007"), jmbags(query.execute("B*", "5")));
+        db.compact();
+        db.delete("0000000004");
+        assertEquals(List.of("0000000007"), jmbags(query.execute("B*", "5")));
+    }
+}
@@ -0,0 +1,62 @@
+package hr.fer.oprpp1.hw04.db;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class QueryCacheTest {
+    private static final StudentRecord RECORD = new StudentRecord("0000000001", "Akšamović", "Marin", 2);
+
+    @Test
+    public void testKeyIgnoresOrderOfExpressions() {
+        String key1 = QueryCache.keyOf(new QueryParser("lastName LIKE \"B*\" and firstName>\"A\"").getQuery());
+        String key2 = QueryCache.keyOf(new QueryParser("firstName > \"A\"   AND lastName  LIKE \"B*\"").getQuery());
+        assertEquals(key1, key2);
+        assertNotEquals(key1, QueryCache.keyOf(new QueryParser("firstName > \"B\" and lastName LIKE \"B*\"").getQuery()));
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        QueryCache cache = new QueryCache(2);
+        assertNull(cache.get("a"));
+        cache.put("a", List.of(RECORD), null);
+        assertEquals(List.of(RECORD), cache.get("a").records());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        QueryCache cache = new QueryCache(2);
+        cache.put("a", List.of(), null);
+        cache.put("b", List.of(), null);
+        cache.get("a");
+        cache.put("c", List.of(), null);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+
+        cache.setCapacity(1);
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void testZeroCapacityDisablesCaching() {
+        QueryCache cache = new QueryCache(0);
+        assertEquals(List.of(RECORD), cache.put("a", List.of(RECORD), null).records());
+        assertNull(cache.get("a"));
+        assertThrows(IllegalArgumentException.class, () -> new QueryCache(-1));
+    }
+
+    @Test
+    public void testInvalidate() {
+        QueryCache cache = new QueryCache();
+        cache.put("a", List.of(), null);
+        cache.invalidate();
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+    }
+}
@@ -304,4 +304,29 @@ public class QueryLexerTest {
         
         assertThrows(NoSuchElementException.class, () -> lexer.nextToken());
     }
+
+    @Test
+    public void testLogicalOperatorsAndNumbers() {
+        QueryLexer lexer = new QueryLexer("NOT (finalGrade>3 or lastName LIKE \"B*\")");
+        QueryTokenType[] expected = { QueryTokenType.NOT, QueryTokenType.LPAREN, QueryTokenType.FINALGRADE,
+                QueryTokenType.COMPARISON_OPERATOR, QueryTokenType.NUMBER, QueryTokenType.OR,
+                QueryTokenType.LASTNAME, QueryTokenType.LIKE, QueryTokenType.STRING, QueryTokenType.RPAREN,
+                QueryTokenType.EOF };
+        for (QueryTokenType type : expected) {
+            assertEquals(type, lexer.nextToken().getType());
+        }
+        assertEquals(QueryTokenType.COUNT, new QueryLexer("count").nextToken().getType());
+        assertEquals(QueryTokenType.AVG, new QueryLexer("AVG").nextToken().getType());
+    }
+
+    @Test
+    public void testParameters() {
+        QueryLexer lexer = new QueryLexer("jmbag>? and (lastName LIKE ?)");
+        QueryTokenType[] expected = { QueryTokenType.JMBAG, QueryTokenType.COMPARISON_OPERATOR,
+                QueryTokenType.PARAMETER, QueryTokenType.AND, QueryTokenType.LPAREN, QueryTokenType.LASTNAME,
+                QueryTokenType.LIKE, QueryTokenType.PARAMETER, QueryTokenType.RPAREN, QueryTokenType.EOF };
+        for (QueryTokenType type : expected) {
+            assertEquals(type, lexer.nextToken().getType());
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package hr.fer.oprpp1.hw04.db;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryMetricsTest {
+    @Test
+    public void testEmpty() {
+        QueryMetrics metrics = new QueryMetrics();
+        assertEquals(0, metrics.getCount());
+        assertEquals(0, metrics.getMeanMicros());
+        assertEquals(0, metrics.getPercentileMicros(99));
+    }
+
+    @Test
+    public void testPercentiles() {
+        QueryMetrics metrics = new QueryMetrics();
+        for (int micros = 1; micros <= 1000; micros++) {
+            metrics.record(micros * 1000L);
+        }
+        metrics.recordFailure();
+        assertEquals(1000, metrics.getCount());
+        assertEquals(1, metrics.getFailures());
+        assertEquals(500.5, metrics.getMeanMicros(), 1e-9);
+        assertEquals(1000, metrics.getMaxMicros());
+        assertEquals(1, metrics.getPercentileMicros(0));
+        assertEquals(1000, metrics.getPercentileMicros(100));
+        // buckets are an eighth of a power of two wide
+        assertTrue(Math.abs(metrics.getPercentileMicros(50) - 500) <= 500 / 8);
+        assertTrue(Math.abs(metrics.getPercentileMicros(99) - 990) <= 990 / 8);
+        assertThrows(IllegalArgumentException.class, () -> metrics.getPercentileMicros(101));
+    }
+}
@@ -17,4 +17,89 @@ public class QueryParserTest {
         assertThrows(IllegalStateException.class, () -> qp2.getQueriedJMBAG());
         assertEquals(2, qp2.getQuery().size());
     }
+
+    @Test
+    public void testFinalGrade() {
+        QueryParser qp = new QueryParser("finalGrade >= \"4\"");
+        assertFalse(qp.isDirectQuery());
+        assertEquals(FieldValueGetters.FINAL_GRADE, qp.getQuery().get(0).getFieldGetter());
+        assertEquals("4", qp.getQuery().get(0).getStringLiteral());
+    }
+
+    @Test
+    public void testLimitAndOffset() {
+        QueryParser qp = new QueryParser("lastName LIKE \"B*\" and finalGrade > \"2\" LIMIT 10 offset 20");
+        assertEquals(2, qp.getQuery().size());
+        assertEquals(10, qp.getLimit());
+        assertEquals(20, qp.getOffset());
+
+        QueryParser direct = new QueryParser("jmbag = \"0000000001\" limit 1");
+        assertTrue(direct.isDirectQuery());
+        assertEquals(1, direct.getLimit());
+        assertEquals(0, direct.getOffset());
+
+        assertEquals(-1, new QueryParser("jmbag < \"1\"").getLimit());
+        assertThrows(QueryParserException.class, () -> new QueryParser("jmbag < \"1\" LIMIT \"2\""));
+        assertThrows(QueryParserException.class, () -> new QueryParser("jmbag < \"1\" LIMIT 2 and x"));
+    }
+
+    @Test
+    public void testExpressionTree() {
+        QueryParser qp = new QueryParser("lastName LIKE \"B*\" or not firstName = \"Marin\" and finalGrade > 3");
+        assertFalse(qp.isConjunction());
+        assertFalse(qp.isDirectQuery());
+        assertThrows(IllegalStateException.class, () -> qp.getQuery());
+        OrExpression or = (OrExpression) qp.getExpression();
+        assertEquals(2, or.getOperands().size());
+        AndExpression and = (AndExpression) or.getOperands().get(1);
+        assertTrue(and.getOperands().get(0) instanceof NotExpression);
+        assertEquals("lastName LIKE \"B*\" OR NOT firstName = \"Marin\" AND finalGrade > \"3\"", or.toString());
+
+        QueryParser grouped = new QueryParser("(lastName LIKE \"B*\" or firstName = \"Marin\") and finalGrade > 3");
+        assertEquals("(lastName LIKE \"B*\" OR firstName = \"Marin\") AND finalGrade > \"3\"",
+                grouped.getExpression().toString());
+
+        QueryParser conjunction = new QueryParser("(jmbag = \"0000000001\")");
+        assertTrue(conjunction.isConjunction());
+        assertTrue(conjunction.isDirectQuery());
+
+        assertThrows(QueryParserException.class, () -> new QueryParser("(lastName = \"A\""));
+        assertThrows(UnsupportedOperationException.class, () -> new QueryParser("lastName = \"A\" or"));
+        assertThrows(QueryParserException.class, () -> new QueryParser("lastName = \"A\" lastName = \"B\""));
+        QueryParserException stray = assertThrows(QueryParserException.class,
+                () -> new QueryParser("lastName = \"A\")"));
+        assertEquals("Expected AND, OR, LIMIT or end of query, got )", stray.getMessage());
+    }
+
+    @Test
+    public void testNumericGradesAndAggregates() {
+        ConditionalExpression leadingZero = new QueryParser("finalGrade >= 04").getQuery().get(0);
+        assertEquals("04", leadingZero.getStringLiteral());
+        assertTrue(leadingZero.test(new StudentRecord("0000000001", "Akšamović", "Marin", 4)));
+        assertFalse(leadingZero.test(new StudentRecord("0000000001", "Akšamović", "Marin", 3)));
+        ConditionalExpression large = new QueryParser("finalGrade < 10").getQuery().get(0);
+        assertEquals("10", large.getStringLiteral());
+        assertTrue(large.test(new StudentRecord("0000000001", "Akšamović", "Marin", 5)));
+
+        QueryParser count = new QueryParser("COUNT lastName LIKE \"B*\"");
+        assertEquals(QueryAggregate.COUNT, count.getAggregate());
+        assertEquals(1, count.getQuery().size());
+        assertEquals(QueryAggregate.AVG, new QueryParser("avg firstName = \"Marin\"").getAggregate());
+        assertNull(new QueryParser("firstName = \"Marin\"").getAggregate());
+    }
+
+    @Test
+    public void testParameters() {
+        QueryParser parser = new QueryParser("lastName LIKE ? and finalGrade = \"5\" and jmbag > ?");
+        assertEquals(2, parser.getParameters().size());
+        assertSame(parser.getQuery().get(0), parser.getParameters().get(0));
+        assertSame(parser.getQuery().get(2), parser.getParameters().get(1));
+        assertTrue(parser.getParameters().get(0).isParameter());
+        assertEquals("lastName LIKE ?", parser.getParameters().get(0).toString());
+
+        parser.getParameters().get(1).setLiteral("0000000003");
+        assertEquals("jmbag > \"0000000003\"", parser.getParameters().get(1).toString());
+        assertTrue(new QueryParser("jmbag = ?").isDirectQuery());
+        assertTrue(new QueryParser("firstName = \"Marin\"").getParameters().isEmpty());
+    }
 }
@@ -0,0 +1,111 @@
+package hr.fer.oprpp1.hw04.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class QueryPlannerTest {
+    private static final String[] LAST_NAMES = { "Akšamović", "Bakamović", "Bosnić", "Božić", "Cvrlje", "Dokleja" };
+    private static final String[] FIRST_NAMES = { "Marin", "Petra", "Andrea", "Ivan" };
+
+    private static List<StudentRecord> createRecords() {
+        List<StudentRecord> records = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            records.add(new StudentRecord(String.format("%010d", i), LAST_NAMES[i % LAST_NAMES.length],
+                    FIRST_NAMES[i % FIRST_NAMES.length], 1 + i % 5));
+        }
+        return records;
+    }
+
+    private static QueryPlanner createPlanner(List<StudentRecord> records) {
+        List<FieldIndex> indexes = List.of(
+                new FieldIndex("jmbag", FieldValueGetters.JMBAG),
+                new FieldIndex("lastName", FieldValueGetters.LAST_NAME));
+        List<FieldStatistics> statistics = new ArrayList<>();
+        for (IFieldValueGetter getter : List.of(FieldValueGetters.JMBAG, FieldValueGetters.LAST_NAME,
+                FieldValueGetters.FIRST_NAME, FieldValueGetters.FINAL_GRADE)) {
+            statistics.add(new FieldStatistics(getter, records));
+        }
+        for (int i = 0; i < records.size(); i++) {
+            for (FieldIndex index : indexes) {
+                index.add(records.get(i), i);
+            }
+        }
+        return new QueryPlanner(indexes, statistics, records.size());
+    }
+
+    @Test
+    public void testSelectivityEstimates() {
+        QueryPlanner planner = createPlanner(createRecords());
+        assertEquals(1.0 / 6, planner.selectivity(new QueryParser("lastName = \"Bosnić\"").getQuery().get(0)), 1e-9);
+        assertEquals(0.5, planner.selectivity(new QueryParser("jmbag < \"0000000600\"").getQuery().get(0)), 0.02);
+        assertEquals(0.5, planner.selectivity(new QueryParser("lastName LIKE \"b*\"").getQuery().get(0)), 0.02);
+        assertEquals(0.6, planner.selectivity(new QueryParser("finalGrade >= \"3\"").getQuery().get(0)), 0.02);
+        assertEquals(1.0 / 1200,
+                planner.selectivity(new QueryParser("jmbag = \"0000000001\"").getQuery().get(0)), 1e-9);
+    }
+
+    @Test
+    public void testMostSelectiveIndexIsAccessPath() {
+        QueryPlanner planner = createPlanner(createRecords());
+        QueryPlan plan = planner.plan(new QueryParser(
+                "lastName LIKE \"B*\" and jmbag > \"0000001100\" and firstName = \"Ivan\"").getQuery());
+        assertEquals("jmbag", plan.getIndex().getName());
+        assertEquals("jmbag > \"0000001100\"", plan.getIndexedExpression().toString());
+        assertEquals(2, plan.getResidual().size());
+        assertEquals(100, plan.getEstimatedReads(), 5);
+    }
+
+    @Test
+    public void testResidualIsOrderedCheapestFirst() {
+        QueryPlanner planner = createPlanner(createRecords());
+        QueryPlan plan = planner.plan(new QueryParser(
+                "firstName LIKE \"*a\" and finalGrade != \"2\" and firstName = \"Ivan\"").getQuery());
+        assertNull(plan.getIndex());
+        assertEquals("firstName = \"Ivan\"", plan.getResidual().get(0).toString());
+        // rejects 20% of the records at cost 1, while LIKE rejects 75% at cost 4
+        assertEquals("finalGrade != \"2\"", plan.getResidual().get(1).toString());
+        assertEquals("firstName LIKE \"*a\"", plan.getResidual().get(2).toString());
+    }
+
+    @Test
+    public void testExplain() {
+        QueryPlanner planner = createPlanner(createRecords());
+        String explain = planner.plan(new QueryParser("lastName = \"Cvrlje\" and firstName = \"Marin\"").getQuery())
+                .explain();
+        assertEquals("""
+                Access path: lastName index scan for lastName = "Cvrlje" (estimated 200 of 1200 records)
+                Filter 1: firstName = "Marin" (selectivity 0.250)
+                Estimated records selected: 50
+                """, explain);
+    }
+
+    @Test
+    public void testOptimizeOrdersOperandsForShortCircuiting() {
+        QueryPlanner planner = createPlanner(createRecords());
+        IQueryExpression tree = new QueryParser(
+                "firstName LIKE \"*a\" and lastName = \"Bosnić\" and (finalGrade > \"0\" or jmbag = \"0000000001\")")
+                .getExpression();
+        AndExpression optimized = (AndExpression) planner.optimize(tree);
+        assertEquals("lastName = \"Bosnić\"", optimized.getOperands().get(0).toString());
+        OrExpression or = (OrExpression) optimized.getOperands().get(2);
+        assertEquals("finalGrade > \"0\"", or.getOperands().get(0).toString());
+        assertEquals(1.0 / 6, planner.selectivity(new QueryParser("lastName = \"Bosnić\"").getExpression()), 1e-9);
+        assertEquals(5.0 / 6, planner.selectivity(new QueryParser("not lastName = \"Bosnić\"").getExpression()), 1e-9);
+    }
+
+    @Test
+    public void testExplainTree() {
+        QueryPlanner planner = createPlanner(createRecords());
+        String union = planner.explain(new QueryParser("lastName = \"Bosnić\" or lastName = \"Božić\"").getExpression());
+        assertTrue(union.startsWith("Access path: union of (lastName index scan for lastName = \"Bosnić\", "
+                + "lastName index scan for lastName = \"Božić\") (estimated 400 of 1200 records)\n"));
+        assertFalse(union.contains("Filter"));
+
+        String scan = planner.explain(new QueryParser("lastName = \"Bosnić\" or finalGrade = 3").getExpression());
+        assertTrue(scan.startsWith("Access path: full scan (estimated 1200 of 1200 records)\nFilter: "));
+    }
+}
@@ -0,0 +1,59 @@
+package hr.fer.oprpp1.hw04.db;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+public class ResultRenderersTest {
+    private static final List<StudentRecord> RECORDS = List.of(
+            new StudentRecord("0000000001", "Akšamović", "Marin", 2),
+            new StudentRecord("0000000002", "Bakamović, \"Mala\"", "Petra", 3),
+            new StudentRecord("0000000003", "Bosnić", "Andrea\\Ana", 4));
+
+    private static String render(IResultRenderer renderer, int from, int to) throws IOException {
+        StringWriter out = new StringWriter();
+        renderer.render(out, RECORDS, from, to);
+        return out.toString();
+    }
+
+    @Test
+    public void testTable() throws IOException {
+        assertEquals("+============+===========+=======+===+\n"
+                + "| 0000000001 | Akšamović | Marin | 2 |\n"
+                + "+============+===========+=======+===+\n"
+                + "Records selected: 1\n", render(ResultRenderers.TABLE, 0, 1));
+        assertEquals("+============+========+============+===+\n"
+                + "| 0000000003 | Bosnić | Andrea\\Ana | 4 |\n"
+                + "+============+========+============+===+\n"
+                + "Records selected: 1\n", render(ResultRenderers.TABLE, 2, 3));
+        assertEquals("Records selected: 0\n", render(ResultRenderers.TABLE, 1, 1));
+    }
+
+    @Test
+    public void testCsv() throws IOException {
+        assertEquals("jmbag,lastName,firstName,finalGrade\n"
+                + "0000000001,Akšamović,Marin,2\n"
+                + "0000000002,\"Bakamović, \"\"Mala\"\"\",Petra,3\n", render(ResultRenderers.CSV, 0, 2));
+        assertEquals("jmbag,lastName,firstName,finalGrade\n", render(ResultRenderers.CSV, 0, 0));
+    }
+
+    @Test
+    public void testJson() throws IOException {
+        assertEquals("[\n"
+                + "  {\"jmbag\": \"0000000002\", \"lastName\": \"Bakamović, \\\"Mala\\\"\", \"firstName\": \"Petra\", \"finalGrade\": 3},\n"
+                + "  {\"jmbag\": \"0000000003\", \"lastName\": \"Bosnić\", \"firstName\": \"Andrea\\\\Ana\", \"finalGrade\": 4}\n"
+                + "]\n", render(ResultRenderers.JSON, 1, 3));
+        assertEquals("[]\n", render(ResultRenderers.JSON, 0, 0));
+    }
+
+    @Test
+    public void testForName() {
+        assertSame(ResultRenderers.CSV, ResultRenderers.forName("CSV"));
+        assertSame(ResultRenderers.TABLE, ResultRenderers.forName("table"));
+        assertThrows(IllegalArgumentException.class, () -> ResultRenderers.forName("xml"));
+    }
+}
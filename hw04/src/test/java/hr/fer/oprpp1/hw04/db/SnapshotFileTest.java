@@ -0,0 +1,90 @@
+package hr.fer.oprpp1.hw04.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class SnapshotFileTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<StudentRecord> records = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            records.add(new StudentRecord(String.format("%010d", 20_000 - i), "Prezimenić" + i % 300,
+                    "Šime" + i % 40, 1 + i % 5));
+        }
+        records.add(new StudentRecord("x".repeat(100_000), "", "Đurđa", 3));
+        Path path = dir.resolve("snapshot.db");
+        int[] order = jmbagOrder(records);
+        SnapshotFile.write(path, records, order);
+        SnapshotFile.Contents contents = SnapshotFile.read(path);
+        List<StudentRecord> read = contents.records();
+
+        assertEquals(records.size(), read.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(records.get(i).getJmbag(), read.get(i).getJmbag());
+            assertEquals(records.get(i).getLastName(), read.get(i).getLastName());
+            assertEquals(records.get(i).getFirstName(), read.get(i).getFirstName());
+            assertEquals(records.get(i).getFinalGrade(), read.get(i).getFinalGrade());
+        }
+        assertArrayEquals(order, contents.jmbagOrder());
+        assertSame(read.get(0).getLastName(), read.get(300).getLastName());
+        assertFalse(Files.exists(dir.resolve("snapshot.db.tmp")));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        Path path = dir.resolve("snapshot.db");
+        SnapshotFile.write(path, List.of(), new int[0]);
+        assertTrue(SnapshotFile.read(path).records().isEmpty());
+    }
+
+    @Test
+    public void testInvalidFiles() throws IOException {
+        Path path = dir.resolve("snapshot.db");
+        Files.writeString(path, "0000000001\tAkšamović\tMarin\t2\n");
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.read(path));
+
+        Files.write(path, ByteBuffer.allocate(5).putInt(SnapshotFile.MAGIC).put((byte) 9).array());
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.read(path));
+
+        SnapshotFile.write(path, List.of(new StudentRecord("0000000001", "Akšamović", "Marin", 2)), new int[] { 0 });
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> SnapshotFile.read(path));
+    }
+
+    @Test
+    public void testDuplicateJmbagsAreRejected() throws IOException {
+        Path path = dir.resolve("snapshot.db");
+        SnapshotFile.write(path, List.of(new StudentRecord("0000000001", "Akšamović", "Marin", 2),
+                new StudentRecord("0000000001", "Bakamović", "Petra", 3)), new int[] { 0, 1 });
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.read(path));
+    }
+
+    @Test
+    public void testOrderMustHoldEveryRecord() {
+        Path path = dir.resolve("snapshot.db");
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.write(path,
+                List.of(new StudentRecord("0000000001", "Akšamović", "Marin", 2)), new int[0]));
+    }
+
+    private static int[] jmbagOrder(List<StudentRecord> records) {
+        return IntStream.range(0, records.size()).boxed()
+                .sorted(Comparator.comparing(row -> records.get(row).getJmbag()))
+                .mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,125 @@
+package hr.fer.oprpp1.hw04.db;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class StudentDatabaseServerTest {
+    private static StudentDatabase createDatabase() {
+        return new StudentDatabase(new ArrayList<String>(Arrays.asList(
+                "0000000001	Akšamović	Marin	2",
+                "0000000002	Bakamović	Petra	3",
+                "0000000003	Bosnić	Andrea	4",
+                "0000000004	Božić	Marin	5",
+                "0000000005	Brezović	Jusufadis	2",
+                "0000000006	Cvrlje	Ivan	3")));
+    }
+
+    private static String request(BufferedReader in, PrintWriter out, String command) throws IOException {
+        out.println(command);
+        out.flush();
+        StringBuilder sb = new StringBuilder();
+        String line;
+        while (!(line = in.readLine()).isEmpty()) {
+            sb.append(line).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testQueries() throws IOException {
+        try (StudentDatabaseServer server = new StudentDatabaseServer(createDatabase(), 0)) {
+            server.start();
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                    BufferedReader in = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                    PrintWriter out = new PrintWriter(
+                            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                String result = request(in, out, "query jmbag = \"0000000003\"");
+                assertTrue(result.startsWith("Using index for record retrieval.\n"));
+                assertTrue(result.endsWith("Records selected: 1\n"));
+
+                assertEquals("Output format set.\n", request(in, out, "format csv"));
+                assertEquals("jmbag,lastName,firstName,finalGrade\n"
+                        + "0000000001,Akšamović,Marin,2\n"
+                        + "0000000004,Božić,Marin,5\n", request(in, out, "query firstName = \"Marin\""));
+                assertEquals("Count: 4\n", request(in, out, "query count lastName LIKE \"B*\""));
+                assertFalse(request(in, out, "query lastName ~ \"B*\"").isEmpty());
+                assertEquals("Invalid command.\n", request(in, out, "hello"));
+                assertTrue(request(in, out, "stats").startsWith("Queries: 3, failed: 1,"));
+            }
+            assertEquals(3, server.getMetrics().getCount());
+        }
+    }
+
+    @Test
+    public void testConcurrentClients() throws Exception {
+        StudentDatabase db = createDatabase();
+        db.select("firstName = \"Ivan\"");
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try (StudentDatabaseServer server = new StudentDatabaseServer(db, 0)) {
+            server.start();
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String name = i % 2 == 0 ? "B*" : "A*";
+                futures.add(clients.submit(() -> {
+                    int matching = 0;
+                    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                            BufferedReader in = new BufferedReader(
+                                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                            PrintWriter out = new PrintWriter(
+                                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                        request(in, out, "format csv");
+                        for (int j = 0; j < 50; j++) {
+                            String result = request(in, out, "query lastName LIKE \"" + name + "\"");
+                            matching += result.split("\n").length - 1;
+                        }
+                    }
+                    return matching;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i % 2 == 0 ? 4 * 50 : 50, futures.get(i).get());
+            }
+            assertEquals(200, server.getMetrics().getCount());
+        } finally {
+            clients.shutdown();
+        }
+        // serving queries leaves the selection of the database alone
+        assertTrue(db.getResult().contains("Cvrlje"));
+    }
+
+    @Test
+    public void testDatabaseCantBeChangedWhileServed() throws IOException {
+        StudentDatabase db = createDatabase();
+        StudentRecord record = new StudentRecord("0000000007", "Dagoberto", "Ivan", 5);
+        try (StudentDatabaseServer server = new StudentDatabaseServer(db, 0)) {
+            assertThrows(IllegalStateException.class, () -> db.insert(record));
+            assertThrows(IllegalStateException.class, () -> db.delete("0000000001"));
+            assertThrows(IllegalStateException.class, () -> db.compact());
+            try (StudentDatabaseServer second = new StudentDatabaseServer(db, 0)) {
+                // closing another server leaves the database held by the first one
+                assertNotEquals(server.getPort(), second.getPort());
+            }
+            assertThrows(IllegalStateException.class, () -> db.update(record));
+            assertEquals(6, db.query("jmbag > \"0\"").getRecords().size());
+        }
+        db.insert(record);
+        assertTrue(db.delete("0000000001"));
+        assertEquals(6, db.query("jmbag > \"0\"").getRecords().size());
+    }
+}
@@ -1,10 +1,21 @@
 package hr.fer.oprpp1.hw04.db;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class StudentDatabaseTest {
     @Test
@@ -29,4 +40,372 @@ public class StudentDatabaseTest {
         assertEquals(3, db.filter((record) -> true).size());
         assertEquals(0, db.filter((record) -> false).size());
     }
+
+    private static StudentDatabase createDatabase() {
+        return new StudentDatabase(new ArrayList<String>(Arrays.asList(
+                "0000000001	Akšamović	Marin	2",
+                "0000000002	Bakamović	Petra	3",
+                "0000000003	Bosnić	Andrea	4",
+                "0000000004	Božić	Marin	5",
+                "0000000005	Brezović	Jusufadis	2",
+                "0000000006	Cvrlje	Ivan	3")));
+    }
+
+    @Test
+    public void testSelectUsesLastNameIndexForRange() {
+        StudentDatabase db = createDatabase();
+        db.select(" lastName > \"Bosnić\"");
+        String result = db.getResult();
+        assertTrue(result.startsWith("Using lastName index for record retrieval.\n"));
+        assertTrue(result.contains("| 0000000004 | Božić"));
+        assertTrue(result.contains("| 0000000005 | Brezović"));
+        assertTrue(result.contains("| 0000000006 | Cvrlje"));
+        assertTrue(result.endsWith("Records selected: 3\n"));
+    }
+
+    @Test
+    public void testSelectUsesIndexForLikePrefixAndChecksWholeQuery() {
+        StudentDatabase db = createDatabase();
+        db.select(" lastName LIKE \"b*\" and firstName = \"Marin\"");
+        String result = db.getResult();
+        assertTrue(result.startsWith("Using firstName index for record retrieval.\n"));
+        assertTrue(result.contains("| 0000000004 | Božić"));
+        assertTrue(result.endsWith("Records selected: 1\n"));
+
+        db.select(" lastName LIKE \"b*\" and firstName > \"B\"");
+        result = db.getResult();
+        assertTrue(result.startsWith("Using lastName index for record retrieval.\n"));
+        assertTrue(result.endsWith("Records selected: 3\n"));
+    }
+
+    @Test
+    public void testSelectByFinalGradeKeepsDatabaseOrder() {
+        StudentDatabase db = createDatabase();
+        db.select(" finalGrade = \"2\"");
+        String result = db.getResult();
+        assertTrue(result.startsWith("Using finalGrade index for record retrieval.\n"));
+        assertTrue(result.indexOf("0000000001") < result.indexOf("0000000005"));
+        assertTrue(result.endsWith("Records selected: 2\n"));
+    }
+
+    @Test
+    public void testSelectWithoutUsableIndex() {
+        StudentDatabase db = createDatabase();
+        db.select(" lastName LIKE \"*ić\"");
+        String result = db.getResult();
+        assertTrue(result.startsWith("+"));
+        assertTrue(result.endsWith("Records selected: 5\n"));
+
+        db.select(" jmbag = \"0000000003\"");
+        assertTrue(db.getResult().startsWith("Using index for record retrieval.\n"));
+    }
+
+    @Test
+    public void testExplain() {
+        StudentDatabase db = createDatabase();
+        assertEquals("Access path: jmbag primary key lookup (at most 1 of 6 records)\n",
+                db.explain(" jmbag = \"0000000003\""));
+        assertTrue(db.explain(" firstName = \"Marin\" and lastName LIKE \"B*\"")
+                .startsWith("Access path: firstName index scan for firstName = \"Marin\""));
+    }
+
+    @Test
+    public void testColumnarGivesSameResults() {
+        List<String> lines = new ArrayList<String>(Arrays.asList(
+                "0000000001	Akšamović	Marin	2",
+                "0000000002	Bakamović	Petra	3",
+                "0000000003	Bosnić	Andrea	4",
+                "0000000004	Božić	Marin	5",
+                "0000000005	Brezović	Jusufadis	2",
+                "0000000006	Cvrlje	Ivan	3"));
+        StudentDatabase rowDb = new StudentDatabase(lines);
+        StudentDatabase columnDb = new StudentDatabase(lines, true);
+        for (String query : List.of(" lastName LIKE \"B*\" and finalGrade > \"2\"", " jmbag = \"0000000004\"",
+                " firstName LIKE \"*a\"", " firstName = \"Marin\" and lastName != \"Božić\"",
+                " jmbag < \"0000000003\" and firstName LIKE \"*in\"")) {
+            rowDb.select(query);
+            columnDb.select(query);
+            assertEquals(rowDb.getResult(), columnDb.getResult());
+        }
+        assertEquals("Božić", columnDb.forJMBAG("0000000004").getLastName());
+        assertNull(columnDb.forJMBAG("0000000007"));
+        assertEquals(2, columnDb.filter(record -> record.getFinalGrade() == 2).size());
+    }
+
+    @Test
+    public void testRepeatedQueryUsesCache() {
+        StudentDatabase db = createDatabase();
+        db.select(" lastName LIKE \"B*\" and finalGrade > \"2\"");
+        String result = db.getResult();
+        db.select(" finalGrade>\"2\" AND lastName LIKE \"B*\"");
+        assertEquals(result, db.getResult());
+        assertEquals(1, db.getQueryCache().getHits());
+        assertEquals(1, db.getQueryCache().getMisses());
+
+        db.select(" jmbag = \"0000000004\"");
+        assertEquals(2, db.getQueryCache().getMisses() + db.getQueryCache().getHits());
+    }
+
+    @Test
+    public void testInsertUpdateDelete() throws IOException {
+        StudentDatabase db = createDatabase();
+        db.select(" lastName LIKE \"B*\"");
+        assertEquals(4, db.filter(record -> record.getLastName().startsWith("B")).size());
+
+        db.insert(new StudentRecord("0000000007", "Bilić", "Ana", 5));
+        db.select(" lastName LIKE \"B*\"");
+        assertTrue(db.getResult().endsWith("Records selected: 5\n"));
+
+        db.update(new StudentRecord("0000000003", "Cvitić", "Andrea", 4));
+        db.delete("0000000002");
+        db.select(" lastName LIKE \"B*\"");
+        assertTrue(db.getResult().endsWith("Records selected: 3\n"));
+        assertEquals("Cvitić", db.forJMBAG("0000000003").getLastName());
+        assertNull(db.forJMBAG("0000000002"));
+        assertFalse(db.delete("0000000002"));
+        assertEquals(6, db.count());
+        assertEquals(6, db.filter(record -> true).size());
+
+        db.compact();
+        db.select(" lastName LIKE \"B*\"");
+        assertTrue(db.getResult().endsWith("Records selected: 3\n"));
+        assertEquals(6, db.filter(record -> true).size());
+
+        assertThrows(IllegalArgumentException.class, () -> db.insert(new StudentRecord("0000000001", "A", "B", 2)));
+        assertThrows(IllegalArgumentException.class, () -> db.update(new StudentRecord("0000000009", "A", "B", 2)));
+        assertThrows(IllegalArgumentException.class, () -> db.insert(new StudentRecord("0000000009", "A", "B", 6)));
+    }
+
+    @Test
+    public void testColumnarDatabaseIsReadOnly() {
+        StudentDatabase db = new StudentDatabase(generateLines(10), true);
+        assertThrows(UnsupportedOperationException.class,
+                () -> db.insert(new StudentRecord("0000000100", "A", "B", 2)));
+        assertThrows(UnsupportedOperationException.class, () -> db.delete("0000000001"));
+    }
+
+    @Test
+    public void testPersistentDatabaseSurvivesReopening(@TempDir Path dir) throws IOException {
+        Path text = dir.resolve("database.txt");
+        Files.write(text, generateLines(20), StandardCharsets.UTF_8);
+        Path data = dir.resolve("data");
+        try (StudentDatabase db = StudentDatabase.open(data, text, 0)) {
+            assertEquals(20, db.count());
+            db.insert(new StudentRecord("0000000100", "Bilić", "Ana", 5));
+            db.update(new StudentRecord("0000000001", "Cvitić", "Ivan", 1));
+            db.delete("0000000002");
+        }
+        try (StudentDatabase db = StudentDatabase.open(data, null, 0)) {
+            assertEquals(20, db.count());
+            assertEquals("Bilić", db.forJMBAG("0000000100").getLastName());
+            assertEquals(1, db.forJMBAG("0000000001").getFinalGrade());
+            assertNull(db.forJMBAG("0000000002"));
+            db.setCompactionThreshold(1);
+            db.delete("0000000003");
+        }
+        try (StudentDatabase db = StudentDatabase.open(data, null, 0)) {
+            assertEquals(19, db.count());
+            assertNull(db.forJMBAG("0000000003"));
+            db.select(" firstName = \"Ivan\" and finalGrade = \"1\"");
+            assertTrue(db.getResult().contains("Cvitić"));
+        }
+        assertEquals(0, Files.size(data.resolve("wal.log")));
+    }
+
+    @Test
+    public void testSnapshotRoundTrip(@TempDir Path dir) throws IOException {
+        StudentDatabase db = createDatabase();
+        db.delete("0000000002");
+        Path snapshot = dir.resolve("snapshot.db");
+        db.writeSnapshot(snapshot);
+        StudentDatabase read = StudentDatabase.readSnapshot(snapshot);
+        assertEquals(5, read.count());
+        assertNull(read.forJMBAG("0000000002"));
+        for (String query : List.of(" lastName LIKE \"B*\"", " finalGrade > \"2\" and firstName = \"Marin\"")) {
+            db.select(query);
+            read.select(query);
+            assertEquals(db.getResult(), read.getResult());
+        }
+
+        StudentDatabase columnar = StudentDatabase.readSnapshot(snapshot, true);
+        columnar.writeSnapshot(snapshot);
+        assertEquals("Božić", StudentDatabase.readSnapshot(snapshot).forJMBAG("0000000004").getLastName());
+    }
+
+    @Test
+    public void testLimitAndPaging() throws IOException {
+        StudentDatabase db = createDatabase();
+        db.select(" lastName LIKE \"B*\" LIMIT 2 OFFSET 1");
+        String result = db.getResult();
+        assertTrue(result.contains("Bosnić") && result.contains("Božić"));
+        assertFalse(result.contains("Bakamović") || result.contains("Brezović"));
+        assertTrue(result.endsWith("Records selected: 2\n"));
+
+        db.select(" lastName LIKE \"B*\" LIMIT 10 OFFSET 10");
+        assertEquals("Records selected: 0\n", db.getResult());
+
+        db.select(" finalGrade > \"1\"");
+        StringWriter out = new StringWriter();
+        db.writeResult(out, ResultRenderers.CSV, 4, 100);
+        assertEquals("jmbag,lastName,firstName,finalGrade\n0000000005,Brezović,Jusufadis,2\n"
+                + "0000000006,Cvrlje,Ivan,3\n", out.toString());
+        assertThrows(IllegalArgumentException.class, () -> db.writeResult(new StringWriter(), ResultRenderers.CSV, -1, 1));
+    }
+
+    @Test
+    public void testLogicalOperatorsMatchFilter() {
+        StudentDatabase db = new StudentDatabase(generateLines(500));
+        List<String> queries = List.of(
+                " lastName = \"Bosnić\" or firstName = \"Ivan\"",
+                " not lastName LIKE \"B*\" and finalGrade >= 4",
+                " (lastName = \"Božić\" or lastName = \"Cvrlje\") and not (finalGrade < 3 or firstName LIKE \"*a\")",
+                " jmbag < \"0000000010\" or jmbag > \"0000000490\"",
+                " lastName = \"Nitko\" and firstName LIKE \"*n\" or finalGrade = 5");
+        List<IFilter> filters = List.of(
+                r -> r.getLastName().equals("Bosnić") || r.getFirstName().equals("Ivan"),
+                r -> !r.getLastName().startsWith("B") && r.getFinalGrade() >= 4,
+                r -> (r.getLastName().equals("Božić") || r.getLastName().equals("Cvrlje"))
+                        && !(r.getFinalGrade() < 3 || r.getFirstName().endsWith("a")),
+                r -> r.getJmbag().compareTo("0000000010") < 0 || r.getJmbag().compareTo("0000000490") > 0,
+                r -> r.getFinalGrade() == 5);
+        for (int i = 0; i < queries.size(); i++) {
+            List<StudentRecord> expected = db.filter(filters.get(i));
+            db.select(queries.get(i));
+            assertTrue(db.getResult().endsWith("Records selected: " + expected.size() + "\n"), queries.get(i));
+
+            db.select(" COUNT" + queries.get(i));
+            assertEquals(expected.size(), db.getAggregateValue(), queries.get(i));
+            assertEquals("Count: " + expected.size() + "\n", db.getResult());
+        }
+    }
+
+    @Test
+    public void testAverage() {
+        StudentDatabase db = createDatabase();
+        db.select(" AVG firstName = \"Marin\"");
+        assertEquals(3.5, db.getAggregateValue());
+        assertEquals("Average grade: 3.50 (2 records)\n", db.getResult());
+        db.select(" AVG firstName = \"Nitko\"");
+        assertTrue(Double.isNaN(db.getAggregateValue()));
+        assertEquals("Average grade: none\n", db.getResult());
+        db.select(" firstName = \"Marin\"");
+        assertTrue(Double.isNaN(db.getAggregateValue()));
+    }
+
+    private static List<String> generateLines(int count) {
+        String[] lastNames = { "Akšamović", "Bakamović", "Bosnić", "Božić", "Cvrlje", "Dokleja" };
+        String[] firstNames = { "Marin", "Petra", "Andrea", "Ivan", "Jusufadis" };
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(String.format("%010d\t%s\t%s\t%d", i, lastNames[i % lastNames.length],
+                    firstNames[i % firstNames.length], 1 + i % 5));
+        }
+        return lines;
+    }
+
+    @Test
+    public void testParallelFilterKeepsOrder() {
+        List<String> lines = generateLines(20000);
+        for (boolean columnar : new boolean[] { false, true }) {
+            StudentDatabase db = new StudentDatabase(lines, columnar);
+            List<StudentRecord> sequential = db.filter(record -> record.getFinalGrade() > 3);
+            db.setParallelism(4, 0);
+            List<StudentRecord> parallel = db.filter(record -> record.getFinalGrade() > 3);
+            assertEquals(8000, parallel.size());
+            assertEquals(sequential, parallel);
+            for (int i = 1; i < parallel.size(); i++) {
+                assertTrue(parallel.get(i - 1).getJmbag().compareTo(parallel.get(i).getJmbag()) < 0);
+            }
+            db.select(" firstName LIKE \"*a\"");
+            assertTrue(db.getResult().endsWith("Records selected: 8000\n"));
+        }
+    }
+
+    @Test
+    public void testSetParallelismValidatesArguments() {
+        StudentDatabase db = createDatabase();
+        assertThrows(IllegalArgumentException.class, () -> db.setParallelism(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> db.setParallelism(2, -1));
+        db.setParallelism(2, 1000);
+        assertEquals(6, db.filter(record -> true).size());
+    }
+
+    @Test
+    public void testFinalGradeComparesNumerically() {
+        for (boolean columnar : new boolean[] { false, true }) {
+            StudentDatabase db = new StudentDatabase(new ArrayList<String>(Arrays.asList(
+                    "0000000001	Akšamović	Marin	1",
+                    "0000000002	Bakamović	Petra	2",
+                    "0000000003	Bosnić	Andrea	5")), columnar);
+            assertEquals(3, db.query("finalGrade < 10").getRecords().size());
+            assertEquals(3, db.query("finalGrade < \"10\"").getRecords().size());
+            assertEquals(3, db.prepare("finalGrade < ?").execute("10").size());
+            assertEquals(0, db.query("finalGrade >= \"10\"").getRecords().size());
+            assertEquals(1, db.query("finalGrade = 05").getRecords().size());
+            assertEquals(2, db.query("finalGrade != \"005\"").getRecords().size());
+            assertEquals(2, db.query("finalGrade > \"-1\" and finalGrade <= 2").getRecords().size());
+            assertEquals(3.0, db.query("COUNT finalGrade < 100000000000000000000").getAggregateValue());
+            assertThrows(IllegalArgumentException.class, () -> db.query("finalGrade < \"A\""));
+        }
+    }
+
+    @Test
+    public void testMainReportsMalformedCommands() throws IOException {
+        String output = runMain("query lastName = \n"
+                + "query lastName LIKE \"B*\" or\n"
+                + "explain firstName\n"
+                + "query jmbag = \"0000000001\"\n"
+                + "exit\n");
+        assertTrue(output.contains("Akšamović"));
+        assertTrue(output.endsWith("Goodbye!" + System.lineSeparator()));
+    }
+
+    @Test
+    public void testMainReportsFailedCompaction(@TempDir Path dir) throws IOException {
+        StudentDatabase.open(dir, null, 1).close();
+        // the snapshot is written into a temporary file first, which can't be a directory
+        Files.createDirectory(dir.resolve("snapshot.db.tmp"));
+        String output = runMain("insert 0000000001\tHorvat\tIvan\t2\n"
+                + "compact\n"
+                + "query jmbag = \"0000000001\"\n"
+                + "exit\n", "--data=" + dir);
+        assertTrue(output.contains("I/O error: "));
+        assertTrue(output.contains("Horvat"));
+        assertTrue(output.endsWith("Goodbye!" + System.lineSeparator()));
+    }
+
+    @Test
+    public void testFailedAutomaticCompactionKeepsTheChange(@TempDir Path dir) throws IOException {
+        try (StudentDatabase db = StudentDatabase.open(dir, null, 1)) {
+            db.setCompactionThreshold(1);
+            Files.createDirectory(dir.resolve("snapshot.db.tmp"));
+            db.insert(new StudentRecord("0000000001", "Horvat", "Ivan", 2));
+            assertEquals("Horvat", db.forJMBAG("0000000001").getLastName());
+            assertNotNull(db.getCompactionFailure());
+            assertThrows(IllegalArgumentException.class,
+                    () -> db.insert(new StudentRecord("0000000001", "Horvat", "Ivan", 2)));
+
+            Files.delete(dir.resolve("snapshot.db.tmp"));
+            db.insert(new StudentRecord("0000000002", "Kovač", "Ana", 5));
+            assertNull(db.getCompactionFailure());
+        }
+        try (StudentDatabase db = StudentDatabase.open(dir, null, 1)) {
+            assertEquals(2, db.query("jmbag > \"0\"").getRecords().size());
+        }
+    }
+
+    private static String runMain(String input, String... args) throws IOException {
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            System.setIn(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+            System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+            StudentDatabase.main(args);
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,86 @@
+package hr.fer.oprpp1.hw04.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WriteAheadLogTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testReplayReturnsAppendedEntries() throws IOException {
+        Path path = dir.resolve("wal.log");
+        try (WriteAheadLog log = new WriteAheadLog(path, 2)) {
+            log.replay(entry -> fail());
+            log.append(WriteAheadLog.Operation.INSERT, "0000000001", new StudentRecord("0000000001", "Akšamović", "Marin", 2));
+            log.append(WriteAheadLog.Operation.UPDATE, "0000000001", new StudentRecord("0000000001", "Akšamović", "Marin", 5));
+            log.append(WriteAheadLog.Operation.DELETE, "0000000001", null);
+        }
+        List<WriteAheadLog.Entry> entries = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(path, 2)) {
+            log.replay(entries::add);
+            assertEquals(3, log.size());
+        }
+        assertEquals(WriteAheadLog.Operation.INSERT, entries.get(0).operation());
+        assertEquals("Akšamović", entries.get(0).record().getLastName());
+        assertEquals(5, entries.get(1).record().getFinalGrade());
+        assertEquals(WriteAheadLog.Operation.DELETE, entries.get(2).operation());
+        assertEquals("0000000001", entries.get(2).jmbag());
+        assertNull(entries.get(2).record());
+    }
+
+    @Test
+    public void testReplayCutsOffIncompleteEntry() throws IOException {
+        Path path = dir.resolve("wal.log");
+        long complete;
+        try (WriteAheadLog log = new WriteAheadLog(path, 0)) {
+            log.replay(entry -> fail());
+            log.append(WriteAheadLog.Operation.DELETE, "0000000001", null);
+            log.sync();
+            complete = path.toFile().length();
+            log.append(WriteAheadLog.Operation.DELETE, "0000000002", null);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        List<WriteAheadLog.Entry> entries = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(path, 0)) {
+            log.replay(entries::add);
+            log.append(WriteAheadLog.Operation.DELETE, "0000000003", null);
+        }
+        assertEquals(1, entries.size());
+        assertTrue(path.toFile().length() > complete);
+
+        entries.clear();
+        try (WriteAheadLog log = new WriteAheadLog(path, 0)) {
+            log.replay(entries::add);
+        }
+        assertEquals(2, entries.size());
+        assertEquals("0000000003", entries.get(1).jmbag());
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        Path path = dir.resolve("wal.log");
+        try (WriteAheadLog log = new WriteAheadLog(path, 1)) {
+            log.replay(entry -> fail());
+            log.append(WriteAheadLog.Operation.DELETE, "0000000001", null);
+            log.clear();
+            assertEquals(0, log.size());
+        }
+        try (WriteAheadLog log = new WriteAheadLog(path, 1)) {
+            log.replay(entry -> fail());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new WriteAheadLog(path, -1));
+    }
+}
@@ -7,7 +7,8 @@ import java.util.SortedMap;
  */
 public interface Environment {
     /**
-     * Method reads a line from the user using stdin
+     * Method reads a line from the user using stdin, flushing any buffered output
+     * first so the user sees it, e.g. the prompt, before being asked for input
      *
      * @return line read from the user
      * @throws ShellIOException if an error occurs while reading
@@ -15,20 +16,46 @@ public interface Environment {
     String readLine() throws ShellIOException;
 
     /**
-     * Method writes the given text to the user using stdout
+     * Method writes the given text to the user using stdout. In buffered mode the
+     * text may stay buffered until the output is flushed
      *
      * @param text - text to be written
-     * @throws ShellIOException
+     * @throws ShellIOException if an error occurs while writing
      */
-    void write(String text) throws ShellIOException;
+    void write(CharSequence text) throws ShellIOException;
 
     /**
-     * Method writes the given text to the user using stdout and adds a new line
+     * Method writes the given text to the user using stdout and adds a new line.
+     * In buffered mode the line may stay buffered until the output is flushed
      *
      * @param text - text to be written
      * @throws ShellIOException if an error occurs while writing
      */
-    void writeln(String text) throws ShellIOException;
+    void writeln(CharSequence text) throws ShellIOException;
+
+    /**
+     * Method writes all the buffered output to stdout
+     *
+     * @throws ShellIOException if an error occurs while writing
+     */
+    void flush() throws ShellIOException;
+
+    /**
+     * Method returns whether the output is buffered, being written to stdout only
+     * when flushed or when a line is read, instead of after every write
+     *
+     * @return true if the output is buffered, false otherwise
+     */
+    boolean isBuffered();
+
+    /**
+     * Method sets whether the output is buffered, flushing it when buffering is
+     * turned off
+     *
+     * @param buffered - true to buffer the output, false to flush every write
+     * @throws ShellIOException if an error occurs while writing
+     */
+    void setBuffered(boolean buffered) throws ShellIOException;
 
     /**
      * Method returns a map of commands
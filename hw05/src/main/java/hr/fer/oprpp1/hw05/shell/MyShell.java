@@ -51,6 +51,11 @@ public class MyShell {
                 exit(1);
             }
         }
+        try {
+            env.flush();
+        } catch (ShellIOException e) {
+            exit(1);
+        }
     }
 
     /**
@@ -15,8 +15,11 @@ public class MyShellEnvironment implements Environment {
     private final char DEFAULT_PROMPT = '>';
     private final char DEFAULT_MORELINES = '\\';
     private final char DEFAULT_MULTILINE = '|';
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
     private BufferedReader br;
     private BufferedWriter bw;
+    private boolean buffered = true;
+    private char[] chars = new char[256];
 
     public MyShellEnvironment() {
         this.multilineSymbol = DEFAULT_MULTILINE;
@@ -24,14 +27,14 @@ public class MyShellEnvironment implements Environment {
         this.moreLinesSymbol = DEFAULT_MORELINES;
         this.commands = initCommands();
         br = new BufferedReader(new InputStreamReader(System.in));
-        bw = new BufferedWriter(new OutputStreamWriter(System.out));
+        bw = new BufferedWriter(new OutputStreamWriter(System.out), OUTPUT_BUFFER_SIZE);
     }
 
 
     /**
      * Reads a single line from the standard input. If the line ends with the
      * morelines symbol, the method will continue reading until the line ends
-     * without the multiline symbol.
+     * without the multiline symbol. Buffered output is flushed before reading.
      *
      * @return the line read from the standard input
      * @throws ShellIOException if an error occurs while reading from the standard input
@@ -40,6 +43,7 @@ public class MyShellEnvironment implements Environment {
     public String readLine() throws ShellIOException {
         StringBuilder sb = new StringBuilder();
         try {
+            bw.flush();
             String line = br.readLine();
             sb.append(line);
             while (line.endsWith(String.valueOf(moreLinesSymbol))) {
@@ -55,33 +59,107 @@ public class MyShellEnvironment implements Environment {
     }
 
     /**
-     * Writes the given text to the standard output.
+     * Writes the given text to the standard output, flushing it unless the output
+     * is buffered.
      *
      * @param text the text to be written
      * @throws ShellIOException if an error occurs while writing to the standard output
      */
     @Override
-    public void write(String text) throws ShellIOException {
+    public void write(CharSequence text) throws ShellIOException {
         if (text == null) {
             return; // should not happen
         }
         try {
-            bw.write(text);
-            bw.flush();
+            writeChars(text);
+            if (!buffered) {
+                bw.flush();
+            }
         } catch (IOException e) {
             throw new ShellIOException("Error while writing to output stream.");
         }
     }
 
     /**
-     * Writes the given text to the standard output and adds a new line.
+     * Writes the given text to the standard output and adds a new line, flushing
+     * it unless the output is buffered. The text and the line separator are
+     * written one after the other, without being joined first.
      *
      * @param text the text to be written
      * @throws ShellIOException if an error occurs while writing to the standard output
      */
     @Override
-    public void writeln(String text) throws ShellIOException {
-        write(text + System.lineSeparator());
+    public void writeln(CharSequence text) throws ShellIOException {
+        try {
+            if (text != null) {
+                writeChars(text);
+            }
+            bw.newLine();
+            if (!buffered) {
+                bw.flush();
+            }
+        } catch (IOException e) {
+            throw new ShellIOException("Error while writing to output stream.");
+        }
+    }
+
+    /**
+     * Writes the characters of the given text to the output through a reusable
+     * array. Appending a sequence to the writer would turn it into a string first,
+     * so text built in a reused builder would still be copied into a new string
+     * on every write.
+     *
+     * @param text the text to be written
+     * @throws IOException if an error occurs while writing to the standard output
+     */
+    private void writeChars(CharSequence text) throws IOException {
+        int length = text.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, 2 * chars.length)];
+        }
+        if (text instanceof String string) {
+            string.getChars(0, length, chars, 0);
+        } else if (text instanceof StringBuilder builder) {
+            builder.getChars(0, length, chars, 0);
+        } else if (text instanceof StringBuffer buffer) {
+            buffer.getChars(0, length, chars, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[i] = text.charAt(i);
+            }
+        }
+        bw.write(chars, 0, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws ShellIOException {
+        try {
+            bw.flush();
+        } catch (IOException e) {
+            throw new ShellIOException("Error while writing to output stream.");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isBuffered() {
+        return buffered;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBuffered(boolean buffered) throws ShellIOException {
+        this.buffered = buffered;
+        if (!buffered) {
+            flush();
+        }
     }
 
     /**
@@ -109,9 +109,9 @@ public class HexdumpCommand implements ShellCommand {
                             sbLine.append('.');
                         else sbLine.append((char) buffer[offset + i]);
                     }
-                    env.writeln(sbLine.toString());
+                    env.writeln(sbLine);
                     hexCounter += DUMP_WIDTH;
-                    sbLine = new StringBuilder();
+                    sbLine.setLength(0);
                 }
             }
         } catch (IOException e) {
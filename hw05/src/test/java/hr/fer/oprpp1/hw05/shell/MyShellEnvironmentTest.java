@@ -0,0 +1,80 @@
+package hr.fer.oprpp1.hw05.shell;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyShellEnvironmentTest {
+    private InputStream in;
+    private PrintStream out;
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    public void redirect() {
+        in = System.in;
+        out = System.out;
+        output = new ByteArrayOutputStream();
+        System.setIn(new ByteArrayInputStream("ls\n".getBytes()));
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    public void restore() {
+        System.setIn(in);
+        System.setOut(out);
+    }
+
+    @Test
+    public void bufferedOutputWaitsForFlush() throws ShellIOException {
+        MyShellEnvironment env = new MyShellEnvironment();
+        assertTrue(env.isBuffered());
+        env.write("abc");
+        env.writeln(new StringBuilder("def"));
+        assertEquals("", output.toString());
+
+        env.flush();
+        assertEquals("abcdef" + System.lineSeparator(), output.toString());
+    }
+
+    @Test
+    public void readLineFlushesOutput() throws ShellIOException {
+        MyShellEnvironment env = new MyShellEnvironment();
+        env.write("> ");
+        assertEquals("", output.toString());
+
+        assertEquals("ls", env.readLine());
+        assertEquals("> ", output.toString());
+    }
+
+    @Test
+    public void unbufferedOutputFlushesEveryWrite() throws ShellIOException {
+        MyShellEnvironment env = new MyShellEnvironment();
+        env.write("pending");
+        env.setBuffered(false);
+        assertFalse(env.isBuffered());
+        assertEquals("pending", output.toString());
+
+        env.write(new StringBuilder("abc"));
+        assertEquals("pendingabc", output.toString());
+        env.writeln("def");
+        assertEquals("pendingabcdef" + System.lineSeparator(), output.toString());
+    }
+
+    @Test
+    public void writelnAddsLineSeparator() throws ShellIOException {
+        MyShellEnvironment env = new MyShellEnvironment();
+        env.writeln("x".repeat(1000));
+        env.writeln(new StringBuilder("y"));
+        env.writeln(null);
+        env.flush();
+        assertEquals("x".repeat(1000) + System.lineSeparator() + "y" + System.lineSeparator()
+                + System.lineSeparator(), output.toString());
+    }
+}